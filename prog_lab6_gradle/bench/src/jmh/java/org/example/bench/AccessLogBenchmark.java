@@ -0,0 +1,62 @@
+package org.example.bench;
+
+import org.example.common.dtp.ObjectSerializer;
+import org.example.common.dtp.RequestCommand;
+import org.example.server.cli.ConsoleOutput;
+import org.example.server.command.commands.HeadCommand;
+import org.example.server.command.commands.InfoCommand;
+import org.example.server.managers.*;
+import org.example.server.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность обработки запроса сервером (десериализация, команда, сериализация)
+ * с включенным и выключенным журналом доступа.
+ * sampleRate: 0 - журнал выключен, 1 - запись на каждый запрос, 100 - на каждый сотый
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessLogBenchmark {
+    @Param({"0", "1", "100"})
+    public int sampleRate;
+
+    @Param({"head", "info"})
+    public String command;
+
+    private Server server;
+    private ClientSession session;
+    private ByteBuffer request;
+
+    @Setup
+    public void setUp() throws IOException {
+        CollectionManager collectionManager = new CollectionManager();
+        CollectionManager.setCollection(Tickets.collection(100, 42));
+
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        CommandManager commandManager = new CommandManager(metricsRegistry);
+        commandManager.addCommand(new HeadCommand(collectionManager));
+        commandManager.addCommand(new InfoCommand(collectionManager));
+
+        server = new Server(0, new RequestCommandHandler(commandManager), new ConsoleOutput(), metricsRegistry);
+        server.getAccessLog().setSampleRate(sampleRate);
+
+        session = new ClientSession("/127.0.0.1:50000");
+        request = ByteBuffer.wrap(ObjectSerializer.serializeObject(new RequestCommand(command)));
+    }
+
+    @Benchmark
+    public int processRequest() throws IOException {
+        ByteBuffer response = server.processRequest(session, request.duplicate());
+        int responseSize = response.remaining();
+        server.getBufferPool().release(response);
+        return responseSize;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.bench;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.entity.Ticket;
+import org.example.server.command.commands.FilterStartsWithNameCommand;
+import org.example.server.command.commands.PrintFieldDescendingPersonCommand;
+import org.example.server.command.commands.PrintUniqueDiscountCommand;
+import org.example.server.managers.CollectionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции CollectionManager и фильтрующие команды на коллекциях разного размера.
+ * Размер коллекции в ходе измерения не меняется: добавление парно с удалением
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class CollectionManagerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int collectionSize;
+
+    private CollectionManager collectionManager;
+    private FilterStartsWithNameCommand filterCommand;
+    private PrintUniqueDiscountCommand uniqueDiscountCommand;
+    private PrintFieldDescendingPersonCommand descendingPersonCommand;
+    private RequestCommand filterRequest;
+    private RequestCommand noArgsRequest;
+
+    private int[] ids;
+    private int cursor = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collectionManager = new CollectionManager();
+        PriorityQueue<Ticket> collection = Tickets.collection(collectionSize, 42);
+        CollectionManager.setCollection(collection);
+
+        Random random = new Random(7);
+        ids = new int[1024];
+        for (int i = 0; i < ids.length; i++) ids[i] = 1 + random.nextInt(collectionSize);
+
+        filterCommand = new FilterStartsWithNameCommand(collectionManager);
+        uniqueDiscountCommand = new PrintUniqueDiscountCommand();
+        descendingPersonCommand = new PrintFieldDescendingPersonCommand();
+        filterRequest = new RequestCommand("filter_starts_with_name", new ArrayList<>(List.of("ticket-a")));
+        noArgsRequest = new RequestCommand("print_unique_discount");
+    }
+
+    private int nextId() {
+        int id = ids[cursor];
+        cursor = (cursor + 1) & (ids.length - 1);
+        return id;
+    }
+
+    /**
+     * Добавление элемента. Чтобы размер не рос, вместе с ним из очереди забирается голова,
+     * и она же добавляется на следующем вызове (id остаются уникальными)
+     */
+    @Benchmark
+    public Ticket addElementAndPoll() {
+        Ticket head = collectionManager.removeHead();
+        collectionManager.addElement(head);
+        return head;
+    }
+
+    @Benchmark
+    public Ticket getElementById() {
+        return collectionManager.getElementById(nextId());
+    }
+
+    /**
+     * Удаление по id и возврат того же элемента обратно
+     */
+    @Benchmark
+    public boolean removeByIdAndReAdd() {
+        int id = nextId();
+        Ticket ticket = collectionManager.getElementById(id);
+        boolean removed = collectionManager.removeById(id);
+        if (ticket != null) collectionManager.addElement(ticket);
+        return removed;
+    }
+
+    @Benchmark
+    public int generateFreeId() {
+        return CollectionManager.generateFreeId();
+    }
+
+    @Benchmark
+    public Response filterStartsWithName() {
+        return filterCommand.execute(filterRequest);
+    }
+
+    @Benchmark
+    public Response printUniqueDiscount() {
+        return uniqueDiscountCommand.execute(noArgsRequest);
+    }
+
+    @Benchmark
+    public Response printFieldDescendingPerson() {
+        return descendingPersonCommand.execute(noArgsRequest);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.bench;
+
+import org.example.common.entity.Ticket;
+import org.example.server.cli.ConsoleOutput;
+import org.example.server.managers.CollectionManager;
+import org.example.server.managers.FileManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сохранение коллекции в json и загрузка из него (FileManager)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class FileManagerBenchmark {
+    @Param({"1000", "100000"})
+    public int collectionSize;
+
+    private File file;
+    private FileManager fileManager;
+    private PriorityQueue<Ticket> collection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("tickets-bench", ".json");
+        file.deleteOnExit();
+        fileManager = new FileManager(file, new ConsoleOutput());
+        collection = Tickets.collection(collectionSize, 42);
+        fileManager.serializeCollectionToJSON(collection);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public File save() throws IOException {
+        fileManager.serializeCollectionToJSON(collection);
+        return file;
+    }
+
+    @Benchmark
+    public int load() {
+        fileManager.deserializeCollectionFromJSON();
+        return CollectionManager.getCollection().size();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.bench;
+
+import org.example.common.entity.Ticket;
+import org.example.server.query.ParallelScan;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный просмотр коллекции в одном потоке и через fork/join на коллекциях разного размера.
+ * Точка, где parallel начинает обгонять sequential, - подходящее значение server.scan.parallel.threshold
+ * для машины, на которой запущен бенчмарк (число потоков - server.scan.parallel.threads, по умолчанию все ядра)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ParallelScanBenchmark {
+    @Param({"1000", "10000", "25000", "50000", "100000", "1000000"})
+    public int collectionSize;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private PriorityQueue<Ticket> collection;
+    private ParallelScan scan;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = Tickets.collection(collectionSize, 42);
+        scan = new ParallelScan(mode.equals("parallel") ? 0 : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Фильтр по префиксу имени, как filter_starts_with_name
+     */
+    @Benchmark
+    public List<Ticket> filterSorted() {
+        return scan.filterSorted(collection, ticket -> ticket.getName().startsWith("ticket-a"), Comparator.comparing(Ticket::getCoordinates));
+    }
+
+    /**
+     * Уникальные скидки, как print_unique_discount
+     */
+    @Benchmark
+    public Set<Float> distinctDiscount() {
+        return scan.distinct(collection, Ticket::getDiscount);
+    }
+
+    /**
+     * Сортировка всей коллекции, как print_field_descending_person
+     */
+    @Benchmark
+    public List<Ticket> sortedAll() {
+        return scan.sorted(collection, Comparator.naturalOrder());
+    }
+}
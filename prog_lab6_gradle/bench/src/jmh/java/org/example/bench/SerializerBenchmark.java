@@ -0,0 +1,93 @@
+package org.example.bench;
+
+import org.example.common.dtp.ObjectSerializer;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.common.entity.Ticket;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация и десериализация запросов и ответов ObjectSerializer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    /**
+     * Запрос add с билетом и запрос update с аргументом
+     */
+    @State(Scope.Thread)
+    public static class RequestState {
+        RequestCommand addRequest;
+        RequestCommand updateRequest;
+        byte[] addBytes;
+
+        @Setup
+        public void setUp() throws IOException {
+            Ticket ticket = Tickets.random(new Random(1), 1);
+            addRequest = new RequestCommand("add", ticket);
+            updateRequest = new RequestCommand("update", new ArrayList<>(List.of("1")), ticket);
+            addBytes = ObjectSerializer.serializeObject(addRequest);
+        }
+    }
+
+    /**
+     * Ответ с коллекцией заданного размера (как у show и filter_starts_with_name)
+     */
+    @State(Scope.Thread)
+    public static class ResponseState {
+        @Param({"0", "10", "1000", "10000"})
+        public int collectionSize;
+
+        Response response;
+        byte[] responseBytes;
+
+        @Setup
+        public void setUp() throws IOException {
+            PriorityQueue<Ticket> collection = Tickets.collection(collectionSize, 42);
+            response = new Response(ResponseStatus.OK, "Элементы коллекции", collection);
+            responseBytes = ObjectSerializer.serializeObject(response);
+        }
+    }
+
+    @Benchmark
+    public Object requestRoundTrip(RequestState state) throws IOException, ClassNotFoundException {
+        return ObjectSerializer.deserializeObject(ObjectSerializer.serializeObject(state.addRequest));
+    }
+
+    @Benchmark
+    public Object updateRequestRoundTrip(RequestState state) throws IOException, ClassNotFoundException {
+        return ObjectSerializer.deserializeObject(ObjectSerializer.serializeObject(state.updateRequest));
+    }
+
+    @Benchmark
+    public Object requestDeserialize(RequestState state) throws IOException, ClassNotFoundException {
+        return ObjectSerializer.deserializeObject(state.addBytes);
+    }
+
+    @Benchmark
+    public byte[] responseSerialize(ResponseState state) throws IOException {
+        return ObjectSerializer.serializeObject(state.response);
+    }
+
+    @Benchmark
+    public Object responseDeserialize(ResponseState state) throws IOException, ClassNotFoundException {
+        return ObjectSerializer.deserializeObject(state.responseBytes);
+    }
+
+    @Benchmark
+    public Object responseRoundTrip(ResponseState state) throws IOException, ClassNotFoundException {
+        return ObjectSerializer.deserializeObject(ObjectSerializer.serializeObject(state.response));
+    }
+}
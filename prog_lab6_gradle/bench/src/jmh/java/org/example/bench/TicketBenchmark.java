@@ -0,0 +1,42 @@
+package org.example.bench;
+
+import org.example.common.entity.Ticket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение и валидация билетов: вызываются на каждой операции с PriorityQueue и при каждом добавлении
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketBenchmark {
+    private Ticket[] tickets;
+    private int cursor = 0;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        tickets = new Ticket[1024];
+        for (int i = 0; i < tickets.length; i++) tickets[i] = Tickets.random(random, i + 1);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        Ticket a = tickets[cursor];
+        cursor = (cursor + 1) & (tickets.length - 1);
+        return a.compareTo(tickets[cursor]);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        Ticket ticket = tickets[cursor];
+        cursor = (cursor + 1) & (tickets.length - 1);
+        return ticket.validate();
+    }
+}
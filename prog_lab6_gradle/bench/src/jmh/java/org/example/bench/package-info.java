@@ -0,0 +1,5 @@
+/**
+ * JMH-бенчмарки горячих путей сервера.
+ * Запуск: gradle :bench:jmh (или gradle :bench:jmh -PjmhIncludes=ИмяБенчмарка)
+ */
+package org.example.bench;
\ No newline at end of file
@@ -0,0 +1,32 @@
+package org.example.bench;
+
+import org.example.bench.loadgen.LoadGenerator;
+import org.example.bench.loadgen.LoadGeneratorConfig;
+import org.example.bench.loadgen.ServerProcess;
+
+/**
+ * Точка входа генератора нагрузки.
+ * Пример: java -jar bench-1.0.0-all.jar --connections 16 --rate 5000 --duration 60
+ *         --server-jar server/build/libs/server-1.0.0-all.jar --server-data tickets.json
+ */
+public class Main {
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorConfig config;
+        try {
+            config = LoadGeneratorConfig.parse(args);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            System.err.println(illegalArgumentException.getMessage());
+            System.err.println(LoadGeneratorConfig.USAGE);
+            return;
+        }
+
+        ServerProcess serverProcess = config.serverJar != null ? ServerProcess.start(config) : null;
+        try {
+            LoadGenerator loadGenerator = new LoadGenerator(config);
+            loadGenerator.run();
+            loadGenerator.printReport(System.out);
+        } finally {
+            if (serverProcess != null) serverProcess.close();
+        }
+    }
+}
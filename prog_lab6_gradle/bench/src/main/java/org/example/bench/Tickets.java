@@ -0,0 +1,50 @@
+package org.example.bench;
+
+import org.example.common.entity.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Генератор тестовых билетов для бенчмарков и нагрузочного теста
+ */
+public final class Tickets {
+    private static final TicketType[] TYPES = TicketType.values();
+    private static final Country[] COUNTRIES = Country.values();
+
+    private Tickets() {
+    }
+
+    /**
+     * Случайный валидный билет
+     * @param random генератор случайных чисел
+     * @param id id билета
+     * @return билет
+     */
+    public static Ticket random(Random random, int id) {
+        Ticket ticket = new Ticket(
+                "ticket-" + Integer.toString(random.nextInt(1_000_000), 36),
+                new Coordinates(random.nextFloat() * 1000, random.nextInt(10_000) - 470),
+                1 + random.nextInt(100_000) / 100.0,
+                (float) (1 + random.nextInt(99)),
+                random.nextInt(5) == 0 ? null : TYPES[random.nextInt(TYPES.length)],
+                random.nextBoolean(),
+                new Person(1 + random.nextInt(250), random.nextBoolean() ? COUNTRIES[random.nextInt(COUNTRIES.length)] : null)
+        );
+        ticket.setId(id);
+        return ticket;
+    }
+
+    /**
+     * Коллекция из size билетов с id от 1 до size
+     * @param size размер коллекции
+     * @param seed зерно генератора, чтобы прогоны были воспроизводимы
+     * @return коллекция
+     */
+    public static PriorityQueue<Ticket> collection(int size, long seed) {
+        Random random = new Random(seed);
+        PriorityQueue<Ticket> collection = new PriorityQueue<>(Math.max(1, size));
+        for (int id = 1; id <= size; id++) collection.add(random(random, id));
+        return collection;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.bench.loadgen;
+
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.ObjectSerializer;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Блокирующее подключение генератора нагрузки к серверу.
+ * Протокол тот же, что у клиента: кадр с длиной и сериализованным запросом - такой же кадр с ответом
+ */
+public class LoadConnection implements Closeable {
+    private final String host;
+    private final int port;
+    private final int timeoutMs;
+
+    private Socket socket;
+    private DataInputStream inputStream;
+    private OutputStream outputStream;
+
+    public LoadConnection(String host, int port, int timeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public void connect() throws IOException {
+        close();
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port), timeoutMs);
+        socket.setSoTimeout(timeoutMs);
+        inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        outputStream = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    public boolean isConnected() {
+        return socket != null && socket.isConnected() && !socket.isClosed();
+    }
+
+    /**
+     * Отправляет запрос и ждет ответ
+     * @param requestCommand запрос
+     * @return ответ сервера
+     * @throws IOException при ошибке сети или таймауте (после нее подключение нужно открыть заново)
+     */
+    public Response call(RequestCommand requestCommand) throws IOException {
+        outputStream.write(FrameCodec.encode(requestCommand));
+        outputStream.flush();
+
+        int length = inputStream.readInt();
+        if (length < 0 || length > FrameCodec.MAX_FRAME_SIZE) {
+            throw new IOException("Некорректная длина кадра: " + length);
+        }
+        byte[] body = new byte[length];
+        inputStream.readFully(body);
+        try {
+            return (Response) ObjectSerializer.deserializeObject(body);
+        } catch (ClassNotFoundException classNotFoundException) {
+            throw new IOException("Некорректный формат данных от сервера", classNotFoundException);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException ignored) {
+        }
+        socket = null;
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.bench.loadgen;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.server.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытой моделью поступления запросов.
+ * Каждое подключение отправляет запросы по расписанию (rate / connections запросов в секунду)
+ * независимо от того, как быстро отвечает сервер. Задержка считается от запланированного
+ * момента отправки, поэтому очередь, скопившаяся из-за медленного ответа, попадает в перцентили
+ * (поправка на coordinated omission)
+ */
+public class LoadGenerator {
+    private final LoadGeneratorConfig config;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private long measureStart;
+    private long measureEnd;
+
+    public LoadGenerator(LoadGeneratorConfig config) {
+        this.config = config;
+        this.operations = config.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new OperationStats(operations[i].getCommandName()));
+        }
+    }
+
+    /**
+     * Запуск теста. Блокирует поток до окончания измерения
+     */
+    public void run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) * config.connections / config.rate);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        measureEnd = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        CountDownLatch finished = new CountDownLatch(config.connections);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < config.connections; i++) {
+            // расписания подключений сдвинуты друг относительно друга, чтобы запросы не шли пачками
+            long firstSend = start + intervalNanos * i / config.connections;
+            Random random = new Random(config.seed + i);
+            Thread worker = new Thread(() -> {
+                try {
+                    runConnection(firstSend, intervalNanos, random);
+                } finally {
+                    finished.countDown();
+                }
+            }, "loadgen-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        finished.await();
+    }
+
+    private void runConnection(long firstSend, long intervalNanos, Random random) {
+        LoadConnection connection = new LoadConnection(config.host, config.port, config.timeoutMs);
+        try {
+            for (long intended = firstSend; intended < measureEnd; intended += intervalNanos) {
+                long now = System.nanoTime();
+                if (intended > now) LockSupport.parkNanos(intended - now);
+
+                Operation operation = nextOperation(random);
+                RequestCommand request = operation.buildRequest(random, config.idRange);
+                boolean measured = intended >= measureStart;
+
+                long sendTime = System.nanoTime();
+                try {
+                    if (!connection.isConnected()) connection.connect();
+                    Response response = connection.call(request);
+                    long done = System.nanoTime();
+                    if (measured) stats.get(operation).record(response.getResponseStatus(), done - intended, done - sendTime);
+                } catch (IOException ioException) {
+                    if (measured) stats.get(operation).recordFailure(System.nanoTime() - intended);
+                    connection.close();
+                }
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private Operation nextOperation(Random random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Печать отчета: пропускная способность и перцентили задержек по операциям и в целом
+     * @param out поток вывода
+     */
+    public void printReport(PrintStream out) {
+        double seconds = config.durationSeconds;
+        LatencyHistogram total = new LatencyHistogram();
+        long completed = 0, errors = 0, failures = 0;
+
+        out.printf("Нагрузка: %d подключений, %.0f запросов/с (открытая модель), %d с измерения%n",
+                config.connections, config.rate, config.durationSeconds);
+        out.println("Задержки в мс от запланированного момента отправки (с поправкой на coordinated omission)");
+        out.printf(": %-24s | %9s | %8s | %7s | %7s | %8s | %8s | %8s | %8s | %8s | %12s%n",
+                "операция", "ответов", "отв/с", "ошибки", "сбои", "p50", "p90", "p99", "p999", "max", "p99 (наивн.)");
+        for (OperationStats operationStats : stats.values()) {
+            printRow(out, operationStats.getName(), operationStats.getLatency(), operationStats.getServiceTime(),
+                    operationStats.getCompleted(), operationStats.getErrors(), operationStats.getFailures(), seconds);
+            completed += operationStats.getCompleted();
+            errors += operationStats.getErrors();
+            failures += operationStats.getFailures();
+        }
+
+        LatencyHistogram totalService = new LatencyHistogram();
+        for (OperationStats operationStats : stats.values()) {
+            total.add(operationStats.getLatency());
+            totalService.add(operationStats.getServiceTime());
+        }
+        printRow(out, "ВСЕГО", total, totalService, completed, errors, failures, seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, LatencyHistogram latency, LatencyHistogram service,
+                                 long completed, long errors, long failures, double seconds) {
+        out.printf(": %-24s | %9d | %8.1f | %7d | %7d | %8.2f | %8.2f | %8.2f | %8.2f | %8.2f | %12.2f%n",
+                name, completed, completed / seconds, errors, failures,
+                millis(latency.getValueAtQuantile(0.5)),
+                millis(latency.getValueAtQuantile(0.9)),
+                millis(latency.getValueAtQuantile(0.99)),
+                millis(latency.getValueAtQuantile(0.999)),
+                millis(latency.getMax()),
+                millis(service.getValueAtQuantile(0.99)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.bench.loadgen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста, разбираемые из аргументов командной строки
+ */
+public class LoadGeneratorConfig {
+    public static final String USAGE = String.join("\n",
+            "Использование: java -jar bench-all.jar [параметры]",
+            "  --host <хост>                 адрес сервера (localhost)",
+            "  --port <порт>                 порт сервера (5000)",
+            "  --connections <N>             число параллельных подключений (8)",
+            "  --rate <запросов/с>           суммарная интенсивность открытой нагрузки (1000)",
+            "  --duration <с>                длительность измерения (30)",
+            "  --warmup <с>                  прогрев, не попадающий в отчет (5)",
+            "  --mix <op=вес,...>            смесь операций (head=40,filter_starts_with_name=15,show=5,add=20,update=10,remove_by_id=10)",
+            "  --id-range <N>                id для update/remove_by_id берутся из [1; N] (10000)",
+            "  --timeout <мс>                таймаут ответа (5000)",
+            "  --seed <число>                зерно генератора (42)",
+            "  --server-jar <путь>           запустить локальный сервер из jar перед тестом",
+            "  --server-data <файл.json>     файл коллекции для запускаемого сервера (копируется во временный)",
+            "  --server-jvm \"<опции>\"        опции JVM запускаемого сервера, например \"-Xmx1g -Dserver.accesslog.sample=0\""
+    );
+
+    public String host = "localhost";
+    public int port = 5000;
+    public int connections = 8;
+    public double rate = 1000;
+    public int durationSeconds = 30;
+    public int warmupSeconds = 5;
+    public int idRange = 10_000;
+    public int timeoutMs = 5000;
+    public long seed = 42;
+    public Map<Operation, Integer> mix = parseMix("head=40,filter_starts_with_name=15,show=5,add=20,update=10,remove_by_id=10");
+
+    public String serverJar;
+    public String serverData;
+    public List<String> serverJvmOptions = new ArrayList<>();
+
+    /**
+     * Разбор аргументов
+     * @param args аргументы командной строки
+     * @return конфигурация
+     * @throws IllegalArgumentException при некорректных аргументах
+     */
+    public static LoadGeneratorConfig parse(String[] args) {
+        LoadGeneratorConfig config = new LoadGeneratorConfig();
+        for (int i = 0; i < args.length; i++) {
+            String key = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Не указано значение параметра " + key);
+            String value = args[++i];
+            try {
+                switch (key) {
+                    case "--host" -> config.host = value;
+                    case "--port" -> config.port = Integer.parseInt(value);
+                    case "--connections" -> config.connections = Integer.parseInt(value);
+                    case "--rate" -> config.rate = Double.parseDouble(value);
+                    case "--duration" -> config.durationSeconds = Integer.parseInt(value);
+                    case "--warmup" -> config.warmupSeconds = Integer.parseInt(value);
+                    case "--mix" -> config.mix = parseMix(value);
+                    case "--id-range" -> config.idRange = Integer.parseInt(value);
+                    case "--timeout" -> config.timeoutMs = Integer.parseInt(value);
+                    case "--seed" -> config.seed = Long.parseLong(value);
+                    case "--server-jar" -> config.serverJar = value;
+                    case "--server-data" -> config.serverData = value;
+                    case "--server-jvm" -> config.serverJvmOptions = Arrays.stream(value.trim().split("\\s+")).filter(s -> !s.isEmpty()).toList();
+                    default -> throw new IllegalArgumentException("Неизвестный параметр " + key);
+                }
+            } catch (NumberFormatException numberFormatException) {
+                throw new IllegalArgumentException("Параметр " + key + " должен быть числом");
+            }
+        }
+        if (config.connections <= 0 || config.rate <= 0 || config.durationSeconds <= 0 || config.idRange <= 0) {
+            throw new IllegalArgumentException("connections, rate, duration и id-range должны быть больше 0");
+        }
+        if (config.serverJar != null && config.serverData == null) {
+            throw new IllegalArgumentException("Для запуска сервера нужен --server-data");
+        }
+        return config;
+    }
+
+    /**
+     * Разбор смеси операций вида "add=20,head=80"
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) throw new IllegalArgumentException("Некорректная смесь операций: " + value);
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Вес операции не может быть отрицательным");
+            if (weight > 0) mix.put(Operation.byCommandName(pair[0].trim()), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("Смесь операций пуста");
+        return mix;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.bench.loadgen;
+
+import org.example.bench.Tickets;
+import org.example.common.dtp.RequestCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Операции, из которых составляется нагрузка
+ */
+public enum Operation {
+    ADD("add"),
+    UPDATE("update"),
+    SHOW("show"),
+    HEAD("head"),
+    FILTER_STARTS_WITH_NAME("filter_starts_with_name"),
+    REMOVE_BY_ID("remove_by_id");
+
+    private static final String NAME_ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private final String commandName;
+
+    Operation(String commandName) {
+        this.commandName = commandName;
+    }
+
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Поиск операции по названию команды
+     * @param commandName название команды
+     * @return операция
+     * @throws IllegalArgumentException если такой операции нет
+     */
+    public static Operation byCommandName(String commandName) {
+        for (Operation operation : values()) {
+            if (operation.commandName.equals(commandName)) return operation;
+        }
+        throw new IllegalArgumentException("Неизвестная операция: " + commandName);
+    }
+
+    /**
+     * Собирает запрос для операции. Билеты для add и update прикладываются сразу
+     * @param random генератор случайных чисел потока
+     * @param idRange id выбираются из диапазона [1; idRange]
+     * @return запрос
+     */
+    public RequestCommand buildRequest(Random random, int idRange) {
+        return switch (this) {
+            case ADD -> new RequestCommand(commandName, Tickets.random(random, 0));
+            case UPDATE -> new RequestCommand(commandName, args(String.valueOf(1 + random.nextInt(idRange))), Tickets.random(random, 0));
+            case REMOVE_BY_ID -> new RequestCommand(commandName, args(String.valueOf(1 + random.nextInt(idRange))));
+            case FILTER_STARTS_WITH_NAME -> new RequestCommand(commandName, args("ticket-" + NAME_ALPHABET.charAt(random.nextInt(NAME_ALPHABET.length()))));
+            case SHOW, HEAD -> new RequestCommand(commandName, new ArrayList<>());
+        };
+    }
+
+    private static ArrayList<String> args(String... args) {
+        return new ArrayList<>(List.of(args));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.bench.loadgen;
+
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.metrics.CommandStats;
+import org.example.server.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Результаты по одной операции.
+ * latency - задержка от запланированного момента отправки (с поправкой на coordinated omission),
+ * serviceTime - от фактической отправки до ответа (то, что видит наивный замер)
+ */
+public class OperationStats {
+    private static final ResponseStatus[] STATUSES = ResponseStatus.values();
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(STATUSES.length);
+    private final AtomicLong failures = new AtomicLong();
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    public void record(ResponseStatus status, long latencyNanos, long serviceNanos) {
+        latency.record(latencyNanos);
+        serviceTime.record(serviceNanos);
+        statusCounts.incrementAndGet(status.ordinal());
+    }
+
+    /**
+     * Запрос не получил ответа (таймаут или разрыв соединения)
+     */
+    public void recordFailure(long latencyNanos) {
+        latency.record(latencyNanos);
+        failures.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getCompleted() {
+        return serviceTime.getCount();
+    }
+
+    public long getErrors() {
+        long errors = 0;
+        for (ResponseStatus status : STATUSES) {
+            if (CommandStats.isError(status)) errors += statusCounts.get(status.ordinal());
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.bench.loadgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Локальный процесс сервера, запускаемый генератором нагрузки.
+ * Сервер работает с временной копией файла коллекции, чтобы тест не портил исходные данные
+ */
+public class ServerProcess implements AutoCloseable {
+    private static final long STARTUP_TIMEOUT_MS = 30_000;
+
+    private final Process process;
+    private final File dataCopy;
+
+    private ServerProcess(Process process, File dataCopy) {
+        this.process = process;
+        this.dataCopy = dataCopy;
+    }
+
+    /**
+     * Запускает сервер и ждет, пока он начнет принимать подключения
+     * @param config параметры теста
+     * @return запущенный процесс
+     * @throws IOException если сервер не запустился
+     */
+    public static ServerProcess start(LoadGeneratorConfig config) throws IOException, InterruptedException {
+        File dataCopy = File.createTempFile("loadgen-tickets", ".json");
+        Files.copy(new File(config.serverData).toPath(), dataCopy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(config.serverJvmOptions);
+        command.add("-jar");
+        command.add(config.serverJar);
+        command.add(dataCopy.getPath());
+        command.add(String.valueOf(config.port));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("loadgen-server.out"))
+                .start();
+        ServerProcess serverProcess = new ServerProcess(process, dataCopy);
+
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                serverProcess.close();
+                throw new IOException("Сервер завершился при запуске, код " + process.exitValue() + " (см. loadgen-server.out)");
+            }
+            try (Socket probe = new Socket()) {
+                probe.connect(new InetSocketAddress(config.host, config.port), 200);
+                return serverProcess;
+            } catch (IOException notYet) {
+                Thread.sleep(100);
+            }
+        }
+        serverProcess.close();
+        throw new IOException("Сервер не начал принимать подключения за " + STARTUP_TIMEOUT_MS + " мс");
+    }
+
+    /**
+     * Останавливает сервер (штатно, через SIGTERM, чтобы отработал shutdown hook) и удаляет копию данных
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (process.isAlive()) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) process.destroyForcibly();
+        }
+        dataCopy.delete();
+    }
+}
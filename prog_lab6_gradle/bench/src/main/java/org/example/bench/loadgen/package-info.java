@@ -0,0 +1,5 @@
+/**
+ * Генератор нагрузки: N параллельных подключений по клиентскому протоколу,
+ * открытая модель поступления запросов и перцентили задержек с поправкой на coordinated omission
+ */
+package org.example.bench.loadgen;
\ No newline at end of file
@@ -4,8 +4,8 @@ import org.example.client.cli.ConsoleInput;
 import org.example.client.managers.RunnableScriptsManager;
 import org.example.client.utils.InputReader;
 import org.example.common.utils.Printable;
+import org.example.common.utils.TicketParser;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.function.Predicate;
 
@@ -18,15 +18,6 @@ public abstract class Builder<T> {
     protected final Printable consoleOutput;
     protected final InputReader consoleInput;
 
-    /**
-     * Статический массив для хранения слов которые следует распознавать как значение true
-     */
-    public static final ArrayList<String> trueWords = new ArrayList<>(Arrays.asList("1", "+", "on", "y", "yes", "t", "true"));
-    /**
-     * Статический массив для хранения слов которые следует распознавать как значение false
-     */
-    public static final ArrayList<String> falseWords = new ArrayList<>(Arrays.asList("0", "-", "off", "n", "no", "not", "f", "false"));
-
     public Builder(Printable consoleOutput, InputReader consoleInput) {
         this.consoleOutput = consoleOutput;
         this.consoleInput = ConsoleInput.isFileMode() ? new RunnableScriptsManager() : consoleInput;
@@ -153,10 +144,10 @@ public abstract class Builder<T> {
             consoleOutput.print(String.format("%s?\nДА=(\"1\", \"+\", \"on\", \"y\", \"yes\", \"t\", \"true\"); \nНЕТ=(\"0\", \"-\", \"off\", \"n\", \"no\", \"not\", \"f\", \"false\")\n> ", valueName));
             String input = consoleInput.readLine();
             if (input != null) input = input.trim().toLowerCase();
-            if (Builder.trueWords.contains(input)) {
+            if (TicketParser.TRUE_WORDS.contains(input)) {
                 return true;
             }
-            else if (Builder.falseWords.contains(input)) {
+            else if (TicketParser.FALSE_WORDS.contains(input)) {
                 return false;
             }
             consoleOutput.printError("Что непонятного?! Скажите ДА или НЕТ одним из разрешенных способов!");
@@ -0,0 +1,316 @@
+package org.example.client.managers;
+
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.FrameCompressor;
+import org.example.common.dtp.FrameReader;
+import org.example.common.dtp.ObjectSerializer;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Асинхронный клиент для встраивания в другие приложения.
+ * Запросы можно отправлять из любого числа потоков одновременно: каждый получает номер,
+ * сериализуется в вызывающем потоке и ставится в очередь, а один поток ввода-вывода
+ * пишет запросы в соединение и раздает ответы ожидающим {@link CompletableFuture} по номеру запроса.
+ * Переподключение не выполняется: после обрыва соединения все ожидающие запросы завершаются ошибкой,
+ * а клиент нужно создать заново.
+ * События подписки (subscribe) передаются слушателю {@link #setEventListener}.
+ * При подключении клиент предлагает серверу сжатие ответов; запросы сериализуются
+ * в вызывающих потоках и уходят несжатыми
+ */
+public class AsyncClient implements Closeable {
+    private final String host;
+    private final int port;
+
+    /**
+     * Таймаут запроса по умолчанию в мс
+     */
+    private final long defaultTimeoutMs;
+
+    private final AtomicLong requestIdGenerator = new AtomicLong();
+
+    /**
+     * Отправленные запросы, ожидающие ответа: номер запроса - future
+     */
+    private final ConcurrentHashMap<Long, CompletableFuture<Response>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Кадры, ожидающие записи потоком ввода-вывода
+     */
+    private final ConcurrentLinkedQueue<OutgoingFrame> outbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Кадры, записанные в канал не полностью (доступна только потоку ввода-вывода)
+     */
+    private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>();
+
+    private final FrameReader frameReader = new FrameReader(16384);
+
+    private Selector selector;
+    private SocketChannel socketChannel;
+    private SelectionKey key;
+    private Thread ioThread;
+    private volatile boolean open;
+    private volatile Consumer<Response> eventListener;
+
+    private record OutgoingFrame(long requestId, ByteBuffer frame) {
+    }
+
+    public AsyncClient(String host, int port, long defaultTimeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    /**
+     * Согласовано ли сжатие ответов
+     */
+    private volatile boolean compressed;
+
+    /**
+     * Подключение к серверу и запуск потока ввода-вывода
+     * @param timeoutMs таймаут подключения
+     * @throws IOException если подключиться не удалось
+     */
+    public void connect(long timeoutMs) throws IOException {
+        if (open) return;
+        selector = Selector.open();
+        socketChannel = SocketChannel.open();
+        try {
+            socketChannel.configureBlocking(false);
+            socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            key = socketChannel.register(selector, SelectionKey.OP_CONNECT);
+            if (!socketChannel.connect(new InetSocketAddress(host, port))) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                while (!socketChannel.finishConnect()) {
+                    long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMs <= 0) throw new SocketTimeoutException("Превышено время подключения к " + host + ":" + port);
+                    selector.select(remainingMs);
+                    selector.selectedKeys().clear();
+                }
+            }
+        } catch (IOException ioException) {
+            socketChannel.close();
+            selector.close();
+            throw ioException;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        open = true;
+        ioThread = new Thread(this::ioLoop, "async-client-" + host + ":" + port);
+        ioThread.setDaemon(true);
+        ioThread.start();
+        if (SimpleClient.COMPRESSION) negotiateCompression(timeoutMs);
+    }
+
+    private void negotiateCompression(long timeoutMs) throws IOException {
+        try {
+            Response response = send(new RequestCommand("handshake", new ArrayList<>(List.of(FrameCompressor.CODEC))), timeoutMs, TimeUnit.MILLISECONDS).get();
+            compressed = response.getResponseStatus() == ResponseStatus.OK && FrameCompressor.CODEC.equals(response.getMessage());
+        } catch (ExecutionException | InterruptedException exception) {
+            close();
+            if (exception instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new IOException("Не удалось согласовать параметры соединения", exception.getCause() != null ? exception.getCause() : exception);
+        }
+    }
+
+    /**
+     * Отправка запроса с таймаутом по умолчанию
+     * @param requestCommand запрос (номер и таймаут задаются его копии, так что один запрос можно отправлять повторно)
+     * @return future, завершающийся ответом сервера, TimeoutException по таймауту или IOException при обрыве соединения.
+     * Отмена future снимает ожидание ответа, а если запрос еще не записан - и его отправку
+     */
+    public CompletableFuture<Response> send(RequestCommand requestCommand) {
+        return send(requestCommand, defaultTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Отправка запроса
+     * @param requestCommand запрос
+     * @param timeout таймаут ожидания ответа; передается серверу, и тот не выполняет запрос, если таймаут истек в очереди
+     * @param unit единица измерения таймаута
+     * @return future с ответом сервера
+     */
+    public CompletableFuture<Response> send(RequestCommand requestCommand, long timeout, TimeUnit unit) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        if (!open) {
+            future.completeExceptionally(new ClosedChannelException());
+            return future;
+        }
+
+        long requestId = requestIdGenerator.incrementAndGet();
+        RequestCommand numberedRequest = requestCommand.copy();
+        numberedRequest.setRequestId(requestId);
+        numberedRequest.setTimeoutMs(unit.toMillis(timeout));
+        ByteBuffer frame;
+        try {
+            frame = ByteBuffer.wrap(FrameCodec.encode(numberedRequest));
+        } catch (IOException ioException) {
+            future.completeExceptionally(ioException);
+            return future;
+        }
+
+        pending.put(requestId, future);
+        future.orTimeout(timeout, unit).whenComplete((response, throwable) -> pending.remove(requestId));
+        outbox.add(new OutgoingFrame(requestId, frame));
+        selector.wakeup();
+        // соединение могло закрыться между проверкой и постановкой в очередь
+        if (!open) future.completeExceptionally(new ClosedChannelException());
+        return future;
+    }
+
+    /**
+     * Слушатель сообщений, которые сервер отправляет без запроса (события подписки и RESYNC).
+     * Вызывается в потоке ввода-вывода, поэтому не должен блокироваться
+     * @param eventListener слушатель (null - события отбрасываются)
+     */
+    public void setEventListener(Consumer<Response> eventListener) {
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * @return число запросов, ожидающих ответа
+     */
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Цикл потока ввода-вывода. Канал, селектор и буфер чтения освобождаются только здесь, при выходе из цикла
+     */
+    private void ioLoop() {
+        IOException cause = new ClosedChannelException();
+        try {
+            while (open) {
+                selector.select();
+                selector.selectedKeys().clear();
+                drainOutbox();
+                if (key.isValid() && key.isReadable()) readResponses();
+                if (!writeQueue.isEmpty()) flushWrites();
+                if (key.isValid()) key.interestOps(writeQueue.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException | RuntimeException exception) {
+            cause = exception instanceof IOException ioException ? ioException : new IOException(exception);
+        } finally {
+            shutdown(cause);
+        }
+    }
+
+    /**
+     * Переносит новые кадры в очередь записи, пропуская отмененные и просроченные запросы
+     */
+    private void drainOutbox() throws IOException {
+        for (OutgoingFrame outgoing = outbox.poll(); outgoing != null; outgoing = outbox.poll()) {
+            if (pending.containsKey(outgoing.requestId())) writeQueue.add(outgoing.frame());
+        }
+        if (!writeQueue.isEmpty()) flushWrites();
+    }
+
+    private void flushWrites() throws IOException {
+        while (!writeQueue.isEmpty()) {
+            ByteBuffer frame = writeQueue.peek();
+            socketChannel.write(frame);
+            if (frame.hasRemaining()) return;
+            writeQueue.poll();
+        }
+    }
+
+    private void readResponses() throws IOException {
+        int bytesRead = frameReader.readFrom(socketChannel);
+        if (bytesRead == -1) throw new EOFException("Соединение закрыто сервером");
+        byte[] frame;
+        while ((frame = frameReader.nextFrame()) != null) {
+            Response response;
+            try {
+                response = (Response) ObjectSerializer.deserializeObject(frame);
+            } catch (ClassNotFoundException | ClassCastException exception) {
+                throw new IOException("Некорректный формат данных от сервера", exception);
+            }
+            if (response.isPush()) {
+                notifyListener(response);
+                continue;
+            }
+            // ответ на отмененный или просроченный запрос просто отбрасывается
+            CompletableFuture<Response> future = pending.remove(response.getRequestId());
+            if (future != null) future.complete(response);
+        }
+    }
+
+    private void notifyListener(Response event) {
+        Consumer<Response> listener = eventListener;
+        if (listener == null) return;
+        try {
+            listener.accept(event);
+        } catch (RuntimeException ignored) {
+            // ошибка слушателя не должна обрывать соединение
+        }
+    }
+
+    /**
+     * Освобождение ресурсов соединения (вызывается только потоком ввода-вывода)
+     * @param cause ошибка, которой завершаются ожидающие запросы
+     */
+    private void shutdown(IOException cause) {
+        open = false;
+        try {
+            socketChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+        }
+        failPending(cause);
+        outbox.clear();
+        frameReader.close();
+    }
+
+    private void failPending(IOException cause) {
+        for (CompletableFuture<Response> future : pending.values()) future.completeExceptionally(cause);
+        pending.clear();
+    }
+
+    /**
+     * Закрытие соединения. Ожидающие запросы сразу завершаются ошибкой, а ресурсы освобождает поток ввода-вывода,
+     * выходя из цикла; закрытие ждет его не дольше секунды
+     */
+    @Override
+    public void close() {
+        if (!open) return;
+        open = false;
+        selector.wakeup();
+        failPending(new ClosedChannelException());
+        try {
+            if (ioThread != Thread.currentThread()) ioThread.join(1000);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package org.example.client.managers;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул асинхронных подключений к серверу для многопоточных приложений.
+ * Запрос уходит в подключение с наименьшим числом ожидающих ответа запросов (медленные - в последнюю очередь);
+ * если все подключения заняты, пул открывает новое (не больше maxConnections) в отдельном фоновом потоке,
+ * а запрос тем временем уходит в наименее загруженное из открытых - send никогда не ждет подключения.
+ * Поток обслуживания периодически проверяет простаивающие подключения командой ping: оборванные закрываются,
+ * не ответившие вовремя считаются медленными. Подключения, простаивающие дольше idleTimeoutMs,
+ * закрываются (оставляя не меньше minConnections), и пул добирается до минимума
+ */
+public class ClientPool implements Closeable {
+    private final String host;
+    private final int port;
+    private final int minConnections;
+    private final int maxConnections;
+    private final long idleTimeoutMs;
+    private final long requestTimeoutMs;
+    private final long healthCheckIntervalMs;
+
+    private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "client-pool-maintenance"));
+
+    /**
+     * Поток открытия подключений: отдельный от обслуживания, чтобы проверка подключений не задерживала рост пула
+     */
+    private final ExecutorService connector = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "client-pool-connector"));
+    private volatile boolean closed;
+
+    /**
+     * Сколько подключений открывается в фоне прямо сейчас
+     */
+    private final AtomicInteger pendingOpens = new AtomicInteger();
+
+    /**
+     * Последняя ошибка фонового открытия подключения (null - ошибок не было)
+     */
+    private volatile IOException lastConnectError;
+
+    /**
+     * Последнее начатое фоновое открытие подключения: к нему присоединяются запросы,
+     * пришедшие, пока открытых подключений нет, а пул уже заполнен открывающимися
+     */
+    private volatile CompletableFuture<PooledConnection> latestGrowth;
+
+    private static class PooledConnection {
+        /**
+         * Значение {@link #claims} у выведенного из пула подключения
+         */
+        private static final int RETIRED = -1;
+
+        private final AsyncClient client;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        /**
+         * Не ответило на последний ping вовремя
+         */
+        private volatile boolean slow;
+
+        /**
+         * Сколько отправок выбрали подключение и еще не поставили запрос в очередь, или {@link #RETIRED}
+         */
+        private final AtomicInteger claims = new AtomicInteger();
+
+        private PooledConnection(AsyncClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Захват подключения для отправки: выведенное из пула подключение захватить нельзя
+         */
+        private boolean claim() {
+            int current;
+            do {
+                current = claims.get();
+                if (current == RETIRED) return false;
+            } while (!claims.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release() {
+            claims.decrementAndGet();
+        }
+
+        /**
+         * Вывод простаивающего подключения из пула. Удается, только если его никто не захватил для отправки
+         * и у него нет запросов в работе, так что отправка не может попасть в закрываемое подключение
+         * @param minIdleNanos сколько подключение должно простаивать
+         * @return true если подключение выведено
+         */
+        private boolean tryRetire(long minIdleNanos) {
+            if (!claims.compareAndSet(0, RETIRED)) return false;
+            if (client.getInFlightCount() == 0 && System.nanoTime() - lastUsedNanos > minIdleNanos) return true;
+            claims.set(0);
+            return false;
+        }
+
+        private boolean isRetired() {
+            return claims.get() == RETIRED;
+        }
+    }
+
+    public ClientPool(
+            String host,
+            int port,
+            int minConnections,
+            int maxConnections,
+            long idleTimeoutMs,
+            long requestTimeoutMs,
+            long healthCheckIntervalMs
+    ) {
+        if (minConnections < 0 || maxConnections < Math.max(1, minConnections)) {
+            throw new IllegalArgumentException("Должно выполняться 0 <= minConnections <= maxConnections, maxConnections >= 1");
+        }
+        this.host = host;
+        this.port = port;
+        this.minConnections = minConnections;
+        this.maxConnections = maxConnections;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+    }
+
+    /**
+     * Открывает minConnections подключений и запускает фоновое обслуживание пула
+     * @throws IOException если не удалось открыть ни одного подключения, хотя минимум больше нуля
+     */
+    public void start() throws IOException {
+        IOException lastError = null;
+        for (int i = 0; i < minConnections; i++) {
+            try {
+                openConnection();
+            } catch (IOException ioException) {
+                lastError = ioException;
+            }
+        }
+        if (connections.isEmpty() && lastError != null) throw lastError;
+        maintenance.scheduleWithFixedDelay(this::maintain, healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Отправка запроса через наименее загруженное подключение. Не блокируется: если все подключения заняты,
+     * новое открывается в фоне, а если открытых нет вовсе, запрос уйдет, как только подключение откроется
+     * @param requestCommand запрос
+     * @return future с ответом сервера (ошибка, если подключиться не удалось)
+     */
+    public CompletableFuture<Response> send(RequestCommand requestCommand) {
+        if (closed) return CompletableFuture.failedFuture(new IOException("Пул подключений закрыт"));
+        PooledConnection connection = leastLoaded();
+        CompletableFuture<PooledConnection> growth = null;
+        if (connection == null || connection.slow || connection.client.getInFlightCount() > 0) growth = growInBackground();
+        if (connection != null) return sendVia(connection, requestCommand);
+        if (growth == null) growth = latestGrowth;
+        if (growth == null) return CompletableFuture.failedFuture(new IOException("Нет доступных подключений"));
+        return growth.thenCompose(opened -> sendVia(opened, requestCommand));
+    }
+
+    /**
+     * @return ошибка последнего фонового открытия подключения или null
+     */
+    public IOException getLastConnectError() {
+        return lastConnectError;
+    }
+
+    /**
+     * Отправка через выбранное подключение. Если его успели вывести из пула, запрос выбирает подключение заново
+     */
+    private CompletableFuture<Response> sendVia(PooledConnection connection, RequestCommand requestCommand) {
+        if (!connection.claim()) return send(requestCommand);
+        try {
+            connection.lastUsedNanos = System.nanoTime();
+            return connection.client.send(requestCommand, requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } finally {
+            connection.release();
+        }
+    }
+
+    /**
+     * @return число открытых подключений
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * @return число запросов, ожидающих ответа, по всем подключениям
+     */
+    public int getInFlightCount() {
+        return connections.stream().mapToInt(connection -> connection.client.getInFlightCount()).sum();
+    }
+
+    private PooledConnection leastLoaded() {
+        PooledConnection best = null;
+        for (PooledConnection connection : connections) {
+            if (!connection.client.isOpen() || connection.isRetired()) continue;
+            if (best == null || lessLoaded(connection, best)) best = connection;
+        }
+        return best;
+    }
+
+    private static boolean lessLoaded(PooledConnection connection, PooledConnection other) {
+        if (connection.slow != other.slow) return other.slow;
+        return connection.client.getInFlightCount() < other.client.getInFlightCount();
+    }
+
+    /**
+     * Открывает подключение в потоке открытия подключений, если пул с учетом уже открывающихся еще не достиг максимума
+     * @return future нового подключения (с ошибкой, если подключиться не удалось) или null, если пул полон
+     */
+    private CompletableFuture<PooledConnection> growInBackground() {
+        int pending;
+        do {
+            pending = pendingOpens.get();
+            if (closed || connections.size() + pending >= maxConnections) return null;
+        } while (!pendingOpens.compareAndSet(pending, pending + 1));
+        try {
+            return latestGrowth = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return openConnection();
+                } catch (IOException ioException) {
+                    lastConnectError = ioException;
+                    throw new CompletionException(ioException);
+                } finally {
+                    pendingOpens.decrementAndGet();
+                }
+            }, connector);
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            // пул закрыт одновременно с отправкой
+            pendingOpens.decrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("Пул подключений закрыт"));
+        }
+    }
+
+    private synchronized PooledConnection openConnection() throws IOException {
+        AsyncClient client = new AsyncClient(host, port, requestTimeoutMs);
+        client.connect(requestTimeoutMs);
+        PooledConnection connection = new PooledConnection(client);
+        connections.add(connection);
+        return connection;
+    }
+
+    /**
+     * Фоновое обслуживание: закрытие оборванных и простаивающих подключений, проверка простаивающих
+     * и добор до минимума. Подключения с запросами в работе не проверяются: обрыв обнаружит их поток ввода-вывода
+     */
+    private void maintain() {
+        if (closed) return;
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        ArrayList<CompletableFuture<Void>> pings = new ArrayList<>();
+        for (PooledConnection connection : connections) {
+            if (!connection.client.isOpen()) {
+                remove(connection);
+            } else if (connection.client.getInFlightCount() == 0) {
+                if (connections.size() > minConnections && connection.tryRetire(idleNanos)) remove(connection);
+                else pings.add(ping(connection));
+            }
+        }
+        // проверки идут параллельно, и обход ждет их не дольше одного таймаута запроса
+        CompletableFuture.allOf(pings.toArray(new CompletableFuture[0])).join();
+
+        for (int missing = minConnections - connections.size() - pendingOpens.get(); missing > 0; missing--) {
+            if (growInBackground() == null) break;
+        }
+    }
+
+    /**
+     * Проверка подключения командой ping. Любой ответ означает, что подключение живо; ответ не вовремя -
+     * что оно медленное (новые запросы уходят в него в последнюю очередь), а закрывается оно только при обрыве
+     * @return future, которое завершается без ошибки после проверки
+     */
+    private CompletableFuture<Void> ping(PooledConnection connection) {
+        return connection.client.send(new RequestCommand("ping", new ArrayList<>()), requestTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((response, throwable) -> {
+                    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    if (cause == null) connection.slow = false;
+                    else if (cause instanceof TimeoutException) connection.slow = true;
+                    else remove(connection);
+                    return null;
+                });
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void remove(PooledConnection connection) {
+        connections.remove(connection);
+        connection.client.close();
+    }
+
+    /**
+     * Закрытие всех подключений пула
+     */
+    @Override
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        connector.shutdownNow();
+        for (PooledConnection connection : connections) remove(connection);
+    }
+}
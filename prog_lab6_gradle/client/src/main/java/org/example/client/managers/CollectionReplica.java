@@ -0,0 +1,153 @@
+package org.example.client.managers;
+
+import lombok.Getter;
+import org.example.common.dtp.CollectionChange;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.common.dtp.SyncResponse;
+import org.example.common.entity.Ticket;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Локальная копия коллекции сервера.
+ * Перед каждым чтением клиент запрашивает у сервера только изменения после известной ему версии
+ * (или полный снимок, если сервер их уже не хранит), а команды чтения выполняет сам,
+ * не получая с сервера всю коллекцию
+ */
+public class CollectionReplica {
+    /**
+     * Команды, которые реплика выполняет локально
+     */
+    public static final Set<String> LOCAL_COMMANDS = Set.of("head", "filter_starts_with_name", "print_unique_discount");
+
+    private final PriorityQueue<Ticket> collection = new PriorityQueue<>();
+
+    /**
+     * Выполняется ли запрос по реплике. head с аргументами (head N и head N условие) выполняет сервер
+     * @param requestCommand запрос
+     * @return true если запрос можно выполнить локально
+     */
+    public static boolean isLocal(RequestCommand requestCommand) {
+        if (!LOCAL_COMMANDS.contains(requestCommand.getCommandName())) return false;
+        return !requestCommand.getCommandName().equals("head") || requestCommand.getArgs() == null || requestCommand.getArgs().isEmpty();
+    }
+
+    private final HashMap<Integer, Ticket> index = new HashMap<>();
+
+    /**
+     * Эпоха коллекции сервера, к которой относится версия реплики
+     */
+    @Getter
+    private long epoch = 0;
+
+    /**
+     * Версия коллекции сервера, которую отражает реплика (-1 - реплика еще не получена)
+     */
+    @Getter
+    private long version = -1;
+
+    /**
+     * Синхронизация с сервером
+     * @param client клиент
+     * @return ответ сервера (при ошибке реплика не меняется)
+     */
+    public Response sync(SimpleClient client) {
+        ArrayList<String> args = new ArrayList<>(List.of(String.valueOf(version), String.valueOf(epoch)));
+        Response response = client.send(new RequestCommand("sync", args));
+        if (response instanceof SyncResponse syncResponse) apply(syncResponse);
+        return response;
+    }
+
+    /**
+     * Применение ответа на синхронизацию
+     * @param syncResponse снимок коллекции или изменения после версии реплики
+     */
+    public void apply(SyncResponse syncResponse) {
+        if (syncResponse.isSnapshot()) {
+            clear();
+            for (Ticket ticket : syncResponse.getCollection()) put(ticket);
+        } else {
+            for (CollectionChange change : syncResponse.getChanges()) {
+                switch (change.getType()) {
+                    case ADD, UPDATE -> put(change.getTicket());
+                    case REMOVE -> remove(change.getTicketId());
+                    case CLEAR -> clear();
+                }
+            }
+        }
+        epoch = syncResponse.getEpoch();
+        version = syncResponse.getVersion();
+    }
+
+    /**
+     * Выполнение команды чтения по реплике. Ответы совпадают с ответами сервера
+     * @param requestCommand команда из {@link #LOCAL_COMMANDS}
+     * @return ответ
+     */
+    public Response execute(RequestCommand requestCommand) {
+        List<String> args = requestCommand.getArgs();
+        switch (requestCommand.getCommandName()) {
+            case "head" -> {
+                if (!args.isEmpty()) return argsError("Команда не принимает аргументов");
+                if (collection.isEmpty()) return new Response(ResponseStatus.OK, "Коллекция пуста");
+                return new Response(ResponseStatus.OK, collection.peek().toString());
+            }
+            case "filter_starts_with_name" -> {
+                if (args.size() != 1) return argsError("Команда принимает один аргумент");
+                String prefix = args.get(0);
+                PriorityQueue<Ticket> found = collection.stream()
+                        .filter(ticket -> ticket.getName().startsWith(prefix))
+                        .sorted(Comparator.comparing(Ticket::getCoordinates))
+                        .collect(Collectors.toCollection(PriorityQueue::new));
+                if (found.isEmpty()) {
+                    return new Response(ResponseStatus.OK, "Не найдено билетов, название которых начинается на \"" + prefix + "\"");
+                }
+                return new Response(ResponseStatus.OK, "Найдено " + found.size() + " билетов, название которых начинается на \"" + prefix + "\"", found);
+            }
+            case "print_unique_discount" -> {
+                if (!args.isEmpty()) return argsError("Команда не принимает аргументов");
+                List<Float> uniqueDiscounts = collection.stream()
+                        .map(Ticket::getDiscount)
+                        .distinct()
+                        .toList();
+                if (uniqueDiscounts.isEmpty()) return new Response(ResponseStatus.OK, "Коллекция пуста");
+                StringBuilder res = new StringBuilder("Уникальных значений discount: " + uniqueDiscounts.size() + "\n");
+                for (Float d : uniqueDiscounts) {
+                    res.append(": ").append(d).append("\n");
+                }
+                return new Response(ResponseStatus.OK, res.toString());
+            }
+            default -> {
+                return new Response(ResponseStatus.NO_SUCH_COMMAND, "Команда не выполняется локально: " + requestCommand.getCommandName());
+            }
+        }
+    }
+
+    private static Response argsError(String message) {
+        return new Response(ResponseStatus.ARGS_ERROR, message);
+    }
+
+    private void put(Ticket ticket) {
+        remove(ticket.getId());
+        collection.add(ticket);
+        index.put(ticket.getId(), ticket);
+    }
+
+    private void remove(Integer id) {
+        Ticket old = index.remove(id);
+        if (old != null) collection.remove(old);
+    }
+
+    private void clear() {
+        collection.clear();
+        index.clear();
+    }
+}
@@ -3,7 +3,9 @@ package org.example.client.managers;
 import org.example.client.utils.InputReader;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
 
 /**
  * Менеджер для контроля корректности выполнения исполняемых скриптов
@@ -51,6 +53,33 @@ public class RunnableScriptsManager implements InputReader {
         readers.clear();
     }
 
+    /**
+     * Читает скрипт и все скрипты, на которые он ссылается через execute_script, для отправки на сервер.
+     * Отсутствующие вложенные файлы пропускаются: о них сообщит сервер, когда дойдет до этой строки
+     * @param fileName имя запускаемого файла
+     * @return имя файла (как оно записано в команде) - содержимое
+     * @throws IOException если запускаемый файл не удалось прочитать
+     */
+    public static LinkedHashMap<String, String> collectScripts(String fileName) throws IOException {
+        LinkedHashMap<String, String> scripts = new LinkedHashMap<>();
+        ArrayDeque<String> toRead = new ArrayDeque<>();
+        scripts.put(fileName, Files.readString(new File(fileName).toPath()));
+        toRead.add(fileName);
+        while (!toRead.isEmpty()) {
+            for (String line : scripts.get(toRead.poll()).split("\n")) {
+                String[] queryParts = line.trim().split(" ");
+                if (queryParts.length != 2 || !queryParts[0].equals("execute_script")) continue;
+                String nested = queryParts[1];
+                if (scripts.containsKey(nested)) continue;
+                File nestedFile = new File(nested);
+                if (!nestedFile.isFile()) continue;
+                scripts.put(nested, Files.readString(nestedFile.toPath()));
+                toRead.add(nested);
+            }
+        }
+        return scripts;
+    }
+
     /**
      * Метод для чтения перенаправленного потока ввода на файл
      */
@@ -1,30 +1,67 @@
 package org.example.client.managers;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.example.client.builders.TicketBuilder;
 import org.example.client.cli.ConsoleInput;
+import org.example.common.dtp.BatchRequestCommand;
+import org.example.common.dtp.BatchResponse;
+import org.example.common.dtp.ChangeEvent;
+import org.example.common.dtp.CommandDescriptor;
+import org.example.common.dtp.DescribeCommandsResponse;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
+import org.example.common.dtp.ScriptRequestCommand;
+import org.example.common.dtp.ScriptResponse;
 import org.example.common.entity.Ticket;
 import org.example.common.utils.Printable;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Класс, отвечающий за MainLoop и соединение действий пользователя и клиента
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RuntimeManager implements Runnable {
+    /**
+     * Отправлять скрипты на сервер целиком (client.script.upload).
+     * false - старый режим, в котором клиент отправляет скрипт построчно
+     */
+    public static final boolean UPLOAD_SCRIPTS = Boolean.parseBoolean(System.getProperty("client.script.upload", "true"));
+
+    /**
+     * Выполнять команды чтения по локальной реплике коллекции (client.replica)
+     */
+    public static final boolean USE_REPLICA = Boolean.getBoolean("client.replica");
+
     private final Printable consoleOutput;
     private final ConsoleInput consoleInput;
     private final SimpleClient client;
     private final RunnableScriptsManager runnableScriptsManager;
 
+    /**
+     * Команды, накопленные для отправки одним пакетом (null - пакетный режим выключен)
+     */
+    private ArrayList<RequestCommand> batchBuffer = null;
+
+    /**
+     * Описания команд сервера. Запрашиваются один раз (null - еще не получены)
+     */
+    private HashMap<String, CommandDescriptor> commandDescriptors = null;
+
+    /**
+     * Локальная реплика коллекции (null - режим {@link #USE_REPLICA} выключен)
+     */
+    private final CollectionReplica replica = USE_REPLICA ? new CollectionReplica() : null;
+
     /**
      * Запуск клиента
      */
@@ -48,16 +85,17 @@ public class RuntimeManager implements Runnable {
 
                 String[] queryParts = queryString.split(" ");
 
-                // TODO: подумать, как не хардкодить
-                // ну, 1 команда терпимо
-                processSpecialCommands(queryParts);
+                if (processSpecialCommands(queryParts)) continue;
+
+                RequestCommand requestCommand = buildRequestCommand(queryParts);
+                if (requestCommand == null) continue;
+                if (batchBuffer != null) {
+                    batchBuffer.add(requestCommand);
+                    consoleOutput.println("Команда добавлена в пакет (" + batchBuffer.size() + ")");
+                    continue;
+                }
 
-                Response response = client.send(
-                        new RequestCommand(
-                                queryParts[0],
-                                new ArrayList<>(Arrays.asList(Arrays.copyOfRange(queryParts, 1, queryParts.length)))
-                        )
-                );
+                Response response = sendOrExecuteLocally(requestCommand);
                 if (response == null) {
                     consoleOutput.println("Запрос пустой");
                     continue;
@@ -79,11 +117,92 @@ public class RuntimeManager implements Runnable {
         }
     }
 
+    /**
+     * Создание запроса по введенной команде.
+     * Для execute_script в режиме {@link #UPLOAD_SCRIPTS} к запросу прикладывается содержимое скриптов
+     * @param queryParts части пользовательской команды
+     * @return запрос или null, если его не удалось составить
+     */
+    public RequestCommand buildRequestCommand(String[] queryParts) {
+        if (UPLOAD_SCRIPTS && queryParts.length == 2 && queryParts[0].equals(ScriptRequestCommand.COMMAND_NAME)) {
+            try {
+                return new ScriptRequestCommand(queryParts[1], RunnableScriptsManager.collectScripts(queryParts[1]));
+            } catch (IOException ioException) {
+                consoleOutput.printError(String.format("Исполняемый файл \"%s\" не найден", queryParts[1]));
+                return null;
+            }
+        }
+        ArrayList<String> args = new ArrayList<>(Arrays.asList(Arrays.copyOfRange(queryParts, 1, queryParts.length)));
+        CommandDescriptor descriptor = getCommandDescriptor(queryParts[0]);
+        if (descriptor != null && descriptor.isObjectRequired() && descriptor.acceptsArgs(args.size())) {
+            if (!args.isEmpty() && !ConsoleInput.isFileMode() && !checkArgsBeforeBuild(queryParts[0], args)) return null;
+            return new RequestCommand(queryParts[0], args, new TicketBuilder(consoleOutput, consoleInput).build());
+        }
+        return new RequestCommand(queryParts[0], args);
+    }
+
+    /**
+     * Проверка аргументов команды (например, id для update) до того, как пользователь введет объект.
+     * Сервер получает команду без объекта и, ничего не изменяя, отвечает OBJECT_REQUIRED или ошибкой.
+     * В скрипте проверка не нужна: строки объекта в нем уже записаны
+     * @param commandName название команды
+     * @param args аргументы команды
+     * @return true если аргументы приняты и можно вводить объект
+     */
+    private boolean checkArgsBeforeBuild(String commandName, ArrayList<String> args) {
+        Response response = client.send(new RequestCommand(commandName, args));
+        if (response.getResponseStatus() == ResponseStatus.OBJECT_REQUIRED) return true;
+        printResponse(response);
+        return false;
+    }
+
+    /**
+     * Отправка запроса на сервер. В режиме {@link #USE_REPLICA} команды чтения выполняются по реплике,
+     * которая перед этим догоняет сервер по журналу изменений
+     * @param requestCommand запрос
+     * @return ответ сервера или реплики
+     */
+    public Response sendOrExecuteLocally(RequestCommand requestCommand) {
+        if (replica == null || !CollectionReplica.isLocal(requestCommand)) {
+            return client.send(requestCommand);
+        }
+        Response syncResponse = replica.sync(client);
+        if (syncResponse.getResponseStatus() != ResponseStatus.OK) return syncResponse;
+        return replica.execute(requestCommand);
+    }
+
+    /**
+     * Описание команды сервера. При первом обращении описания всех команд запрашиваются у сервера и кэшируются,
+     * чтобы объект для add/update собирался до отправки и команда уходила одним запросом.
+     * По ним же клиент узнает, какие команды можно повторить после обрыва соединения
+     * @param commandName название команды
+     * @return описание или null, если оно неизвестно (тогда объект будет запрошен сервером через OBJECT_REQUIRED)
+     */
+    public CommandDescriptor getCommandDescriptor(String commandName) {
+        if (commandDescriptors == null) {
+            Response response = client.send(new RequestCommand("describe_commands", new ArrayList<>()));
+            // сервер недоступен - попробуем в следующий раз
+            if (response.getResponseStatus() == ResponseStatus.SERVER_ERROR) return null;
+            commandDescriptors = new HashMap<>();
+            if (response instanceof DescribeCommandsResponse describeCommandsResponse) {
+                for (CommandDescriptor descriptor : describeCommandsResponse.getDescriptors()) {
+                    commandDescriptors.put(descriptor.getName(), descriptor);
+                }
+                client.setReadOnlyCommands(describeCommandsResponse.getDescriptors());
+            }
+        }
+        return commandDescriptors.get(commandName);
+    }
+
     /**
      * Парсинг ответа сервера в понятном для пользователя формате
      * @param response ответ сервера
      */
     public void printResponse(Response response) {
+        if (response instanceof BatchResponse batchResponse) {
+            printBatchResponse(batchResponse);
+            return;
+        }
         switch (response.getResponseStatus()) {
             case OK -> {
                 consoleOutput.println(response.getMessage());
@@ -99,7 +218,7 @@ public class RuntimeManager implements Runnable {
             case ARGS_ERROR -> {
                 consoleOutput.printError("Некорректное использование аргументов команды. " + response.getMessage());
             }
-            case NO_SUCH_COMMAND, SERVER_ERROR -> {
+            case NO_SUCH_COMMAND, SERVER_ERROR, VALIDATION_ERROR -> {
                 consoleOutput.printError(response.getMessage());
             }
             case EXECUTE_SCRIPT -> {
@@ -135,12 +254,9 @@ public class RuntimeManager implements Runnable {
 
                 String[] queryParts = queryString.split(" ");
 
-                Response response1 = client.send(
-                        new RequestCommand(
-                                queryParts[0],
-                                new ArrayList<>(Arrays.asList(Arrays.copyOfRange(queryParts, 1, queryParts.length)))
-                        )
-                );
+                RequestCommand requestCommand = buildRequestCommand(queryParts);
+                if (requestCommand == null) continue;
+                Response response1 = client.send(requestCommand);
 
                 if (response1 == null) {
                     consoleOutput.println("Запрос пустой");
@@ -193,14 +309,123 @@ public class RuntimeManager implements Runnable {
         }
     }
 
+    /**
+     * Вывод ответа на пакет команд или скрипт: ответ на каждую команду по порядку и итог
+     * @param batchResponse ответ сервера на пакет
+     */
+    public void printBatchResponse(BatchResponse batchResponse) {
+        for (int i = 0; i < batchResponse.getResponses().size(); i++) {
+            Response response = batchResponse.getResponses().get(i);
+            if (batchResponse instanceof ScriptResponse scriptResponse) {
+                consoleOutput.println(String.format("* %s [%s]", scriptResponse.getCommandLines().get(i), response.getResponseStatus()));
+            } else {
+                consoleOutput.println(String.format("[%d] %s", i + 1, response.getResponseStatus()));
+            }
+            printResponse(response);
+        }
+        consoleOutput.println(batchResponse.getMessage());
+    }
+
+    /**
+     * Отправка накопленных команд одним пакетом.
+     * Для команд, которым сервер ответил OBJECT_REQUIRED, объекты создаются и отправляются вторым пакетом
+     * @param commands команды пакета
+     */
+    public void sendBatch(List<RequestCommand> commands) {
+        if (commands.isEmpty()) {
+            consoleOutput.println("Пакет пуст");
+            return;
+        }
+        Response response = client.send(new BatchRequestCommand(commands));
+        printResponse(response);
+        if (!(response instanceof BatchResponse batchResponse)) return;
+
+        ArrayList<RequestCommand> withObjects = new ArrayList<>();
+        for (int i = 0; i < batchResponse.getResponses().size(); i++) {
+            if (batchResponse.getResponses().get(i).getResponseStatus() != ResponseStatus.OBJECT_REQUIRED) continue;
+            RequestCommand requestCommand = commands.get(i);
+            consoleOutput.println(String.format("[%d] %s: требуется объект", i + 1, requestCommand.getCommandName()));
+            Ticket ticket = new TicketBuilder(consoleOutput, consoleInput).build();
+            withObjects.add(new RequestCommand(requestCommand.getCommandName(), requestCommand.getArgs(), ticket));
+        }
+        if (!withObjects.isEmpty()) {
+            consoleOutput.println("Отправка команд с созданными объектами");
+            printResponse(client.send(new BatchRequestCommand(withObjects)));
+        }
+    }
+
+    /**
+     * Вывод изменений коллекции по мере их поступления, пока пользователь не нажмет Enter.
+     * Подписка оформляется отдельным соединением, чтобы события не смешивались с ответами на команды
+     */
+    public void watchChanges() {
+        try (AsyncClient watcher = new AsyncClient(client.getHost(), client.getPort(), SimpleClient.TIMEOUT_MS)) {
+            watcher.setEventListener(event -> {
+                consoleOutput.println("* " + event.getMessage());
+                if (event instanceof ChangeEvent changeEvent && changeEvent.getChange().getTicket() != null) {
+                    consoleOutput.println(changeEvent.getChange().getTicket().toString());
+                }
+            });
+            watcher.connect(SimpleClient.TIMEOUT_MS);
+            printResponse(watcher.send(new RequestCommand("subscribe", new ArrayList<>())).get());
+            consoleOutput.println("Изменения коллекции выводятся по мере поступления. Enter - прекратить");
+            consoleInput.readLine();
+        } catch (IOException | ExecutionException exception) {
+            consoleOutput.printError("Не удалось подписаться на изменения: " + exception.getMessage());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Метод для выполнения команд на стороне клиента
      * (при наличии более двух команд рекомандуется обрабатывать их по паттерну COMMAND как на сервере)
-     * @param queryParts
+     * @param queryParts части пользовательской команды
+     * @return true, если команда выполнена на клиенте и ее не нужно отправлять на сервер
      */
-    public void processSpecialCommands(String[] queryParts) {
-        if (queryParts[0].equals("exit")) {
-            System.exit(0);
+    public boolean processSpecialCommands(String[] queryParts) {
+        switch (queryParts[0]) {
+            case "exit" -> System.exit(0);
+            case "import" -> {
+                if (queryParts.length != 2) {
+                    consoleOutput.printError("Использование: import <файл.jsonl|файл.csv>");
+                } else {
+                    new TicketImporter(client, consoleOutput).importFile(queryParts[1]);
+                }
+                return true;
+            }
+            case "watch" -> {
+                watchChanges();
+                return true;
+            }
+            case "batch_begin" -> {
+                if (batchBuffer != null) {
+                    consoleOutput.printError("Пакетный режим уже включен");
+                } else {
+                    batchBuffer = new ArrayList<>();
+                    consoleOutput.println("Пакетный режим: команды копятся до batch_end (отправить) или batch_cancel (отменить)");
+                }
+                return true;
+            }
+            case "batch_end" -> {
+                if (batchBuffer == null) {
+                    consoleOutput.printError("Пакетный режим не включен (batch_begin)");
+                    return true;
+                }
+                ArrayList<RequestCommand> commands = batchBuffer;
+                batchBuffer = null;
+                sendBatch(commands);
+                return true;
+            }
+            case "batch_cancel" -> {
+                if (batchBuffer != null) consoleOutput.println("Пакет из " + batchBuffer.size() + " команд отменен");
+                batchBuffer = null;
+                return true;
+            }
+            default -> {
+                return false;
+            }
         }
+        return true;
     }
 }
@@ -1,5 +1,10 @@
 package org.example.client.managers;
 
+import org.example.common.dtp.BusyResponse;
+import org.example.common.dtp.CommandDescriptor;
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.FrameCompressor;
+import org.example.common.dtp.FrameReader;
 import org.example.common.dtp.ObjectSerializer;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
@@ -7,14 +12,28 @@ import org.example.common.dtp.ResponseStatus;
 import org.example.common.utils.Printable;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.nio.channels.UnresolvedAddressException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
- * Класс клиента, отвечающий за общение с сервером
+ * Класс клиента, отвечающий за общение с сервером.
+ * Канал неблокирующий, ожидание подключения, записи и ответа идет через {@link Selector}:
+ * поток спит в select и просыпается ровно тогда, когда канал готов, или по таймауту
  */
 public class SimpleClient implements Closeable {
     private final int port;
@@ -27,10 +46,17 @@ public class SimpleClient implements Closeable {
     private final int maxReconnectionAttempts;
 
     /**
-     * Задержка между переподключениями в мс
+     * Начальная задержка между переподключениями в мс. С каждой попыткой удваивается
+     * (не больше {@link #MAX_RECONNECTION_DELAY_MS}) и случайно уменьшается до двух раз,
+     * чтобы клиенты, потерявшие сервер одновременно, не переподключались все разом
      */
     private final int reconnectionDelay;
 
+    /**
+     * Максимальная задержка между переподключениями в мс
+     */
+    public static final long MAX_RECONNECTION_DELAY_MS = 5000;
+
     private final Printable consoleOutput;
 
     /**
@@ -39,11 +65,44 @@ public class SimpleClient implements Closeable {
      */
     private boolean exitIfUnsuccessfulConnection;
 
+    private Selector selector;
     private SocketChannel socketChannel;
     private int currentReconnectionAttempt;
 
+    /**
+     * Буфер входящих данных, из которого извлекаются кадры ответов
+     */
+    private final FrameReader frameReader = new FrameReader(16384);
+
+    /**
+     * Предлагать серверу сжатие больших сообщений при подключении (client.compression)
+     */
+    public static final boolean COMPRESSION = Boolean.parseBoolean(System.getProperty("client.compression", "true"));
+
+    /**
+     * Упаковщик запросов (null - сжатие не согласовано)
+     */
+    private FrameCompressor compressor;
+
     public static long TIMEOUT_MS = 5000;
 
+    /**
+     * Сколько раз повторять запрос, на который сервер ответил BUSY
+     */
+    public static final int MAX_BUSY_RETRIES = 5;
+
+    /**
+     * Команды, которые не меняют коллекцию: их можно повторить после обрыва соединения,
+     * даже если сервер успел их выполнить. Берутся из описаний команд сервера ({@link #setReadOnlyCommands}),
+     * до их получения повторяется только запрос самих описаний
+     */
+    private Set<String> readOnlyCommands = Set.of("describe_commands");
+
+    /**
+     * Записан ли в канал целиком последний отправленный запрос
+     */
+    private boolean requestWritten;
+
     public SimpleClient(
             String host,
             int port,
@@ -61,149 +120,207 @@ public class SimpleClient implements Closeable {
     }
 
     /**
-     * Метод для соединения с сервером
+     * Метод для соединения с сервером. При неудаче повторяет попытки с экспоненциальной задержкой
      * @return true если удачно, false если анлак тотальный
      */
     public boolean connectToServer() {
-        try {
-            socketChannel = SocketChannel.open();
-            socketChannel.configureBlocking(false);
-            socketChannel.connect(new InetSocketAddress(host, port));
-
-            // заканчиваем соединение до таймаута
-            long startTime = System.currentTimeMillis();
-            while (!socketChannel.finishConnect()) {
-                if (System.currentTimeMillis() - startTime > TIMEOUT_MS) {
-                    this.currentReconnectionAttempt = 1;
-                    throw new RuntimeException("Timeout");
+        while (true) {
+            try {
+                openConnection();
+                currentReconnectionAttempt = 0;
+                consoleOutput.println("Подключение к серверу: " + host + ":" + port);
+                return true;
+            } catch (UnresolvedAddressException unresolvedAddressException) {
+                close();
+                consoleOutput.printError("Некорректный адрес сервака");
+                return false;
+            } catch (IOException ioException) {
+                close();
+                consoleOutput.printError("Соединение НЕ установлено. " + ioException.getMessage());
+                if (currentReconnectionAttempt >= maxReconnectionAttempts) {
+                    handleFailedReconnect();
+                    return false;
                 }
-                Thread.sleep(100);
+                currentReconnectionAttempt++;
+                long delay = backoffDelay(currentReconnectionAttempt);
+                consoleOutput.println("Переподключение через: " + delay + " мс");
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    consoleOutput.printError("Прерывание во время переподключения");
+                    return false;
+                }
+                consoleOutput.println(String.format("Попытка: %d/%d", currentReconnectionAttempt, maxReconnectionAttempts));
             }
-
-            consoleOutput.println("Подключение к серверу: " + host + ":" + port);
-
-            return true;
-
-        } catch (IOException ioException) {
-            handleConnectionError(ioException);
-            return isConnected();
-        } catch (UnresolvedAddressException unresolvedAddressException) {
-            consoleOutput.printError("Некорректный адрес сервака");
-            return false;
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
         }
     }
 
     /**
-     * Метод для инициации переподключения в случае если подключение потеряно где то при выполнении
-     * @return true если подсоединились, false если нет
+     * Открывает канал и дожидается завершения подключения (не дольше {@link #TIMEOUT_MS})
+     * @throws IOException если подключиться не удалось
      */
-    private boolean ensureConnected() {
-        if (isConnected()) return true;
-        if (currentReconnectionAttempt >= maxReconnectionAttempts) return false;
+    private void openConnection() throws IOException {
+        close();
+        selector = Selector.open();
+        socketChannel = SocketChannel.open();
+        socketChannel.configureBlocking(false);
+        socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        frameReader.clear();
+        SelectionKey key = socketChannel.register(selector, 0);
+
+        if (!socketChannel.connect(new InetSocketAddress(host, port))) {
+            long deadline = deadline();
+            while (!socketChannel.finishConnect()) {
+                await(key, SelectionKey.OP_CONNECT, deadline);
+            }
+        }
+        if (COMPRESSION) negotiateCompression();
+    }
 
-        reconnect();
+    /**
+     * Согласование сжатия: сервер, который его поддерживает, отвечает названием кодека
+     * и дальше сжимает большие ответы, а клиент - большие запросы
+     */
+    private void negotiateCompression() throws IOException {
+        Response response;
+        try {
+            response = exchange(new RequestCommand("handshake", new ArrayList<>(List.of(FrameCompressor.CODEC))));
+        } catch (ClassNotFoundException classNotFoundException) {
+            throw new IOException("Некорректный формат данных от сервера");
+        }
+        if (response.getResponseStatus() == ResponseStatus.OK && FrameCompressor.CODEC.equals(response.getMessage())) {
+            compressor = new FrameCompressor(FrameCompressor.DEFAULT_THRESHOLD);
+        }
+    }
 
-        return isConnected();
+    /**
+     * Задержка перед очередной попыткой подключения
+     * @param attempt номер попытки (с 1)
+     * @return задержка в мс: случайное значение из [d/2; d], где d = reconnectionDelay * 2^(attempt-1)
+     */
+    private long backoffDelay(int attempt) {
+        long delay = Math.min(MAX_RECONNECTION_DELAY_MS, (long) reconnectionDelay << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
     }
 
     /**
      * Отправка запроса на сервер...
+     * Если соединение оборвалось, клиент переподключается и повторяет запрос один раз, но только если запрос
+     * не успел уйти на сервер целиком или не меняет коллекцию ({@link #readOnlyCommands}).
+     * Иначе сервер мог его уже выполнить, и повтор выполнил бы, например, add дважды - тогда возвращается ошибка
+     * Если сервер ответил BUSY, запрос повторяется через указанное сервером время (не больше {@link #MAX_BUSY_RETRIES} раз)
      * @param requestCommand реквест аа заеблся докать это все
      * @return ответ в формте Response
      */
     public Response send(RequestCommand requestCommand) {
         if (requestCommand.isEmpty()) return new Response(ResponseStatus.COMMAND_ERROR, "Ответ пустой");
 
-        if (!ensureConnected()) return new Response(ResponseStatus.SERVER_ERROR, "Не удалось подключиться к серверу");
-        try {
-            if (!isConnected()) {
-                connectToServer();
-                if (!isConnected()) throw new IOException("Соединение не установлено");
-                return send(requestCommand);
+        for (int attempt = 0; ; attempt++) {
+            if (!isConnected() && !connectToServer()) {
+                return new Response(ResponseStatus.SERVER_ERROR, "Не удалось подключиться к серверу");
             }
-
-            // Сериализация и отправка запроса
-            ByteBuffer requestBuffer = ByteBuffer.wrap(ObjectSerializer.serializeObject(requestCommand));
-            while (requestBuffer.hasRemaining()) socketChannel.write(requestBuffer);
-
-            // Чтение ответа
-            Thread.sleep(50);
-            ByteBuffer responseBuffer = ByteBuffer.allocate(16384);
-
-            long startTime = System.currentTimeMillis();
-            while (true) {
-                int bytesRead = socketChannel.read(responseBuffer);
-                if (bytesRead > 0) break;
-                if (bytesRead == -1) {
-                    throw new IOException("Соединение закрыто");
+            try {
+                Response response = exchange(requestCommand);
+                for (int retry = 0; response instanceof BusyResponse busyResponse && retry < MAX_BUSY_RETRIES; retry++) {
+                    Thread.sleep(busyResponse.getRetryAfterMs());
+                    response = exchange(requestCommand);
                 }
-
-                if (System.currentTimeMillis() - startTime > TIMEOUT_MS) {
-                    return new Response(ResponseStatus.SERVER_ERROR, "Превышено время ожидания ответа");
+                return response;
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return new Response(ResponseStatus.SERVER_ERROR, "Прерывание во время ожидания сервера");
+            } catch (SocketTimeoutException socketTimeoutException) {
+                // ответ может прийти позже и перепутаться со следующим, поэтому соединение сбрасывается
+                close();
+                return new Response(ResponseStatus.SERVER_ERROR, "Превышено время ожидания ответа");
+            } catch (IOException ioException) {
+                close();
+                if (attempt > 0) return new Response(ResponseStatus.SERVER_ERROR, "Ошибка сервера: " + ioException.getMessage());
+                if (requestWritten && !readOnlyCommands.contains(requestCommand.getCommandName())) {
+                    return new Response(ResponseStatus.SERVER_ERROR, "Соединение оборвалось после отправки запроса, " +
+                            "сервер мог успеть его выполнить. Запрос не повторялся: " + ioException.getMessage());
                 }
+            } catch (ClassNotFoundException classNotFoundException) {
+                return new Response(ResponseStatus.SERVER_ERROR, "Некорректный формат данных от сервера");
             }
-
-            responseBuffer.flip();
-            byte[] responseBytes = new byte[responseBuffer.remaining()];
-            responseBuffer.get(responseBytes);
-
-            // Десериализация ответа
-            return (Response) ObjectSerializer.deserializeObject(responseBytes);
-        } catch (IOException ioException) {
-            reconnect();
-            if (!isConnected()) return new Response(ResponseStatus.SERVER_ERROR, "Ошибка сервера: " + ioException.getMessage());
-            return send(requestCommand);
-        } catch (ClassNotFoundException classNotFoundException) {
-            return new Response(ResponseStatus.SERVER_ERROR, "Некорректный формат данных от сервера");
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        } catch (UnresolvedAddressException unresolvedAddressException) {
-            throw new RuntimeException("Неверный адрес сервака");
         }
     }
 
-
     /**
-     * Сценарий для программы в случае ошибки подключения
-     * @param exception
+     * Один обмен: запись кадра запроса и чтение кадра ответа
      */
-    private void handleConnectionError(Exception exception) {
-        consoleOutput.printError("Соединение НЕ установлено.");
-
-        // если неверный адрес то до свидания
-        if (exception instanceof UnresolvedAddressException) {
-            consoleOutput.printError("Некорректный адрес сервака");
-            currentReconnectionAttempt = maxReconnectionAttempts;
-            return;
+    private Response exchange(RequestCommand requestCommand) throws IOException, ClassNotFoundException {
+        SelectionKey key = socketChannel.keyFor(selector);
+        long deadline = deadline();
+
+        // после таймаута клиент закроет соединение, и выполнять запрос серверу уже незачем.
+        // Таймаут задается копии: запрос вызывающего кода не меняется
+        RequestCommand timedRequest = requestCommand.copy();
+        timedRequest.setTimeoutMs(TIMEOUT_MS);
+        byte[] frame = FrameCodec.encode(timedRequest);
+        ByteBuffer requestBuffer = compressor != null
+                ? compressor.compress(frame, FrameCodec.HEADER_SIZE, frame.length - FrameCodec.HEADER_SIZE)
+                : null;
+        if (requestBuffer == null) requestBuffer = ByteBuffer.wrap(frame);
+        requestWritten = false;
+        socketChannel.write(requestBuffer);
+        while (requestBuffer.hasRemaining()) {
+            await(key, SelectionKey.OP_WRITE, deadline);
+            socketChannel.write(requestBuffer);
         }
-
-        reconnect();
+        requestWritten = true;
+
+        // события подписки, пришедшие раньше ответа, пропускаются
+        Response response;
+        do {
+            byte[] responseBytes;
+            while ((responseBytes = frameReader.nextFrame()) == null) {
+                int bytesRead = frameReader.readFrom(socketChannel);
+                if (bytesRead == -1) throw new EOFException("Соединение закрыто сервером");
+                if (bytesRead == 0) await(key, SelectionKey.OP_READ, deadline);
+            }
+            response = (Response) ObjectSerializer.deserializeObject(responseBytes);
+        } while (response.isPush());
+        return response;
     }
 
     /**
-     * Переподсоединение к серверу через делэй
+     * Ожидание готовности канала к операции
+     * @param key ключ канала в селекторе
+     * @param operation операция (OP_CONNECT, OP_READ, OP_WRITE)
+     * @param deadline момент истечения таймаута (System.nanoTime)
+     * @throws SocketTimeoutException если таймаут истек
      */
-    private void reconnect() {
-        if (currentReconnectionAttempt < maxReconnectionAttempts) {
-            try {
-                consoleOutput.println("Переподключение через: " + reconnectionDelay + " мс");
-                currentReconnectionAttempt++;
+    private void await(SelectionKey key, int operation, long deadline) throws IOException {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) throw new SocketTimeoutException("Превышено время ожидания");
+        key.interestOps(operation);
+        selector.select(remainingMs);
+        selector.selectedKeys().clear();
+        key.interestOps(0);
+    }
 
-                close();
-                Thread.sleep(reconnectionDelay);
-                consoleOutput.println(String.format("Попытка: %d/%d", currentReconnectionAttempt, maxReconnectionAttempts));
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+    }
 
-                connectToServer();
+    public String getHost() {
+        return host;
+    }
 
-                return;
+    public int getPort() {
+        return port;
+    }
 
-            } catch (InterruptedException interruptedIOException) {
-                consoleOutput.printError("Прерывание во время переподключения");
-            }
-        }
-        handleFailedReconnect();
+    /**
+     * @param descriptors описания команд сервера; команды, которые не меняют коллекцию, будут повторяться после обрыва соединения
+     */
+    public void setReadOnlyCommands(Collection<CommandDescriptor> descriptors) {
+        readOnlyCommands = descriptors.stream()
+                .filter(CommandDescriptor::isReadOnly)
+                .map(CommandDescriptor::getName)
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     /**
@@ -221,8 +338,11 @@ public class SimpleClient implements Closeable {
      * Закрытие ресурсов для завершения подключения
      */
     public void close() {
+        if (compressor != null) compressor.close();
+        compressor = null;
         try {
             if (socketChannel != null && socketChannel.isOpen()) socketChannel.close();
+            if (selector != null && selector.isOpen()) selector.close();
         } catch (IOException ioException) {
             consoleOutput.printError("Ошибка закрытия ресурсов: " + ioException.getMessage());
         }
@@ -233,11 +353,6 @@ public class SimpleClient implements Closeable {
      * @return ДА или НЕТ.
      */
     public boolean isConnected() {
-        try {
-            Thread.sleep(50);
-            return socketChannel != null && socketChannel.isConnected();
-        } catch (InterruptedException interruptedException) {
-            throw new RuntimeException(interruptedException);
-        }
+        return socketChannel != null && socketChannel.isOpen() && socketChannel.isConnected();
     }
 }
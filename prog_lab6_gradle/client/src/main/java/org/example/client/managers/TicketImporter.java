@@ -0,0 +1,113 @@
+package org.example.client.managers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.common.dtp.ImportChunkRequestCommand;
+import org.example.common.dtp.ImportChunkResponse;
+import org.example.common.dtp.Response;
+import org.example.common.entity.Ticket;
+import org.example.common.utils.Printable;
+import org.example.common.utils.TicketParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Массовый импорт объектов из файла клиента.
+ * Файл читается построчно и отправляется на сервер порциями по {@link #CHUNK_SIZE} объектов.
+ * Форматы:
+ * .csv - одна строка на объект, поля через запятую в порядке имя,x,y,цена,скидка,тип,возвратный,рост,страна
+ * (строка заголовка, начинающаяся с "name", пропускается; запятые внутри значений не поддерживаются);
+ * остальные файлы читаются как JSON lines - один объект Ticket в формате файла коллекции на строку
+ */
+public class TicketImporter {
+    /**
+     * Число объектов в одной порции (client.import.chunk)
+     */
+    public static final int CHUNK_SIZE = Integer.getInteger("client.import.chunk", 10000);
+
+    /**
+     * Сколько ошибок разбора выводить пользователю
+     */
+    private static final int MAX_PRINTED_ERRORS = 5;
+
+    private final SimpleClient client;
+    private final Printable consoleOutput;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long accepted;
+    private long rejected;
+    private long parseErrors;
+
+    public TicketImporter(SimpleClient client, Printable consoleOutput) {
+        this.client = client;
+        this.consoleOutput = consoleOutput;
+        objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Импорт файла
+     * @param fileName путь к файлу
+     */
+    public void importFile(String fileName) {
+        File file = new File(fileName);
+        if (!file.isFile()) {
+            consoleOutput.printError(String.format("Файл \"%s\" не найден", fileName));
+            return;
+        }
+        boolean csv = file.getName().toLowerCase().endsWith(".csv");
+        long startTime = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            ArrayList<Ticket> chunk = new ArrayList<>(CHUNK_SIZE);
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                if (csv && lineNumber == 1 && line.trim().toLowerCase().startsWith("name")) continue;
+                try {
+                    chunk.add(csv ? parseCsv(line) : objectMapper.readValue(line, Ticket.class));
+                } catch (IllegalArgumentException | JsonProcessingException exception) {
+                    parseErrors++;
+                    if (parseErrors <= MAX_PRINTED_ERRORS) {
+                        consoleOutput.printError(String.format("Строка %d пропущена: %s", lineNumber, exception.getMessage()));
+                    }
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    if (!sendChunk(file.getName(), chunk)) return;
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty() && !sendChunk(file.getName(), chunk)) return;
+        } catch (IOException ioException) {
+            consoleOutput.printError("Ошибка чтения файла: " + ioException.getMessage());
+        }
+
+        consoleOutput.println(String.format(
+                "Импорт завершен за %.1f с. Принято: %d, отклонено: %d (ошибки разбора: %d, не прошли валидацию: %d)",
+                (System.nanoTime() - startTime) / 1e9, accepted, rejected + parseErrors, parseErrors, rejected
+        ));
+    }
+
+    private Ticket parseCsv(String line) {
+        return TicketParser.parse(Arrays.asList(line.split(",", -1)));
+    }
+
+    private boolean sendChunk(String fileName, ArrayList<Ticket> chunk) {
+        Response response = client.send(new ImportChunkRequestCommand(fileName, chunk));
+        if (!(response instanceof ImportChunkResponse importChunkResponse)) {
+            consoleOutput.printError(String.format("Импорт прерван после %d объектов: %s", accepted + rejected, response.getMessage()));
+            return false;
+        }
+        accepted += importChunkResponse.getAccepted();
+        rejected += importChunkResponse.getRejected();
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакетный запрос: упорядоченный список команд, выполняемых сервером за один раунд
+ */
+@Getter
+public class BatchRequestCommand extends RequestCommand {
+    /**
+     * Название, под которым пакет учитывается в статистике и журнале сервера
+     */
+    public static final String COMMAND_NAME = "batch";
+
+    /**
+     * Команды пакета в порядке выполнения
+     */
+    private final ArrayList<RequestCommand> commands;
+
+    public BatchRequestCommand(List<RequestCommand> commands) {
+        super(COMMAND_NAME, new ArrayList<>(), null);
+        this.commands = new ArrayList<>(commands);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ответ на пакетный запрос: ответы на каждую команду в том же порядке, что и в запросе
+ */
+@Getter
+public class BatchResponse extends Response {
+    private final ArrayList<Response> responses;
+
+    public BatchResponse(List<Response> responses) {
+        this(summary(responses), responses);
+    }
+
+    protected BatchResponse(String message, List<Response> responses) {
+        super(ResponseStatus.OK, message);
+        this.responses = new ArrayList<>(responses);
+    }
+
+    /**
+     * Итог выполнения набора команд одной строкой
+     * @param responses ответы на команды
+     * @return строка с числом выполненных и успешных команд
+     */
+    public static String summary(List<Response> responses) {
+        long ok = responses.stream().filter(response -> response.getResponseStatus() == ResponseStatus.OK).count();
+        return String.format("Выполнено команд: %d (успешно: %d, с другим статусом: %d)", responses.size(), ok, responses.size() - ok);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.common.dtp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Пул прямых (direct) буферов для чтения из каналов и записи в них.
+ * Буферы делятся на классы по размеру - степени двойки от {@link #MIN_BUFFER_SIZE} до {@link #MAX_BUFFER_SIZE}.
+ * Запросы больше максимального класса обслуживаются обычными буферами в куче, которые в пул не возвращаются.
+ * Пул не потокобезопасен: он рассчитан на один поток селектора
+ */
+public class BufferPool {
+    public static final int MIN_BUFFER_SIZE = 1024;
+    public static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+
+    /**
+     * Свободные буферы по классам размеров
+     */
+    private final ArrayDeque<ByteBuffer>[] free;
+
+    /**
+     * Сколько свободных буферов каждого класса хранить (лишние отдаются сборщику мусора)
+     */
+    private final int[] maxFree;
+
+    private long allocatedCount;
+    private long reusedCount;
+
+    /**
+     * @param maxFreeBytesPerClass сколько байт свободных буферов хранить в каждом классе
+     *                             (но не меньше одного буфера): мелких буферов хранится много, крупных - несколько
+     */
+    @SuppressWarnings("unchecked")
+    public BufferPool(int maxFreeBytesPerClass) {
+        int classCount = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SHIFT + 1;
+        this.free = new ArrayDeque[classCount];
+        this.maxFree = new int[classCount];
+        for (int i = 0; i < classCount; i++) {
+            free[i] = new ArrayDeque<>();
+            maxFree[i] = Math.max(1, maxFreeBytesPerClass / (MIN_BUFFER_SIZE << i));
+        }
+    }
+
+    /**
+     * Выдает очищенный буфер емкостью не меньше запрошенной
+     * @param minCapacity нужная емкость
+     * @return прямой буфер из пула или буфер в куче, если запрошено больше {@link #MAX_BUFFER_SIZE}
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        if (minCapacity > MAX_BUFFER_SIZE) return ByteBuffer.allocate(minCapacity);
+        int sizeClass = sizeClass(minCapacity);
+        ByteBuffer buffer = free[sizeClass].poll();
+        if (buffer == null) {
+            allocatedCount++;
+            return ByteBuffer.allocateDirect(MIN_BUFFER_SIZE << sizeClass);
+        }
+        reusedCount++;
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Возвращает буфер в пул. Буферы в куче и буферы не из пула игнорируются
+     * @param buffer буфер, выданный {@link #acquire} (не срез). После возврата использовать его нельзя
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) return;
+        int capacity = buffer.capacity();
+        if (capacity < MIN_BUFFER_SIZE || capacity > MAX_BUFFER_SIZE || Integer.bitCount(capacity) != 1) return;
+        int sizeClass = sizeClass(capacity);
+        if (free[sizeClass].size() < maxFree[sizeClass]) free[sizeClass].push(buffer);
+    }
+
+    /**
+     * @return сколько прямых буферов было создано за все время
+     */
+    public long getAllocatedCount() {
+        return allocatedCount;
+    }
+
+    /**
+     * @return сколько раз буфер был выдан повторно
+     */
+    public long getReusedCount() {
+        return reusedCount;
+    }
+
+    private static int sizeClass(int capacity) {
+        if (capacity <= MIN_BUFFER_SIZE) return 0;
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+/**
+ * Отказ в выполнении запроса из-за превышения частоты запросов (BUSY) или перегрузки сервера (OVERLOADED).
+ * Запрос можно повторить не раньше, чем через {@link #getRetryAfterMs()} мс
+ */
+@Getter
+public class BusyResponse extends Response {
+    /**
+     * Через сколько мс у клиента появится право на следующий запрос
+     */
+    private final long retryAfterMs;
+
+    public BusyResponse(long retryAfterMs) {
+        this(ResponseStatus.BUSY, "Слишком много запросов, повторите через " + retryAfterMs + " мс", retryAfterMs);
+    }
+
+    public BusyResponse(ResponseStatus responseStatus, String message, long retryAfterMs) {
+        super(responseStatus, message);
+        this.retryAfterMs = retryAfterMs;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.common.dtp;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Поток записи в буфер из {@link BufferPool}.
+ * При нехватке места берет из пула буфер вдвое больше, переносит в него данные и возвращает старый
+ */
+public class ByteBufferOutputStream extends OutputStream {
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+
+    public ByteBufferOutputStream(BufferPool pool, int initialCapacity) {
+        this.pool = pool;
+        this.buffer = pool.acquire(initialCapacity);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureRemaining(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Пропускает байты (например, место под заголовок кадра, который записывается в конце)
+     * @param count сколько байт пропустить
+     */
+    public void skip(int count) {
+        ensureRemaining(count);
+        buffer.position(buffer.position() + count);
+    }
+
+    /**
+     * @return буфер с записанными данными в режиме записи (position - конец данных).
+     * Вызывающий становится его владельцем и должен вернуть его в пул
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    private void ensureRemaining(int count) {
+        if (buffer.remaining() >= count) return;
+        long needed = (long) buffer.position() + count;
+        if (needed > Integer.MAX_VALUE - 8) throw new OutOfMemoryError("Слишком большое сообщение");
+        ByteBuffer bigger = pool.acquire((int) Math.max(needed, Math.min((long) buffer.capacity() * 2, Integer.MAX_VALUE - 8)));
+        buffer.flip();
+        bigger.put(buffer);
+        pool.release(buffer);
+        buffer = bigger;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+/**
+ * Событие изменения коллекции для подписчика.
+ * Отправляется сервером без запроса (номер запроса 0), номер события - версия коллекции после изменения
+ */
+@Getter
+public class ChangeEvent extends Response {
+    private final CollectionChange change;
+
+    public ChangeEvent(CollectionChange change) {
+        super(ResponseStatus.EVENT, change.getType() + " id=" + change.getTicketId() + ", версия " + change.getVersion());
+        this.change = change;
+    }
+}
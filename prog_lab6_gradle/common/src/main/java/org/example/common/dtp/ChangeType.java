@@ -0,0 +1,11 @@
+package org.example.common.dtp;
+
+/**
+ * Тип изменения коллекции
+ */
+public enum ChangeType {
+    ADD,
+    UPDATE,
+    REMOVE,
+    CLEAR;
+}
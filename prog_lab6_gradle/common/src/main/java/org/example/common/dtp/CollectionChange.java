@@ -0,0 +1,31 @@
+package org.example.common.dtp;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.common.entity.Ticket;
+
+import java.io.Serializable;
+
+/**
+ * Одно изменение коллекции на сервере
+ */
+@Getter
+@AllArgsConstructor
+public class CollectionChange implements Serializable {
+    /**
+     * Версия коллекции после этого изменения. Версии изменений идут подряд
+     */
+    private final long version;
+
+    private final ChangeType type;
+
+    /**
+     * Id измененного элемента (null для CLEAR)
+     */
+    private final Integer ticketId;
+
+    /**
+     * Новое состояние элемента для ADD и UPDATE (иначе null)
+     */
+    private final Ticket ticket;
+}
@@ -0,0 +1,46 @@
+package org.example.common.dtp;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * Описание команды сервера: сколько аргументов она принимает, нужен ли ей объект коллекции и меняет ли она коллекцию.
+ * Клиент получает описания один раз и по ним сразу собирает полный запрос
+ */
+@Getter
+@AllArgsConstructor
+public class CommandDescriptor implements Serializable {
+    private final String name;
+
+    private final String description;
+
+    /**
+     * Минимальное число аргументов
+     */
+    private final int minArgs;
+
+    /**
+     * Максимальное число аргументов
+     */
+    private final int maxArgs;
+
+    /**
+     * Нужно ли прикладывать к запросу объект Ticket
+     */
+    private final boolean objectRequired;
+
+    /**
+     * Не меняет ли команда коллекцию (по классу нагрузки на сервере): такой запрос можно повторить после обрыва соединения
+     */
+    private final boolean readOnly;
+
+    /**
+     * @param argsCount число аргументов в запросе
+     * @return подходит ли число аргументов команде
+     */
+    public boolean acceptsArgs(int argsCount) {
+        return argsCount >= minArgs && argsCount <= maxArgs;
+    }
+}
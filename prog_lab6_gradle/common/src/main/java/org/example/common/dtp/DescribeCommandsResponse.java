@@ -0,0 +1,19 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ответ со списком описаний всех команд сервера
+ */
+@Getter
+public class DescribeCommandsResponse extends Response {
+    private final ArrayList<CommandDescriptor> descriptors;
+
+    public DescribeCommandsResponse(List<CommandDescriptor> descriptors) {
+        super(ResponseStatus.OK, "Доступно команд: " + descriptors.size());
+        this.descriptors = new ArrayList<>(descriptors);
+    }
+}
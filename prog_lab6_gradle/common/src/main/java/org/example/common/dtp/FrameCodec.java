@@ -0,0 +1,71 @@
+package org.example.common.dtp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Кадрирование сообщений между клиентом и сервером.
+ * Каждое сообщение передается как [длина - 4 байта, big-endian][сериализованный объект],
+ * поэтому получатель точно знает, где заканчивается одно сообщение и начинается следующее.
+ * Старший бит длины - флаг сжатого кадра (см. {@link FrameCompressor})
+ */
+public class FrameCodec {
+    /**
+     * Размер заголовка кадра
+     */
+    public static final int HEADER_SIZE = 4;
+
+    /**
+     * Максимальный размер тела кадра. Кадр длиннее считается мусором
+     */
+    public static final int MAX_FRAME_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * Максимальный размер распакованного сжатого кадра по умолчанию.
+     * Намного меньше {@link #MAX_FRAME_SIZE}: маленький сжатый кадр не должен заставлять выделять сотни мегабайт
+     */
+    public static final int MAX_INFLATED_FRAME_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Флаг в заголовке: тело кадра сжато
+     */
+    public static final int COMPRESSED_FLAG = 0x80000000;
+
+    /**
+     * Сериализует объект сразу в кадр (заголовок + тело) без лишнего копирования
+     * @param obj объект для сериализации
+     * @return байты кадра
+     * @throws IOException при ошибке сериализации
+     */
+    public static byte[] encode(Object obj) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byteArrayOutputStream.write(new byte[HEADER_SIZE]);
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(obj);
+        }
+        byte[] frame = byteArrayOutputStream.toByteArray();
+        writeLength(frame, frame.length - HEADER_SIZE);
+        return frame;
+    }
+
+    /**
+     * Заголовок кадра для уже сериализованного тела
+     * @param payloadLength длина тела
+     * @return буфер заголовка, готовый к записи в канал
+     */
+    public static ByteBuffer header(int payloadLength) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(payloadLength);
+        header.flip();
+        return header;
+    }
+
+    private static void writeLength(byte[] frame, int length) {
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+    }
+}
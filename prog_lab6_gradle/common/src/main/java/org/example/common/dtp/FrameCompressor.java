@@ -0,0 +1,98 @@
+package org.example.common.dtp;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Сжатие кадров одного соединения.
+ * Сжимаются только тела не короче порога и только если сжатие их уменьшает.
+ * Сжатый кадр: [длина | {@link FrameCodec#COMPRESSED_FLAG}][исходная длина - 4 байта][поток deflate].
+ * {@link Deflater} и рабочий буфер переиспользуются между кадрами, поэтому объект не потокобезопасен
+ */
+public class FrameCompressor implements Closeable {
+    /**
+     * Название кодека при согласовании сжатия
+     */
+    public static final String CODEC = "deflate";
+
+    /**
+     * Порог сжатия по умолчанию в байтах
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private static final int PREFIX_SIZE = FrameCodec.HEADER_SIZE + Integer.BYTES;
+
+    private final int threshold;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] scratch = new byte[0];
+
+    public FrameCompressor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Сжимает тело кадра
+     * @param data массив с телом
+     * @param offset начало тела
+     * @param length длина тела
+     * @return сжатый кадр с заголовком или null, если тело короче порога или не сжимается
+     */
+    public ByteBuffer compress(byte[] data, int offset, int length) {
+        if (length < threshold) return null;
+        // результат длиннее исходного не нужен, поэтому буфера размером с тело достаточно
+        if (scratch.length < PREFIX_SIZE + length) scratch = new byte[PREFIX_SIZE + length];
+        ByteBuffer output = ByteBuffer.wrap(scratch, 0, PREFIX_SIZE + length);
+        if (!deflate(ByteBuffer.wrap(data, offset, length), output)) return null;
+        return ByteBuffer.wrap(Arrays.copyOf(scratch, output.limit()));
+    }
+
+    /**
+     * Сжимает кадр, сериализованный в буфер из пула
+     * @param frame кадр с заголовком в режиме чтения
+     * @param pool пул, из которого берется буфер для сжатого кадра
+     * @return сжатый кадр из пула в режиме чтения или null, если тело короче порога или не сжимается
+     */
+    public ByteBuffer compress(ByteBuffer frame, BufferPool pool) {
+        int length = frame.remaining() - FrameCodec.HEADER_SIZE;
+        if (length < threshold) return null;
+        ByteBuffer output = pool.acquire(PREFIX_SIZE + length);
+        output.limit(PREFIX_SIZE + length);
+        if (!deflate(frame.slice(frame.position() + FrameCodec.HEADER_SIZE, length), output)) {
+            pool.release(output);
+            return null;
+        }
+        return output;
+    }
+
+    /**
+     * Сжатие тела в выходной буфер после заголовков
+     * @param body тело кадра
+     * @param output буфер с limit, равным наибольшему допустимому размеру сжатого кадра
+     * @return true если сжатое тело уместилось; тогда output - готовый кадр в режиме чтения
+     */
+    private boolean deflate(ByteBuffer body, ByteBuffer output) {
+        int length = body.remaining();
+        deflater.reset();
+        deflater.setInput(body);
+        deflater.finish();
+        output.position(PREFIX_SIZE);
+        while (!deflater.finished()) {
+            if (!output.hasRemaining()) return false;
+            deflater.deflate(output);
+        }
+        output.flip();
+        output.putInt(0, (output.limit() - FrameCodec.HEADER_SIZE) | FrameCodec.COMPRESSED_FLAG);
+        output.putInt(FrameCodec.HEADER_SIZE, length);
+        return true;
+    }
+
+    /**
+     * Освобождает упаковщик
+     */
+    @Override
+    public void close() {
+        deflater.end();
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.common.dtp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Накопитель входящих байтов, выделяющий из потока целые кадры {@link FrameCodec}.
+ * Буфер растет удвоением по мере прихода байтов (не по длине из заголовка) и переиспользуется между сообщениями.
+ * Сжатые кадры распаковываются прямо из буфера одним {@link Inflater} на соединение.
+ * С пулом буферов ({@link BufferPool}) буфер берется из пула только на время, пока в нем есть данные,
+ * а его размер подстраивается под размер недавних кадров соединения
+ */
+public class FrameReader implements Closeable {
+    /**
+     * Наибольший размер буфера, который выбирается для чтения заранее
+     */
+    public static final int MAX_READ_SIZE = 64 * 1024;
+
+    /**
+     * Через сколько подряд кадров, умещающихся в половину буфера, размер чтения уменьшается вдвое
+     */
+    private static final int SHRINK_AFTER_FRAMES = 8;
+
+    /**
+     * Пул буферов (null - собственный буфер в куче)
+     */
+    private final BufferPool pool;
+
+    /**
+     * Буфер в режиме записи: position - конец полученных данных.
+     * В режиме пула null, пока необработанных данных нет
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Начало необработанных данных в буфере
+     */
+    private int readPosition;
+
+    /**
+     * Размер буфера, который берется из пула для следующего чтения
+     */
+    private int readSize;
+
+    private int smallFramesInRow;
+
+    /**
+     * Распаковщик сжатых кадров. Создается при первом сжатом кадре
+     */
+    private Inflater inflater;
+
+    /**
+     * Принимаются ли сжатые кадры (сервер разрешает их только после согласования сжатия)
+     */
+    private boolean compressionAllowed = true;
+
+    /**
+     * Наибольшая исходная длина сжатого кадра
+     */
+    private int maxInflatedSize = FrameCodec.MAX_INFLATED_FRAME_SIZE;
+
+    /**
+     * Наибольшая длина тела кадра
+     */
+    private int maxFrameSize = FrameCodec.MAX_FRAME_SIZE;
+
+    public FrameReader(int initialCapacity) {
+        this.pool = null;
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+        this.readSize = initialCapacity;
+    }
+
+    public FrameReader(BufferPool pool, int initialReadSize) {
+        this.pool = pool;
+        this.readSize = initialReadSize;
+    }
+
+    /**
+     * Читает из канала доступные сейчас байты. Если буфер заполнился и в нем уже есть целый кадр,
+     * чтение останавливается: остальное читается следующим вызовом, после разбора кадров
+     * @param channel канал (блокирующий или нет)
+     * @return сколько байтов прочитано, -1 если канал закрыт и ничего не прочитано
+     * @throws IOException при ошибке чтения или если заголовок недополученного кадра содержит некорректную длину
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        if (buffer == null) buffer = pool.acquire(readSize);
+        else compact();
+        int total = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                int frameSize = pendingFrameSize();
+                // в буфере целый кадр - остальное дочитается после его разбора
+                if (frameSize != -1 && frameSize <= buffer.position() - readPosition) return total;
+                // буфер растет удвоением, но не больше кадра: память выделяется по мере прихода его байтов
+                grow(frameSize == -1 ? buffer.capacity() * 2 : Math.min(buffer.capacity() * 2, frameSize));
+            }
+            int bytesRead = channel.read(buffer);
+            if (bytesRead == -1) return total == 0 ? -1 : total;
+            if (bytesRead == 0) return total;
+            total += bytesRead;
+            // буфер заполнен не до конца - все доступные байты уже прочитаны,
+            // повторное чтение блокирующего канала зависло бы до следующего сообщения
+            if (buffer.hasRemaining()) return total;
+        }
+    }
+
+    /**
+     * Извлекает следующий полностью полученный кадр без копирования
+     * @return тело кадра - срез буфера, действительный до следующего вызова любого метода,
+     * или null, если кадр еще не получен целиком
+     * @throws IOException если заголовок содержит некорректную длину или сжатие не согласовано
+     */
+    public ByteBuffer nextFrameBuffer() throws IOException {
+        if (buffer == null) return null;
+        int available = buffer.position() - readPosition;
+        if (available < FrameCodec.HEADER_SIZE) {
+            if (available == 0) recycle();
+            return null;
+        }
+        int header = buffer.getInt(readPosition);
+        boolean compressed = (header & FrameCodec.COMPRESSED_FLAG) != 0;
+        int length = checkLength(header);
+        if (compressed && !compressionAllowed) {
+            throw new IOException("Сжатый кадр без согласования сжатия");
+        }
+        if (available < FrameCodec.HEADER_SIZE + length) {
+            // место под остаток кадра освобождается, но буфер растет только в readFrom по мере прихода байтов
+            if (buffer.capacity() - readPosition < FrameCodec.HEADER_SIZE + length) compact();
+            return null;
+        }
+        int bodyStart = readPosition + FrameCodec.HEADER_SIZE;
+        readPosition = bodyStart + length;
+        adaptReadSize(FrameCodec.HEADER_SIZE + length);
+        if (compressed) return ByteBuffer.wrap(inflate(bodyStart, length));
+        return buffer.slice(bodyStart, length);
+    }
+
+    /**
+     * Извлекает следующий полностью полученный кадр
+     * @return тело кадра или null, если кадр еще не получен целиком
+     * @throws IOException если заголовок содержит некорректную длину
+     */
+    public byte[] nextFrame() throws IOException {
+        ByteBuffer frame = nextFrameBuffer();
+        if (frame == null) return null;
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Сбрасывает накопленные байты (например, после переподключения)
+     */
+    public void clear() {
+        if (buffer != null) recycle();
+    }
+
+    /**
+     * @param compressionAllowed принимать ли сжатые кадры; при запрете сжатый кадр считается ошибкой протокола
+     */
+    public void setCompressionAllowed(boolean compressionAllowed) {
+        this.compressionAllowed = compressionAllowed;
+    }
+
+    /**
+     * @param maxInflatedSize наибольшая исходная длина сжатого кадра
+     */
+    public void setMaxInflatedSize(int maxInflatedSize) {
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    /**
+     * @param maxFrameSize наибольшая длина тела кадра; кадр длиннее отклоняется по заголовку, до выделения буфера под него
+     */
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * @return размер буфера для следующего чтения
+     */
+    public int getReadSize() {
+        return readSize;
+    }
+
+    /**
+     * @return емкость текущего буфера (0, если буфер возвращен в пул)
+     */
+    int capacity() {
+        return buffer != null ? buffer.capacity() : 0;
+    }
+
+    /**
+     * Распаковка сжатого тела кадра: [исходная длина - 4 байта][поток deflate]
+     * @param offset начало тела в буфере
+     * @param length длина тела
+     * @return исходное тело кадра
+     * @throws IOException если сжатые данные повреждены
+     */
+    private byte[] inflate(int offset, int length) throws IOException {
+        if (length < Integer.BYTES) throw new IOException("Некорректный сжатый кадр");
+        int originalLength = buffer.getInt(offset);
+        if (originalLength < 0 || originalLength > maxInflatedSize) {
+            throw new IOException("Некорректная длина сжатого кадра: " + originalLength);
+        }
+        if (inflater == null) inflater = new Inflater();
+        else inflater.reset();
+        inflater.setInput(buffer.slice(offset + Integer.BYTES, length - Integer.BYTES));
+
+        byte[] frame = new byte[originalLength];
+        int inflated = 0;
+        try {
+            while (inflated < originalLength && !inflater.finished()) {
+                int count = inflater.inflate(frame, inflated, originalLength - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                inflated += count;
+            }
+        } catch (DataFormatException dataFormatException) {
+            throw new IOException("Поврежденный сжатый кадр: " + dataFormatException.getMessage());
+        }
+        if (inflated != originalLength || !inflater.finished()) throw new IOException("Поврежденный сжатый кадр");
+        return frame;
+    }
+
+    /**
+     * Освобождает распаковщик и возвращает буфер в пул
+     */
+    @Override
+    public void close() {
+        if (inflater != null) inflater.end();
+        inflater = null;
+        if (pool != null && buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+            readPosition = 0;
+        }
+    }
+
+    /**
+     * Подстройка размера чтения: растет сразу до кадра, не уместившегося в буфер,
+     * и уменьшается вдвое, когда кадры долго занимают меньше половины буфера
+     * @param frameSize размер полученного кадра вместе с заголовком
+     */
+    private void adaptReadSize(int frameSize) {
+        if (frameSize > readSize) {
+            readSize = Math.min(MAX_READ_SIZE, Integer.highestOneBit(frameSize - 1) << 1);
+            smallFramesInRow = 0;
+        } else if (frameSize <= readSize / 2 && readSize > BufferPool.MIN_BUFFER_SIZE) {
+            if (++smallFramesInRow >= SHRINK_AFTER_FRAMES) {
+                readSize /= 2;
+                smallFramesInRow = 0;
+            }
+        } else {
+            smallFramesInRow = 0;
+        }
+    }
+
+    /**
+     * Все данные обработаны: собственный буфер очищается, буфер из пула возвращается в пул
+     */
+    private void recycle() {
+        readPosition = 0;
+        if (pool == null) {
+            buffer.clear();
+        } else {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Переносит необработанные данные в начало буфера
+     */
+    private void compact() {
+        if (readPosition == 0) return;
+        buffer.flip();
+        buffer.position(readPosition);
+        buffer.compact();
+        readPosition = 0;
+    }
+
+    /**
+     * Длина тела кадра из заголовка
+     * @throws IOException если длина превышает допустимую
+     */
+    private int checkLength(int header) throws IOException {
+        int length = header & ~FrameCodec.COMPRESSED_FLAG;
+        if (length > maxFrameSize) {
+            throw new IOException("Некорректная длина кадра: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * @return размер первого необработанного кадра вместе с заголовком или -1, если заголовок еще не получен
+     * @throws IOException если заголовок содержит некорректную длину
+     */
+    private int pendingFrameSize() throws IOException {
+        if (buffer.position() - readPosition < FrameCodec.HEADER_SIZE) return -1;
+        return FrameCodec.HEADER_SIZE + checkLength(buffer.getInt(readPosition));
+    }
+
+    private void grow(int capacity) {
+        ByteBuffer bigger = pool != null ? pool.acquire(capacity) : ByteBuffer.allocate(capacity);
+        buffer.flip();
+        buffer.position(readPosition);
+        bigger.put(buffer);
+        if (pool != null) pool.release(buffer);
+        buffer = bigger;
+        readPosition = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+import org.example.common.entity.Ticket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Часть массового импорта: очередная порция объектов из файла клиента
+ */
+@Getter
+public class ImportChunkRequestCommand extends RequestCommand {
+    /**
+     * Название команды импорта
+     */
+    public static final String COMMAND_NAME = "import";
+
+    /**
+     * Объекты порции. Id назначается сервером, дата создания - если она не указана
+     */
+    private final ArrayList<Ticket> tickets;
+
+    public ImportChunkRequestCommand(String fileName, List<Ticket> tickets) {
+        super(COMMAND_NAME, new ArrayList<>(List.of(fileName)), null);
+        this.tickets = new ArrayList<>(tickets);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tickets.isEmpty();
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+/**
+ * Ответ на порцию импорта: сколько объектов добавлено и сколько отклонено валидацией
+ */
+@Getter
+public class ImportChunkResponse extends Response {
+    private final int accepted;
+
+    private final int rejected;
+
+    public ImportChunkResponse(int accepted, int rejected) {
+        super(ResponseStatus.OK, String.format("Принято: %d, отклонено: %d", accepted, rejected));
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+}
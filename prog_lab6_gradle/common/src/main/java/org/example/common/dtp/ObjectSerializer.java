@@ -1,6 +1,7 @@
 package org.example.common.dtp;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 
 /**
  * Класс со статическими методами для сериализации объектов
@@ -38,4 +39,17 @@ public class ObjectSerializer {
             return objectInputStream.readObject();
         }
     }
+
+    /**
+     * Десериализация объекта прямо из буфера, без копирования в массив
+     * @param buffer буфер, от position до limit которого лежит объект
+     * @return объект
+     * @throws IOException если в стримах чот не то)
+     * @throws ClassNotFoundException если прислали не тот класс
+     */
+    public static Object deserializeObject(ByteBuffer buffer) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteBufferInputStream(buffer))) {
+            return objectInputStream.readObject();
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package org.example.common.dtp;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Setter;
 import org.example.common.entity.Ticket;
 
 import java.io.Serializable;
@@ -10,9 +10,8 @@ import java.util.ArrayList;
 /**
  * Класс запроса с клиента на сервер
  */
-@AllArgsConstructor
 @Getter
-public class RequestCommand implements Serializable {
+public class RequestCommand implements Serializable, Cloneable {
     /**
      * Название команды
      */
@@ -28,6 +27,27 @@ public class RequestCommand implements Serializable {
      */
     private final Ticket ticketObject;
 
+    /**
+     * Номер запроса, по которому асинхронный клиент сопоставляет ответ с запросом (0 - не задан).
+     * Сервер копирует его в ответ
+     */
+    @Setter
+    private long requestId;
+
+    /**
+     * Сколько мс клиент готов ждать ответ (0 - без ограничения).
+     * Передается бюджет, а не момент времени, потому что часы клиента и сервера могут не совпадать:
+     * сервер отсчитывает его от получения запроса и не выполняет запрос, от которого клиент уже отказался
+     */
+    @Setter
+    private long timeoutMs;
+
+    public RequestCommand(String commandName, ArrayList<String> args, Ticket ticketObject) {
+        this.commandName = commandName;
+        this.args = args;
+        this.ticketObject = ticketObject;
+    }
+
     public RequestCommand(String commandName, ArrayList<String> args) {
         this(commandName, args, null);
     }
@@ -44,4 +64,16 @@ public class RequestCommand implements Serializable {
         return commandName.isBlank() && args.isEmpty() && ticketObject == null;
     }
 
+    /**
+     * @return копия запроса того же класса с теми же аргументами и объектом (они не копируются),
+     * чтобы задать номер или таймаут отправки, не меняя исходный запрос
+     */
+    public RequestCommand copy() {
+        try {
+            return (RequestCommand) clone();
+        } catch (CloneNotSupportedException cloneNotSupportedException) {
+            throw new AssertionError(cloneNotSupportedException);
+        }
+    }
+
 }
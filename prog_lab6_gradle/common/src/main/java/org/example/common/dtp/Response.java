@@ -1,7 +1,7 @@
 package org.example.common.dtp;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Setter;
 import org.example.common.entity.Ticket;
 
 import java.io.Serializable;
@@ -11,7 +11,6 @@ import java.util.Collection;
  * Ответ сервера
  */
 @Getter
-@AllArgsConstructor
 public class Response implements Serializable {
     /**
      * Енам статуса для категоризации ответа
@@ -28,7 +27,26 @@ public class Response implements Serializable {
      */
     private final Collection<Ticket> collection;
 
+    /**
+     * Номер запроса, на который дан ответ (копируется сервером из запроса)
+     */
+    @Setter
+    private long requestId;
+
+    public Response(ResponseStatus responseStatus, String message, Collection<Ticket> collection) {
+        this.responseStatus = responseStatus;
+        this.message = message;
+        this.collection = collection;
+    }
+
     public Response(ResponseStatus responseStatus, String message) {
         this(responseStatus, message, null);
     }
+
+    /**
+     * @return true если сервер отправил это сообщение подписчику без запроса
+     */
+    public boolean isPush() {
+        return responseStatus == ResponseStatus.EVENT || responseStatus == ResponseStatus.RESYNC;
+    }
 }
@@ -42,5 +42,25 @@ public enum ResponseStatus {
     /**
      * Выполнить скрипт на стороне клиента
      */
-    EXECUTE_SCRIPT
+    EXECUTE_SCRIPT,
+
+    /**
+     * Событие изменения коллекции, отправленное подписчику без запроса
+     */
+    EVENT,
+
+    /**
+     * Подписка отменена, потому что клиент не успевал получать события: нужна повторная синхронизация
+     */
+    RESYNC,
+
+    /**
+     * Запрос не выполнен: клиент превысил допустимую частоту запросов, повторить позже
+     */
+    BUSY,
+
+    /**
+     * Запрос не выполнен: сервер перегружен и отклоняет тяжелые запросы, повторить позже
+     */
+    OVERLOADED
 }
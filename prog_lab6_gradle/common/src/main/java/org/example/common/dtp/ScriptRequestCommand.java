@@ -0,0 +1,38 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запрос на выполнение скрипта на стороне сервера.
+ * Вместе с именем запускаемого файла передается содержимое его и всех вложенных скриптов,
+ * поэтому весь скрипт выполняется за один раунд
+ */
+@Getter
+public class ScriptRequestCommand extends RequestCommand {
+    /**
+     * Название команды, которой выполняются скрипты
+     */
+    public static final String COMMAND_NAME = "execute_script";
+
+    /**
+     * Содержимое скриптов: имя файла (в том виде, в котором оно записано в команде) - текст
+     */
+    private final HashMap<String, String> scripts;
+
+    public ScriptRequestCommand(String fileName, Map<String, String> scripts) {
+        super(COMMAND_NAME, new ArrayList<>(List.of(fileName)), null);
+        this.scripts = new HashMap<>(scripts);
+    }
+
+    /**
+     * @return имя запускаемого файла
+     */
+    public String getFileName() {
+        return getArgs().get(0);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сводный ответ на скрипт, выполненный сервером.
+ * Для каждой выполненной команды хранится ее место в скрипте и ответ
+ */
+@Getter
+public class ScriptResponse extends BatchResponse {
+    /**
+     * Метки команд вида "файл:строка: команда" в том же порядке, что и ответы
+     */
+    private final ArrayList<String> commandLines;
+
+    public ScriptResponse(String message, List<String> commandLines, List<Response> responses) {
+        super(message, responses);
+        this.commandLines = new ArrayList<>(commandLines);
+    }
+}
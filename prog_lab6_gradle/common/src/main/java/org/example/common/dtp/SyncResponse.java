@@ -0,0 +1,45 @@
+package org.example.common.dtp;
+
+import lombok.Getter;
+import org.example.common.entity.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ответ на запрос синхронизации реплики: либо изменения после версии клиента,
+ * либо полный снимок коллекции (в поле collection), если журнал изменений их уже не хранит
+ */
+@Getter
+public class SyncResponse extends Response {
+    /**
+     * Эпоха коллекции: меняется при перезапуске сервера, и тогда версии начинаются заново
+     */
+    private final long epoch;
+
+    /**
+     * Версия коллекции, которую отражает реплика после применения ответа
+     */
+    private final long version;
+
+    private final boolean snapshot;
+
+    private final ArrayList<CollectionChange> changes;
+
+    private SyncResponse(long epoch, long version, boolean snapshot, Collection<Ticket> collection, List<CollectionChange> changes) {
+        super(ResponseStatus.OK, snapshot ? "Полный снимок коллекции, версия " + version : "Изменений: " + changes.size() + ", версия " + version, collection);
+        this.epoch = epoch;
+        this.version = version;
+        this.snapshot = snapshot;
+        this.changes = new ArrayList<>(changes);
+    }
+
+    public static SyncResponse snapshot(long epoch, long version, Collection<Ticket> collection) {
+        return new SyncResponse(epoch, version, true, new ArrayList<>(collection), List.of());
+    }
+
+    public static SyncResponse delta(long epoch, long version, List<CollectionChange> changes) {
+        return new SyncResponse(epoch, version, false, null, changes);
+    }
+}
@@ -78,6 +78,7 @@ public class Ticket implements Validatable, Comparable<Ticket>, Serializable {
         if (price <= 0) return false;
         if (discount == null || discount <= 0 || discount > 100) return false;
         if (person == null) return false;
+        if (coordinates == null) return false;
 
         return person.validate() && coordinates.validate();
     }
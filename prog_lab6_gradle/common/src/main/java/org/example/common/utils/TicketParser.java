@@ -0,0 +1,96 @@
+package org.example.common.utils;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбор объекта Ticket из строк скрипта.
+ * Поля идут по одному в строке в том же порядке, в котором их спрашивает интерактивный билдер клиента:
+ * имя, x, y, цена, скидка, тип, возвратный, рост, страна. Тип и страну можно оставить пустой строкой
+ */
+public class TicketParser {
+    /**
+     * Число строк, занимаемых одним объектом
+     */
+    public static final int FIELD_COUNT = 9;
+
+    /**
+     * Слова, которые распознаются как true (общие для скриптов на сервере и интерактивного ввода клиента)
+     */
+    public static final Set<String> TRUE_WORDS = Set.of("1", "+", "on", "y", "yes", "t", "true");
+
+    /**
+     * Слова, которые распознаются как false
+     */
+    public static final Set<String> FALSE_WORDS = Set.of("0", "-", "off", "n", "no", "not", "f", "false");
+
+    /**
+     * Строит объект из {@link #FIELD_COUNT} строк
+     * @param fields строки с полями объекта
+     * @return новый объект (id и дата создания проставляются сервером при добавлении)
+     * @throws IllegalArgumentException если строк не хватает или значение поля некорректно
+     */
+    public static Ticket parse(List<String> fields) {
+        if (fields.size() < FIELD_COUNT) {
+            throw new IllegalArgumentException("Для создания объекта нужно " + FIELD_COUNT + " строк, получено " + fields.size());
+        }
+
+        String name = fields.get(0).trim();
+        if (name.isEmpty()) throw new IllegalArgumentException("имя: строка должна быть непустой");
+
+        float x = parseNumber("координата x", fields.get(1), Float::parseFloat);
+        int y = parseNumber("координата y", fields.get(2), Integer::parseInt);
+        if (y <= -471) throw new IllegalArgumentException("координата y: число должно быть больше -471");
+
+        double price = parseNumber("цена", fields.get(3), Double::parseDouble);
+        if (!(price > 0)) throw new IllegalArgumentException("цена: число должно быть больше нуля");
+
+        float discount = parseNumber("скидка", fields.get(4), Float::parseFloat);
+        if (!(discount > 0 && discount <= 100)) throw new IllegalArgumentException("скидка: число должно лежать в промежутке (0; 100]");
+
+        TicketType type = parseEnum("тип билета", fields.get(5), TicketType.class);
+        boolean refundable = parseBoolean("возвратный", fields.get(6));
+
+        long height = parseNumber("рост", fields.get(7), Long::parseLong);
+        if (height <= 0) throw new IllegalArgumentException("рост: число должно быть больше нуля");
+
+        Country country = parseEnum("страна", fields.get(8), Country.class);
+
+        return new Ticket(name, new Coordinates(x, y), price, discount, type, refundable, new Person(height, country));
+    }
+
+    private interface NumberParser<T> {
+        T parse(String value);
+    }
+
+    private static <T> T parseNumber(String fieldName, String value, NumberParser<T> parser) {
+        try {
+            return parser.parse(value.trim());
+        } catch (NumberFormatException numberFormatException) {
+            throw new IllegalArgumentException(fieldName + ": некорректное число \"" + value + "\"");
+        }
+    }
+
+    private static <T extends Enum<T>> T parseEnum(String fieldName, String value, Class<T> enumClass) {
+        String input = value.trim();
+        if (input.isEmpty()) return null;
+        try {
+            return Enum.valueOf(enumClass, input.toUpperCase());
+        } catch (IllegalArgumentException illegalArgumentException) {
+            throw new IllegalArgumentException(fieldName + ": \"" + value + "\" не входит в список допустимых значений");
+        }
+    }
+
+    private static boolean parseBoolean(String fieldName, String value) {
+        String input = value.trim().toLowerCase();
+        if (TRUE_WORDS.contains(input)) return true;
+        if (FALSE_WORDS.contains(input)) return false;
+        throw new IllegalArgumentException(fieldName + ": ожидается да или нет, получено \"" + value + "\"");
+    }
+}
@@ -1,4 +1,4 @@
 /**
- * Утилитарные интерфейсы
+ * Утилитарные интерфейсы и общие для клиента и сервера вспомогательные классы
  */
 package org.example.common.utils;
\ No newline at end of file
@@ -0,0 +1,174 @@
+package org.example.common.dtp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameReaderTest {
+    @Test
+    void readsEncodedObject() throws Exception {
+        RequestCommand request = new RequestCommand("show", new ArrayList<>(List.of("a", "b")));
+        FrameReader reader = new FrameReader(64);
+        reader.readFrom(channel(FrameCodec.encode(request)));
+
+        RequestCommand decoded = (RequestCommand) ObjectSerializer.deserializeObject(reader.nextFrame());
+        assertEquals("show", decoded.getCommandName());
+        assertEquals(List.of("a", "b"), decoded.getArgs());
+        assertNull(reader.nextFrame());
+    }
+
+    @Test
+    void compressedFrameRoundTrip() throws Exception {
+        byte[] body = text(100_000);
+        ByteBuffer compressed = new FrameCompressor(16).compress(body, 0, body.length);
+        assertNotNull(compressed);
+        assertTrue(compressed.remaining() < body.length / 10);
+
+        FrameReader reader = new FrameReader(64);
+        reader.readFrom(channel(bytes(compressed)));
+        assertArrayEquals(body, reader.nextFrame());
+    }
+
+    @Test
+    void pooledCompressedFrameRoundTrip() throws Exception {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        byte[] body = text(50_000);
+        ByteBuffer frame = ByteBuffer.allocate(FrameCodec.HEADER_SIZE + body.length).putInt(body.length).put(body).flip();
+        ByteBuffer compressed = new FrameCompressor(16).compress(frame, pool);
+        assertNotNull(compressed);
+
+        FrameReader reader = new FrameReader(pool, BufferPool.MIN_BUFFER_SIZE);
+        reader.readFrom(channel(bytes(compressed)));
+        assertArrayEquals(body, reader.nextFrame());
+        reader.close();
+    }
+
+    @Test
+    void shortOrIncompressibleBodyIsNotCompressed() {
+        FrameCompressor compressor = new FrameCompressor(1024);
+        assertNull(compressor.compress(new byte[100], 0, 100));
+
+        byte[] random = new byte[4096];
+        new Random(1).nextBytes(random);
+        assertNull(compressor.compress(random, 0, random.length));
+    }
+
+    @Test
+    void assemblesFramesDeliveredByteByByte() throws Exception {
+        byte[] first = text(3000);
+        byte[] second = "короткий".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(rawFrame(first));
+        stream.write(bytes(new FrameCompressor(16).compress(first, 0, first.length)));
+        stream.write(rawFrame(second));
+        byte[] data = stream.toByteArray();
+
+        FrameReader reader = new FrameReader(16);
+        List<byte[]> frames = new ArrayList<>();
+        for (byte b : data) {
+            reader.readFrom(channel(new byte[]{b}));
+            for (byte[] frame = reader.nextFrame(); frame != null; frame = reader.nextFrame()) frames.add(frame);
+        }
+        assertEquals(3, frames.size());
+        assertArrayEquals(first, frames.get(0));
+        assertArrayEquals(first, frames.get(1));
+        assertArrayEquals(second, frames.get(2));
+    }
+
+    @Test
+    void rejectsCompressedFrameWhenNotAllowed() throws Exception {
+        byte[] body = text(10_000);
+        FrameReader reader = new FrameReader(64);
+        reader.setCompressionAllowed(false);
+        reader.readFrom(channel(bytes(new FrameCompressor(16).compress(body, 0, body.length))));
+        assertThrows(IOException.class, reader::nextFrame);
+    }
+
+    @Test
+    void rejectsCompressedFrameAboveInflatedLimit() throws Exception {
+        byte[] body = text(10_000);
+        FrameReader reader = new FrameReader(64);
+        reader.setMaxInflatedSize(body.length - 1);
+        reader.readFrom(channel(bytes(new FrameCompressor(16).compress(body, 0, body.length))));
+        assertThrows(IOException.class, reader::nextFrame);
+    }
+
+    @Test
+    void rejectsCorruptedCompressedFrame() throws Exception {
+        byte[] body = text(10_000);
+        byte[] frame = bytes(new FrameCompressor(16).compress(body, 0, body.length));
+        // исходная длина больше, чем распакуется на самом деле
+        ByteBuffer.wrap(frame).putInt(FrameCodec.HEADER_SIZE, body.length + 1);
+        FrameReader reader = new FrameReader(64);
+        reader.readFrom(channel(frame));
+        assertThrows(IOException.class, reader::nextFrame);
+    }
+
+    @Test
+    void rejectsOversizedLength() throws Exception {
+        FrameReader reader = new FrameReader(64);
+        reader.readFrom(channel(ByteBuffer.allocate(FrameCodec.HEADER_SIZE).putInt(FrameCodec.MAX_FRAME_SIZE + 1).array()));
+        assertThrows(IOException.class, reader::nextFrame);
+    }
+
+    @Test
+    void rejectsFrameAboveConfiguredLimitBeforeBuffering() throws Exception {
+        FrameReader reader = new FrameReader(64);
+        reader.setMaxFrameSize(1000);
+        byte[] frame = rawFrame(text(1001));
+        // заголовок отклоняется при первом заполнении буфера, тело не накапливается
+        assertThrows(IOException.class, () -> reader.readFrom(channel(frame)));
+    }
+
+    @Test
+    void bufferGrowsWithReceivedBytesNotWithHeader() throws Exception {
+        FrameReader reader = new FrameReader(64);
+        byte[] frame = rawFrame(text(1_000_000));
+        // заголовок обещает мегабайт, но пришло только 100 байт
+        reader.readFrom(channel(Arrays.copyOf(frame, 100)));
+        assertNull(reader.nextFrame());
+        assertTrue(reader.capacity() <= 256, "емкость " + reader.capacity());
+
+        reader.readFrom(channel(Arrays.copyOfRange(frame, 100, frame.length)));
+        assertArrayEquals(Arrays.copyOfRange(frame, FrameCodec.HEADER_SIZE, frame.length), reader.nextFrame());
+        // рост удвоением ограничен размером кадра
+        assertEquals(frame.length, reader.capacity());
+    }
+
+    private static byte[] text(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; builder.length() < length; i++) builder.append("ticket ").append(i % 100).append(';');
+        return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] rawFrame(byte[] body) {
+        return ByteBuffer.allocate(FrameCodec.HEADER_SIZE + body.length).putInt(body.length).put(body).array();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static ReadableByteChannel channel(byte[] data) {
+        return Channels.newChannel(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.common.utils;
+
+import org.example.common.entity.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketParserTest {
+    @Test
+    void parsesAllFields() {
+        Ticket ticket = TicketParser.parse(fields("42.5", "yes", "france"));
+        assertEquals("concert", ticket.getName());
+        assertEquals(42.5f, ticket.getDiscount().floatValue());
+        assertTrue(ticket.isRefundable());
+        assertEquals(180L, ticket.getPerson().getHeight());
+
+        Ticket withoutEnums = TicketParser.parse(fields("1", "off", ""));
+        assertFalse(withoutEnums.isRefundable());
+        assertNull(withoutEnums.getPerson().getNationality());
+    }
+
+    @Test
+    void discountBoundsMatchValidation() {
+        Ticket full = TicketParser.parse(fields("100", "no", ""));
+        full.setId(1);
+        assertTrue(full.validate());
+
+        assertThrows(IllegalArgumentException.class, () -> TicketParser.parse(fields("0", "no", "")));
+        assertThrows(IllegalArgumentException.class, () -> TicketParser.parse(fields("100.5", "no", "")));
+    }
+
+    @Test
+    void rejectsUnknownBooleanWord() {
+        assertThrows(IllegalArgumentException.class, () -> TicketParser.parse(fields("10", "maybe", "")));
+    }
+
+    private static List<String> fields(String discount, String refundable, String country) {
+        return List.of("concert", "1.5", "10", "500", discount, "vip", refundable, "180", country);
+    }
+}
@@ -4,6 +4,8 @@ import org.example.server.cli.ConsoleOutput;
 import org.example.server.command.Command;
 import org.example.server.command.commands.*;
 import org.example.server.managers.*;
+import org.example.server.metrics.MetricsRegistry;
+import org.example.server.utils.ServerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,9 +16,11 @@ import java.util.Arrays;
 public class Main {
     static int port;
     static CollectionManager collectionManager = new CollectionManager();
-    static CommandManager commandManager = new CommandManager();
+    static MetricsRegistry metricsRegistry = new MetricsRegistry();
+    static CommandManager commandManager = new CommandManager(metricsRegistry);
     static RequestCommandHandler requestCommandHandler = new RequestCommandHandler(commandManager);
     static ConsoleOutput consoleOutput = new ConsoleOutput();
+    static ChangeFeed changeFeed = new ChangeFeed(ServerConfig.SUBSCRIBER_QUEUE_BYTES);
 
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
@@ -35,20 +39,33 @@ public class Main {
                 new AddCommand(collectionManager),
                 new ShowCommand(),
                 new InfoCommand(collectionManager),
+                new AggregateCommand(),
+                new QueryCommand(collectionManager),
                 new ClearCommand(collectionManager),
                 new UpdateCommand(collectionManager),
                 new RemoveByIdCommand(collectionManager),
                 new HeadCommand(collectionManager),
+                new TailCommand(collectionManager),
                 new RemoveHeadCommand(collectionManager),
                 new FilterStartsWithNameCommand(collectionManager),
                 new PrintUniqueDiscountCommand(),
                 new PrintFieldDescendingPersonCommand(),
-                new ExecuteScriptCommand()
+                new ExecuteScriptCommand(commandManager),
+                new StatsCommand(metricsRegistry),
+                new DescribeCommandsCommand(commandManager),
+                new ImportCommand(collectionManager),
+                new PingCommand(),
+                new SyncCommand(),
+                new SubscribeCommand(changeFeed),
+                new UnsubscribeCommand(changeFeed),
+                new HandshakeCommand()
         )
         );
         commandManager.addCommands(commands);
 
-        Server server = new Server(port, requestCommandHandler, consoleOutput);
+        CollectionManager.addChangeListener(changeFeed);
+        Server server = new Server(port, requestCommandHandler, consoleOutput, metricsRegistry, changeFeed);
+        commandManager.addCommand(new ShutdownCommand(server));
         RuntimeManager runtimeManager = new RuntimeManager(consoleOutput, server, fileManager);
 
         try {
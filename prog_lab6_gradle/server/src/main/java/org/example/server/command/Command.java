@@ -1,15 +1,69 @@
 package org.example.server.command;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.example.common.dtp.CommandDescriptor;
+import org.example.common.dtp.RequestCommand;
 
 import java.util.Objects;
 
-@AllArgsConstructor
 @Getter
 public abstract class Command implements CommandInterface {
-    private String name;
-    private String description;
+    private final String name;
+    private final String description;
+
+    /**
+     * Допустимое число аргументов команды
+     */
+    private final int minArgs;
+    private final int maxArgs;
+
+    /**
+     * Нужно ли команде передавать объект коллекции
+     */
+    private final boolean objectRequired;
+
+    public Command(String name, String description) {
+        this(name, description, 0, 0, false);
+    }
+
+    public Command(String name, String description, int minArgs, int maxArgs, boolean objectRequired) {
+        this.name = name;
+        this.description = description;
+        this.minArgs = minArgs;
+        this.maxArgs = maxArgs;
+        this.objectRequired = objectRequired;
+    }
+
+    /**
+     * @return описание команды для клиента
+     */
+    public CommandDescriptor getDescriptor() {
+        return new CommandDescriptor(name, description, minArgs, maxArgs, objectRequired, isReadOnly());
+    }
+
+    /**
+     * @return класс нагрузки команды; по умолчанию команда считается дешевым чтением
+     */
+    public CommandClass getCommandClass() {
+        return CommandClass.CHEAP_READ;
+    }
+
+    /**
+     * Класс нагрузки конкретного запроса, если он зависит от аргументов
+     * @param requestCommand запрос
+     * @return класс нагрузки; по умолчанию - класс команды
+     */
+    public CommandClass getCommandClass(RequestCommand requestCommand) {
+        return getCommandClass();
+    }
+
+    /**
+     * @return не меняет ли команда коллекцию при любых аргументах; по умолчанию - если она не относится к записи.
+     * Клиент повторяет такие команды после обрыва соединения
+     */
+    public boolean isReadOnly() {
+        return getCommandClass() != CommandClass.WRITE;
+    }
 
     @Override
     public int hashCode() {
@@ -0,0 +1,22 @@
+package org.example.server.command;
+
+/**
+ * Класс нагрузки команды для контроля перегрузки сервера.
+ * При перегрузке первыми отклоняются тяжелые чтения, дешевые чтения и изменения коллекции принимаются всегда
+ */
+public enum CommandClass {
+    /**
+     * Чтение за малое и почти постоянное время (info, head, help)
+     */
+    CHEAP_READ,
+
+    /**
+     * Чтение, время и объем ответа которого растут с размером коллекции (show, фильтры, снимки)
+     */
+    HEAVY_READ,
+
+    /**
+     * Изменение коллекции
+     */
+    WRITE
+}
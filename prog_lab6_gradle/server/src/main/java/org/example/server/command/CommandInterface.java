@@ -2,6 +2,7 @@ package org.example.server.command;
 
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
+import org.example.server.managers.ClientSession;
 
 /**
  * Базовый интерфейс для всех команд
@@ -13,4 +14,14 @@ public interface CommandInterface {
      * @param requestCommand сериализованный формат, содержащий название команды, аргументы и объект коллекции
      */
     Response execute(RequestCommand requestCommand);
+
+    /**
+     * Метод для запуска команды от имени конкретного клиента.
+     * Переопределяется командами, которым нужно состояние подключения
+     * @param requestCommand сериализованный формат, содержащий название команды, аргументы и объект коллекции
+     * @param session сессия клиента, приславшего запрос (может быть null)
+     */
+    default Response execute(RequestCommand requestCommand, ClientSession session) {
+        return execute(requestCommand);
+    }
 }
@@ -6,16 +6,22 @@ import org.example.common.dtp.ResponseStatus;
 import org.example.common.entity.Ticket;
 import org.example.common.exceptions.ValidationError;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
 
 public class AddCommand extends Command {
     private final CollectionManager collectionManager;
 
     public AddCommand(CollectionManager collectionManager) {
-        super("add", "add {element} - добавить новый элемент в коллекцию");
+        super("add", "add {element} - добавить новый элемент в коллекцию", 0, 0, true);
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
 
     @Override
     public Response execute(RequestCommand requestCommand) {
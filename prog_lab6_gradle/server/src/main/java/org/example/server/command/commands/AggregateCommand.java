@@ -0,0 +1,53 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.managers.CollectionManager;
+import org.example.server.managers.TicketAggregates;
+
+import java.util.Map;
+
+public class AggregateCommand extends Command {
+    public AggregateCommand() {
+        super("aggregate", "aggregate - количество, сумма, минимум, максимум и среднее цены и скидки по типу билета и возвратности");
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs() != null) {
+            if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+        }
+        TicketAggregates aggregates = CollectionManager.getAggregates();
+        if (aggregates.getGroups().isEmpty()) return new Response(ResponseStatus.OK, "Коллекция пуста");
+
+        StringBuilder res = new StringBuilder("Агрегаты по типу билета и возвратности:\n");
+        res.append(String.format(": %-10s | %-6s | %8s | %-6s | %14s | %10s | %10s | %10s\n",
+                "тип", "возвр.", "кол-во", "поле", "сумма", "мин", "макс", "среднее"));
+        for (Map.Entry<TicketAggregates.GroupKey, TicketAggregates.GroupStats> entry : aggregates.getGroups().entrySet()) {
+            TicketAggregates.GroupKey key = entry.getKey();
+            appendGroup(res, key.type() == null ? "-" : key.type().toString(), key.refundable() ? "да" : "нет", entry.getValue());
+        }
+        appendGroup(res, "всего", "", aggregates.getTotal());
+        return new Response(ResponseStatus.OK, res.toString());
+    }
+
+    private static void appendGroup(StringBuilder res, String type, String refundable, TicketAggregates.GroupStats stats) {
+        appendField(res, type, refundable, "цена", stats.getPrice());
+        appendField(res, "", "", "скидка", stats.getDiscount());
+    }
+
+    private static void appendField(StringBuilder res, String type, String refundable, String field, TicketAggregates.FieldStats stats) {
+        res.append(String.format(": %-10s | %-6s | %8s | %-6s | %14.2f | %10.2f | %10.2f | %10.2f\n",
+                type,
+                refundable,
+                type.isEmpty() ? "" : String.valueOf(stats.getCount()),
+                field,
+                stats.getSum(),
+                stats.getMin(),
+                stats.getMax(),
+                stats.getMean()
+        ));
+    }
+}
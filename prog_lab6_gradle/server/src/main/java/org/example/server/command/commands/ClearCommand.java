@@ -4,6 +4,7 @@ import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
 
 /**
@@ -17,6 +18,11 @@ public class ClearCommand extends Command {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
 
     @Override
     public Response execute(RequestCommand requestCommand) {
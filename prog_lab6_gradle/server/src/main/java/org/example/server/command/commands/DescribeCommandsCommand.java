@@ -0,0 +1,32 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.CommandDescriptor;
+import org.example.common.dtp.DescribeCommandsResponse;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.server.command.Command;
+import org.example.server.managers.CommandManager;
+
+import java.util.Comparator;
+
+public class DescribeCommandsCommand extends Command {
+    private final CommandManager commandManager;
+
+    public DescribeCommandsCommand(CommandManager commandManager) {
+        super("describe_commands", "описание команд для клиента: число аргументов и нужен ли объект");
+        this.commandManager = commandManager;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs() != null) {
+            if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+        }
+        return new DescribeCommandsResponse(
+                commandManager.getCommands().values().stream()
+                        .map(Command::getDescriptor)
+                        .sorted(Comparator.comparing(CommandDescriptor::getName))
+                        .toList()
+        );
+    }
+}
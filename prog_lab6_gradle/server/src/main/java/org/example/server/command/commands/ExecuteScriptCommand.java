@@ -3,17 +3,66 @@ package org.example.server.command.commands;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
+import org.example.common.dtp.ScriptRequestCommand;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.ClientSession;
+import org.example.server.managers.CommandManager;
+import org.example.server.managers.ScriptExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 
 public class ExecuteScriptCommand extends Command {
-    public ExecuteScriptCommand() {
-        super("execute_script", "считать и исполнить скрипт из указанного файла. В скрипте содержатся команды в таком же виде, в котором их вводит пользователь в интерактивном режиме.");
+    private final CommandManager commandManager;
+
+    public ExecuteScriptCommand(CommandManager commandManager) {
+        super("execute_script", "считать и исполнить скрипт из указанного файла. В скрипте содержатся команды в таком же виде, в котором их вводит пользователь в интерактивном режиме.", 1, 1, false);
+        this.commandManager = commandManager;
     }
 
     @Override
     public Response execute(RequestCommand requestCommand) {
-        if (requestCommand.getArgs().size() != 1) throw new IllegalArgumentException();
+        return execute(requestCommand, null);
+    }
+
+    /**
+     * Присланный скрипт классифицируется как пакет: не дешевле тяжелого чтения,
+     * а если в нем есть изменяющие команды - как запись
+     */
+    @Override
+    public CommandClass getCommandClass(RequestCommand requestCommand) {
+        if (!(requestCommand instanceof ScriptRequestCommand scriptRequestCommand)) return CommandClass.CHEAP_READ;
+        for (String content : scriptRequestCommand.getScripts().values()) {
+            for (String line : content.lines().toList()) {
+                String[] queryParts = line.trim().split(" ");
+                if (queryParts[0].isEmpty() || queryParts[0].equals(ScriptRequestCommand.COMMAND_NAME)) continue;
+                RequestCommand command = new RequestCommand(queryParts[0], new ArrayList<>(Arrays.asList(Arrays.copyOfRange(queryParts, 1, queryParts.length))));
+                if (commandManager.classify(command) == CommandClass.WRITE) return CommandClass.WRITE;
+            }
+        }
+        return CommandClass.HEAVY_READ;
+    }
+
+    /**
+     * Присланный скрипт может содержать изменяющие команды, поэтому клиент не повторяет его после обрыва соединения
+     */
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Если клиент прислал содержимое скрипта, скрипт выполняется на сервере за один запрос.
+     * Иначе имя файла возвращается клиенту, и он выполняет скрипт построчно
+     */
+    @Override
+    public Response execute(RequestCommand requestCommand, ClientSession session) {
+        if (requestCommand.getArgs() == null || requestCommand.getArgs().size() != 1) throw new IllegalArgumentException();
 
+        if (requestCommand instanceof ScriptRequestCommand scriptRequestCommand) {
+            return new ScriptExecutor(commandManager, scriptRequestCommand, session).execute();
+        }
         return new Response(ResponseStatus.EXECUTE_SCRIPT, requestCommand.getArgs().get(0));
     }
 }
@@ -5,29 +5,38 @@ import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.common.entity.Ticket;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
+import org.example.server.query.ParallelScan;
 
 import java.util.Comparator;
 import java.util.PriorityQueue;
-import java.util.stream.Collectors;
 
 public class FilterStartsWithNameCommand extends Command {
     private final CollectionManager collectionManager;
 
     public FilterStartsWithNameCommand(CollectionManager collectionManager) {
-        super("filter_starts_with_name", "вывести элементы, значение поля name которых начинается с заданной подстроки");
+        super("filter_starts_with_name", "вывести элементы, значение поля name которых начинается с заданной подстроки", 1, 1, false);
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
 
     @Override
     public Response execute(RequestCommand requestCommand) {
         if (requestCommand.getArgs().size() != 1) throw new IllegalArgumentException();
 
-        PriorityQueue<Ticket> collection = CollectionManager.getCollection().stream()
-                .filter(ticket -> ticket.getName().startsWith(requestCommand.getArgs().get(0)))
-                .sorted(Comparator.comparing(Ticket::getCoordinates))
-                .collect(Collectors.toCollection(PriorityQueue::new));
+        String prefix = requestCommand.getArgs().get(0);
+        // отсортированный список уже является кучей, поэтому очередь сохраняет порядок
+        PriorityQueue<Ticket> collection = new PriorityQueue<>(ParallelScan.DEFAULT.filterSorted(
+                CollectionManager.getCollection(),
+                ticket -> ticket.getName().startsWith(prefix),
+                Comparator.comparing(Ticket::getCoordinates)
+        ));
 
         if (collection.isEmpty()) {
             return new Response(ResponseStatus.OK, "Не найдено билетов, название которых начинается на \"" + requestCommand.getArgs().get(0) + "\"");
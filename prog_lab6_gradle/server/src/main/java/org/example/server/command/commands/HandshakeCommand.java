@@ -0,0 +1,32 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.FrameCompressor;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.managers.ClientSession;
+import org.example.server.utils.ServerConfig;
+
+public class HandshakeCommand extends Command {
+    public HandshakeCommand() {
+        super("handshake", "handshake <кодек...> - согласовать сжатие ответов; в ответе выбранный кодек или none", 0, 8, false);
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        return new Response(ResponseStatus.OK, "none");
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand, ClientSession session) {
+        if (session == null || !ServerConfig.COMPRESSION_ENABLED
+                || requestCommand.getArgs() == null || !requestCommand.getArgs().contains(FrameCompressor.CODEC)) {
+            return execute(requestCommand);
+        }
+        if (session.getCompressor() == null) {
+            session.setCompressor(new FrameCompressor(ServerConfig.COMPRESSION_THRESHOLD));
+        }
+        return new Response(ResponseStatus.OK, FrameCompressor.CODEC);
+    }
+}
@@ -3,25 +3,89 @@ package org.example.server.command.commands;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
+import org.example.common.entity.Ticket;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
+import org.example.server.query.Condition;
+import org.example.server.query.Query;
+import org.example.server.query.QueryParser;
+import org.example.server.query.QueryPlanner;
+import org.example.server.utils.ServerConfig;
+
+import java.util.Collections;
+import java.util.List;
 
 public class HeadCommand extends Command {
     private final CollectionManager collectionManager;
 
     public HeadCommand(CollectionManager collectionManager) {
-        super("head", "выводит первый элемент коллекции");
+        super("head", "head [N] [условие] - выводит первый элемент коллекции или первые N элементов в порядке приоритета, " +
+                "подходящих под условие (условие - как в query, например: head 10 price > 100 and type = vip)", 0, Integer.MAX_VALUE, false);
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass(RequestCommand requestCommand) {
+        return classifyTop(requestCommand.getArgs());
+    }
+
     @Override
     public Response execute(RequestCommand requestCommand) {
-        if (requestCommand.getArgs() != null) {
-            if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+        if (requestCommand.getArgs() == null || requestCommand.getArgs().isEmpty()) {
+            if (CollectionManager.getCollection().isEmpty()) {
+                return new Response(ResponseStatus.OK, "Коллекция пуста");
+            }
+            return new Response(ResponseStatus.OK, CollectionManager.getCollection().peek().toString());
         }
-        if (CollectionManager.getCollection().isEmpty()) {
-            return new Response(ResponseStatus.OK, "Коллекция пуста");
+        return selectTop(requestCommand.getArgs(), false, collectionManager);
+    }
+
+    /**
+     * Класс нагрузки head и tail. Без условия читаются только N элементов индекса приоритета, и запрос дешевый,
+     * пока N не больше {@link ServerConfig#HEAD_CHEAP_MAX}; с условием может понадобиться полный просмотр коллекции
+     * @param args аргументы запроса
+     * @return класс нагрузки
+     */
+    static CommandClass classifyTop(List<String> args) {
+        if (args == null || args.isEmpty()) return CommandClass.CHEAP_READ;
+        if (args.size() > 1) return CommandClass.HEAVY_READ;
+        try {
+            return Integer.parseInt(args.get(0)) <= ServerConfig.HEAD_CHEAP_MAX ? CommandClass.CHEAP_READ : CommandClass.HEAVY_READ;
+        } catch (NumberFormatException numberFormatException) {
+            // такой запрос завершится ошибкой аргументов сразу
+            return CommandClass.CHEAP_READ;
+        }
+    }
+
+    /**
+     * Первые или последние N билетов в порядке приоритета. Планировщик выбирает между обходом индекса приоритета
+     * (останавливается на N-м подходящем билете) и отбором N билетов кучей из кандидатов индекса по условию
+     * @param args N и необязательное условие
+     * @param fromEnd с конца (tail)
+     * @param collectionManager менеджер коллекции
+     * @return ответ с билетами в порядке приоритета
+     */
+    static Response selectTop(List<String> args, boolean fromEnd, CollectionManager collectionManager) {
+        int count;
+        try {
+            count = Integer.parseInt(args.get(0));
+        } catch (NumberFormatException numberFormatException) {
+            throw new IllegalArgumentException("Число элементов должно быть целым числом");
+        }
+        if (count <= 0) throw new IllegalArgumentException("Число элементов должно быть положительным");
+
+        Condition condition = args.size() > 1 ? QueryParser.parseCondition(String.join(" ", args.subList(1, args.size()))) : null;
+        Query query = new Query(false, List.of(), condition, condition != null ? condition.compile() : ticket -> true, null, fromEnd, count);
+        List<Ticket> rows = new QueryPlanner(CollectionManager.getCollection(), collectionManager::getElementById, CollectionManager.getIndexes())
+                .plan(query)
+                .execute();
+        if (rows.isEmpty()) {
+            return new Response(ResponseStatus.OK, condition == null ? "Коллекция пуста" : "Не найдено билетов по условию " + condition);
         }
-        return new Response(ResponseStatus.OK, CollectionManager.getCollection().peek().toString());
+        // с конца билеты отбираются в обратном порядке, а выводятся в порядке приоритета
+        if (fromEnd) Collections.reverse(rows);
+        return new Response(ResponseStatus.OK, (fromEnd ? "Последние " : "Первые ") + rows.size() + " билетов в порядке приоритета"
+                + (condition == null ? "" : " по условию " + condition), rows);
     }
 }
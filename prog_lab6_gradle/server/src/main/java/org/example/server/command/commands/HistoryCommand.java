@@ -4,24 +4,33 @@ import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.server.command.Command;
+import org.example.server.managers.ClientSession;
 import org.example.server.managers.CommandManager;
+import org.example.server.utils.RingBuffer;
+import org.example.server.utils.ServerConfig;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class HistoryCommand extends Command {
     private final CommandManager commandManager;
 
     public HistoryCommand(CommandManager commandManager) {
-        super("history", "Выводит названия пяти последних выполненных команд");
+        super("history", "Выводит названия " + ServerConfig.SESSION_HISTORY_SIZE + " последних выполненных команд");
         this.commandManager = commandManager;
     }
+
     @Override
     public Response execute(RequestCommand requestCommand) {
+        return execute(requestCommand, null);
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand, ClientSession session) {
         if (requestCommand.getArgs() != null) {
             if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
         }
-        ArrayList<Command> history = commandManager.getHistory();
-        if (history.size() > 5) history = new ArrayList<>(history.subList(history.size() - 5, history.size()));
+        RingBuffer<Command> historyBuffer = session != null ? session.getHistory() : commandManager.getHistory();
+        List<Command> history = historyBuffer.last(ServerConfig.SESSION_HISTORY_SIZE);
         if (history.isEmpty()) {
             return new Response(ResponseStatus.OK, "Похоже, это ваша первая команда за сессию");
         }
@@ -0,0 +1,37 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.ImportChunkRequestCommand;
+import org.example.common.dtp.ImportChunkResponse;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.CollectionManager;
+
+public class ImportCommand extends Command {
+    private final CollectionManager collectionManager;
+
+    public ImportCommand(CollectionManager collectionManager) {
+        super("import", "import <файл.jsonl|файл.csv> - массово добавить элементы из файла клиента", 1, 1, false);
+        this.collectionManager = collectionManager;
+    }
+
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
+    /**
+     * Добавляет очередную порцию импортируемых элементов. Файл читает клиент и присылает его порциями
+     */
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (!(requestCommand instanceof ImportChunkRequestCommand importChunkRequestCommand)) {
+            return new Response(ResponseStatus.COMMAND_ERROR, "Файл для импорта читается клиентом: обновите клиент");
+        }
+        int total = importChunkRequestCommand.getTickets().size();
+        int accepted = collectionManager.addElements(importChunkRequestCommand.getTickets());
+        return new ImportChunkResponse(accepted, total - accepted);
+    }
+}
@@ -5,6 +5,7 @@ import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.server.command.Command;
 import org.example.server.managers.CollectionManager;
+import org.example.server.managers.TicketAggregates;
 
 import java.text.SimpleDateFormat;
 
@@ -24,6 +25,7 @@ public class InfoCommand extends Command {
         if (requestCommand.getArgs() != null) {
             if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
         }
+        TicketAggregates.GroupStats total = CollectionManager.getAggregates().getTotal();
         StringBuilder res = new StringBuilder("Информация о коллекции:\n");
         res.append(String.format(
                 ": тип                  | %s\n" +
@@ -33,6 +35,22 @@ public class InfoCommand extends Command {
                 collectionManager.getCollectionSize(),
                 dateFormat.format(collectionManager.getInitDate())
         ));
+        if (total.getPrice().getCount() > 0) {
+            res.append(String.format("\n" +
+                    ": цена: сумма          | %.2f\n" +
+                    ": цена: мин / макс     | %.2f / %.2f\n" +
+                    ": цена: среднее        | %.2f\n" +
+                    ": скидка: сумма        | %.2f\n" +
+                    ": скидка: мин / макс   | %.2f / %.2f\n" +
+                    ": скидка: среднее      | %.2f",
+                    total.getPrice().getSum(),
+                    total.getPrice().getMin(), total.getPrice().getMax(),
+                    total.getPrice().getMean(),
+                    total.getDiscount().getSum(),
+                    total.getDiscount().getMin(), total.getDiscount().getMax(),
+                    total.getDiscount().getMean()
+            ));
+        }
         return new Response(ResponseStatus.OK, res.toString());
     }
 }
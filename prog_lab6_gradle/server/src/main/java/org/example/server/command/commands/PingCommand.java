@@ -0,0 +1,20 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+
+public class PingCommand extends Command {
+    public PingCommand() {
+        super("ping", "проверка доступности сервера");
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs() != null) {
+            if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+        }
+        return new Response(ResponseStatus.OK, "pong");
+    }
+}
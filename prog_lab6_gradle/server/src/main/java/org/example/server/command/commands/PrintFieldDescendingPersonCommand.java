@@ -5,15 +5,22 @@ import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.common.entity.Ticket;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
+import org.example.server.query.ParallelScan;
 
-import java.util.PriorityQueue;
+import java.util.Comparator;
 
 public class PrintFieldDescendingPersonCommand extends Command {
     public PrintFieldDescendingPersonCommand() {
         super("print_field_descending_person", "вывести значения поля person всех элементов в порядке убывания");
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
     @Override
     public Response execute(RequestCommand requestCommand) {
         if (requestCommand.getArgs() != null) {
@@ -23,9 +30,8 @@ public class PrintFieldDescendingPersonCommand extends Command {
             return new Response(ResponseStatus.OK, "Коллекция пуста");
         }
         StringBuilder res = new StringBuilder("Поля person элементов коллекции в порядке убывания приоритета:\n");
-        PriorityQueue<Ticket> collectionCopy = new PriorityQueue<>(CollectionManager.getCollection());
-        while (!collectionCopy.isEmpty()) {
-            res.append(collectionCopy.poll().getPerson().toString()).append("\n");
+        for (Ticket ticket : ParallelScan.DEFAULT.sorted(CollectionManager.getCollection(), Comparator.naturalOrder())) {
+            res.append(ticket.getPerson().toString()).append("\n");
         }
         return new Response(ResponseStatus.OK, res.toString());
     }
@@ -5,25 +5,28 @@ import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.common.entity.Ticket;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
+import org.example.server.query.ParallelScan;
 
-import java.util.List;
+import java.util.Set;
 
 public class PrintUniqueDiscountCommand extends Command {
     public PrintUniqueDiscountCommand() {
         super("print_unique_discount", "вывести уникальные значения поля discount всех элементов в коллекции");
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
     @Override
     public Response execute(RequestCommand requestCommand) {
         if (requestCommand.getArgs() != null) {
             if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
         }
-        List<Float> uniqueDiscounts = CollectionManager.getCollection()
-                .stream()
-                .map(Ticket::getDiscount)
-                .distinct()
-                .toList();
+        Set<Float> uniqueDiscounts = ParallelScan.DEFAULT.distinct(CollectionManager.getCollection(), Ticket::getDiscount);
         if (uniqueDiscounts.isEmpty()) {
             return new Response(ResponseStatus.OK, "Коллекция пуста");
         }
@@ -0,0 +1,95 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.common.entity.Ticket;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.CollectionManager;
+import org.example.server.query.Query;
+import org.example.server.query.QueryParser;
+import org.example.server.query.QueryPlan;
+import org.example.server.query.QueryPlanner;
+import org.example.server.query.TicketField;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class QueryCommand extends Command {
+    /**
+     * Сколько последних разобранных запросов хранится, чтобы повторный запрос не разбирался заново
+     */
+    private static final int PARSED_CACHE_SIZE = 64;
+
+    private final CollectionManager collectionManager;
+
+    private final Map<String, Query> parsedQueries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+            return size() > PARSED_CACHE_SIZE;
+        }
+    };
+
+    public QueryCommand(CollectionManager collectionManager) {
+        super("query", "query [explain] [select поля] [where условие] [order by поле [asc|desc]] [limit N] - выборка билетов; " +
+                "условие: сравнения полей (=, !=, <, <=, >, >=, startswith) с and, or, not и скобками, строки в кавычках; " +
+                "explain показывает план вместо выполнения", 1, Integer.MAX_VALUE, false);
+        this.collectionManager = collectionManager;
+    }
+
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs() == null || requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+
+        String text = String.join(" ", requestCommand.getArgs()).trim();
+        Query query = parsedQueries.get(text);
+        if (query == null) {
+            query = QueryParser.parse(text);
+            parsedQueries.put(text, query);
+        }
+
+        QueryPlan plan = new QueryPlanner(CollectionManager.getCollection(), collectionManager::getElementById, CollectionManager.getIndexes()).plan(query);
+        if (query.explain()) {
+            return new Response(ResponseStatus.OK, "План запроса:\n" + String.join("\n", plan.describe()));
+        }
+
+        List<Ticket> rows = plan.execute();
+        if (rows.isEmpty()) return new Response(ResponseStatus.OK, "Не найдено билетов по запросу");
+        if (query.projection().isEmpty()) {
+            return new Response(ResponseStatus.OK, "Найдено " + rows.size() + " билетов по запросу", rows);
+        }
+        return new Response(ResponseStatus.OK, formatTable(query.projection(), rows));
+    }
+
+    private static String formatTable(List<TicketField> projection, List<Ticket> rows) {
+        String[][] cells = new String[rows.size()][projection.size()];
+        int[] widths = new int[projection.size()];
+        for (int column = 0; column < projection.size(); column++) {
+            widths[column] = projection.get(column).getQueryName().length();
+            for (int row = 0; row < rows.size(); row++) {
+                cells[row][column] = projection.get(column).format(rows.get(row));
+                widths[column] = Math.max(widths[column], cells[row][column].length());
+            }
+        }
+        StringBuilder res = new StringBuilder("Найдено " + rows.size() + " билетов по запросу:\n");
+        appendRow(res, widths, projection.stream().map(TicketField::getQueryName).toArray(String[]::new));
+        for (String[] row : cells) appendRow(res, widths, row);
+        return res.toString();
+    }
+
+    private static void appendRow(StringBuilder res, int[] widths, String[] row) {
+        res.append(":");
+        for (int column = 0; column < row.length; column++) {
+            res.append(column == 0 ? " " : " | ");
+            res.append(column == row.length - 1 ? row[column] : String.format("%-" + widths[column] + "s", row[column]));
+        }
+        res.append("\n");
+    }
+}
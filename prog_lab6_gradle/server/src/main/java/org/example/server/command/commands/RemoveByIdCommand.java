@@ -4,16 +4,22 @@ import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
 
 public class RemoveByIdCommand extends Command {
     private final CollectionManager collectionManager;
 
     public RemoveByIdCommand(CollectionManager collectionManager) {
-        super("remove_by_id", "удаляет элемент из коллекции по его id");
+        super("remove_by_id", "удаляет элемент из коллекции по его id", 1, 1, false);
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
     @Override
     public Response execute(RequestCommand requestCommand) {
         if (requestCommand.getArgs().size() != 1) throw new IllegalArgumentException();
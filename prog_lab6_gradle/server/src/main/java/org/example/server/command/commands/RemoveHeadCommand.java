@@ -4,6 +4,7 @@ import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
 
 public class RemoveHeadCommand extends Command {
@@ -14,6 +15,11 @@ public class RemoveHeadCommand extends Command {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
 
     @Override
     public Response execute(RequestCommand requestCommand) {
@@ -26,7 +32,7 @@ public class RemoveHeadCommand extends Command {
 
         return new Response(
                 ResponseStatus.OK,
-                "Эта запись была удалена:\n" + CollectionManager.getCollection().poll()
+                "Эта запись была удалена:\n" + collectionManager.removeHead()
         );
     }
 }
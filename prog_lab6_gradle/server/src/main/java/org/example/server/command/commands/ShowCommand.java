@@ -5,6 +5,7 @@ import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.common.entity.Ticket;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
 
 import java.util.PriorityQueue;
@@ -14,6 +15,11 @@ public class ShowCommand extends Command {
         super("show", "выводит в стандартный поток вывода все элементы коллекции в строковом представлении");
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
 
     @Override
     public Response execute(RequestCommand requestCommand) {
@@ -0,0 +1,51 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.ClientSession;
+import org.example.server.managers.Server;
+import org.example.server.utils.ServerConfig;
+
+/**
+ * Плавная остановка сервера по запросу администратора (например, при поэтапном перезапуске).
+ * Доступна только клиентам с локального адреса
+ */
+public class ShutdownCommand extends Command {
+    private final Server server;
+
+    public ShutdownCommand(Server server) {
+        super("shutdown", "shutdown [секунды] - остановить сервер: дождаться выполнения принятых запросов, сохранить коллекцию (только с локального адреса)", 0, 1, false);
+        this.server = server;
+    }
+
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        return new Response(ResponseStatus.COMMAND_ERROR, "Остановка сервера доступна только по сети");
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand, ClientSession session) {
+        if (session == null) return execute(requestCommand);
+        if (!session.isLoopback()) return new Response(ResponseStatus.COMMAND_ERROR, "Остановить сервер можно только с локального адреса");
+
+        long timeoutMs = ServerConfig.SHUTDOWN_TIMEOUT_MS;
+        if (requestCommand.getArgs() != null && requestCommand.getArgs().size() == 1) {
+            try {
+                timeoutMs = Long.parseLong(requestCommand.getArgs().get(0)) * 1000;
+            } catch (NumberFormatException numberFormatException) {
+                throw new IllegalArgumentException("Время ожидания должно быть целым числом секунд");
+            }
+            if (timeoutMs < 0) throw new IllegalArgumentException("Время ожидания не может быть отрицательным");
+        }
+        server.shutdown(timeoutMs);
+        return new Response(ResponseStatus.OK, "Сервер останавливается: принятые запросы будут выполнены (не дольше " + timeoutMs / 1000 + " с), коллекция сохранена");
+    }
+}
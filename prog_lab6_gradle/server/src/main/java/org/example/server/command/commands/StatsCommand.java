@@ -0,0 +1,83 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.metrics.CommandStats;
+import org.example.server.metrics.MetricsRegistry;
+
+import java.util.Map;
+
+public class StatsCommand extends Command {
+    private final MetricsRegistry metricsRegistry;
+
+    public StatsCommand(MetricsRegistry metricsRegistry) {
+        super("stats", "stats [команда] - статистика выполнения команд: вызовы, ошибки, просроченные запросы, трафик, задержки p50/p99/p999", 0, 1, false);
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs() != null && requestCommand.getArgs().size() > 1) throw new IllegalArgumentException();
+
+        if (requestCommand.getArgs() != null && requestCommand.getArgs().size() == 1) {
+            return describeCommand(requestCommand.getArgs().get(0));
+        }
+
+        StringBuilder res = new StringBuilder("Статистика команд (задержки в мкс):\n");
+        res.append(String.format(": %-30s | %8s | %7s | %10s | %10s | %10s | %9s | %9s | %9s\n",
+                "команда", "вызовы", "ошибки", "просрочено", "байт in", "байт out", "p50", "p99", "p999"));
+        int printed = 0;
+        for (CommandStats stats : metricsRegistry.getAll()) {
+            if (stats.getCalls() == 0 && stats.getExpired() == 0) continue;
+            res.append(String.format(": %-30s | %8d | %7d | %10d | %10d | %10d | %9.1f | %9.1f | %9.1f\n",
+                    stats.getCommandName(),
+                    stats.getCalls(),
+                    stats.getErrors(),
+                    stats.getExpired(),
+                    stats.getBytesIn(),
+                    stats.getBytesOut(),
+                    stats.getP50Micros(),
+                    stats.getP99Micros(),
+                    stats.getP999Micros()
+            ));
+            printed++;
+        }
+        if (printed == 0) return new Response(ResponseStatus.OK, "Статистика пуста");
+        return new Response(ResponseStatus.OK, res.toString());
+    }
+
+    private Response describeCommand(String commandName) {
+        CommandStats stats = metricsRegistry.get(commandName);
+        if (!stats.getCommandName().equals(commandName)) {
+            return new Response(ResponseStatus.ARGS_ERROR, "Команда \"" + commandName + "\" не найдена");
+        }
+        StringBuilder res = new StringBuilder("Статистика команды " + commandName + ":\n");
+        res.append(String.format(
+                ": вызовы       | %d\n" +
+                ": ошибки       | %d\n" +
+                ": просрочено   | %d\n" +
+                ": байт in/out  | %d / %d\n" +
+                ": среднее, мкс | %.1f\n" +
+                ": p50, мкс     | %.1f\n" +
+                ": p99, мкс     | %.1f\n" +
+                ": p999, мкс    | %.1f\n" +
+                ": max, мкс     | %.1f\n",
+                stats.getCalls(),
+                stats.getErrors(),
+                stats.getExpired(),
+                stats.getBytesIn(),
+                stats.getBytesOut(),
+                stats.getMeanMicros(),
+                stats.getP50Micros(),
+                stats.getP99Micros(),
+                stats.getP999Micros(),
+                stats.getMaxMicros()
+        ));
+        for (Map.Entry<String, Long> entry : stats.getStatusCounts().entrySet()) {
+            res.append(String.format(": %-12s | %d\n", entry.getKey(), entry.getValue()));
+        }
+        return new Response(ResponseStatus.OK, res.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.ChangeFeed;
+import org.example.server.managers.ClientSession;
+import org.example.server.managers.CollectionManager;
+
+public class SubscribeCommand extends Command {
+    private final ChangeFeed changeFeed;
+
+    public SubscribeCommand(ChangeFeed changeFeed) {
+        super("subscribe", "subscribe [<версия> <эпоха>] - получать изменения коллекции; с версией сразу приходят изменения после нее", 0, 2, false);
+        this.changeFeed = changeFeed;
+    }
+
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        return new Response(ResponseStatus.COMMAND_ERROR, "Подписка доступна только по сети");
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand, ClientSession session) {
+        if (session == null) return execute(requestCommand);
+        int argsCount = requestCommand.getArgs() == null ? 0 : requestCommand.getArgs().size();
+        if (argsCount == 1 || argsCount > 2) throw new IllegalArgumentException("Команда принимает версию и эпоху или ничего");
+
+        // синхронизация и подписка под одной блокировкой: события начнутся ровно со следующей версии
+        Response syncResponse = argsCount == 2 ? SyncCommand.buildResponse(requestCommand.getArgs()) : null;
+        changeFeed.subscribe(session, CollectionManager.getVersion());
+        if (syncResponse != null) return syncResponse;
+        return new Response(ResponseStatus.OK, "Подписка на изменения коллекции оформлена, версия " + CollectionManager.getVersion());
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.CollectionChange;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.SyncResponse;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.CollectionManager;
+
+import java.util.List;
+
+public class SyncCommand extends Command {
+    public SyncCommand() {
+        super("sync", "sync <версия> <эпоха> - изменения коллекции после указанной версии (для реплики клиента)", 2, 2, false);
+    }
+
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.HEAVY_READ;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs().size() != 2) throw new IllegalArgumentException();
+
+        return buildResponse(requestCommand.getArgs());
+    }
+
+    /**
+     * Ответ на синхронизацию: изменения после версии клиента или полный снимок
+     * @param args версия и эпоха реплики клиента
+     * @return ответ для клиента
+     */
+    public static SyncResponse buildResponse(List<String> args) {
+        long sinceVersion;
+        long epoch;
+        try {
+            sinceVersion = Long.parseLong(args.get(0));
+            epoch = Long.parseLong(args.get(1));
+        } catch (NumberFormatException numberFormatException) {
+            throw new IllegalArgumentException("Версия и эпоха - целые числа");
+        }
+
+        List<CollectionChange> changes = epoch == CollectionManager.getEpoch()
+                ? CollectionManager.getChangesSince(sinceVersion)
+                : null;
+        if (changes == null) {
+            return SyncResponse.snapshot(CollectionManager.getEpoch(), CollectionManager.getVersion(), CollectionManager.getCollection());
+        }
+        return SyncResponse.delta(CollectionManager.getEpoch(), CollectionManager.getVersion(), changes);
+    }
+}
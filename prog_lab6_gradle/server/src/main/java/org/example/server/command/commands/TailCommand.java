@@ -0,0 +1,29 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.managers.CollectionManager;
+
+public class TailCommand extends Command {
+    private final CollectionManager collectionManager;
+
+    public TailCommand(CollectionManager collectionManager) {
+        super("tail", "tail N [условие] - выводит последние N элементов коллекции в порядке приоритета, " +
+                "подходящих под условие (условие - как в query)", 1, Integer.MAX_VALUE, false);
+        this.collectionManager = collectionManager;
+    }
+
+    @Override
+    public CommandClass getCommandClass(RequestCommand requestCommand) {
+        return HeadCommand.classifyTop(requestCommand.getArgs());
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        if (requestCommand.getArgs() == null || requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+
+        return HeadCommand.selectTop(requestCommand.getArgs(), true, collectionManager);
+    }
+}
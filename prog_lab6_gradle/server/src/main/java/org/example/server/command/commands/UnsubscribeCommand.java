@@ -0,0 +1,32 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.command.Command;
+import org.example.server.managers.ChangeFeed;
+import org.example.server.managers.ClientSession;
+
+public class UnsubscribeCommand extends Command {
+    private final ChangeFeed changeFeed;
+
+    public UnsubscribeCommand(ChangeFeed changeFeed) {
+        super("unsubscribe", "перестать получать изменения коллекции");
+        this.changeFeed = changeFeed;
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand) {
+        return new Response(ResponseStatus.COMMAND_ERROR, "Подписка доступна только по сети");
+    }
+
+    @Override
+    public Response execute(RequestCommand requestCommand, ClientSession session) {
+        if (session == null) return execute(requestCommand);
+        if (requestCommand.getArgs() != null) {
+            if (!requestCommand.getArgs().isEmpty()) throw new IllegalArgumentException();
+        }
+        if (changeFeed.unsubscribe(session)) return new Response(ResponseStatus.OK, "Подписка отменена");
+        return new Response(ResponseStatus.OK, "Подписки не было");
+    }
+}
@@ -6,16 +6,22 @@ import org.example.common.dtp.ResponseStatus;
 import org.example.common.entity.Ticket;
 import org.example.common.exceptions.ValidationError;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
 import org.example.server.managers.CollectionManager;
 
 public class UpdateCommand extends Command {
     private final CollectionManager collectionManager;
 
     public UpdateCommand(CollectionManager collectionManager) {
-        super("update", "обновить элемент с введенным id");
+        super("update", "обновить элемент с введенным id", 1, 1, true);
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public CommandClass getCommandClass() {
+        return CommandClass.WRITE;
+    }
+
     @Override
     public Response execute(RequestCommand requestCommand) {
         if (requestCommand.getArgs().size() != 1) throw new IllegalArgumentException();
@@ -29,19 +35,15 @@ public class UpdateCommand extends Command {
             if (requestCommand.getTicketObject() == null) {
                 return new Response(ResponseStatus.OBJECT_REQUIRED, "Для выполнения команды нужно создать элемент коллекции");
             }
-            if (collectionManager.removeById(id)) {
-                Ticket newTicket = requestCommand.getTicketObject();
-                newTicket.setId(id);
-                try {
-                    collectionManager.addElement(newTicket);
-                } catch (ValidationError validationError) {
-                    return new Response(ResponseStatus.VALIDATION_ERROR, "Одно или несколько полей нового объекта не соответствуют требованиям");
+            Ticket newTicket = requestCommand.getTicketObject();
+            try {
+                if (!collectionManager.replaceElement(id, newTicket)) {
+                    return new Response(ResponseStatus.ARGS_ERROR, String.format("Объекта с id=%d не существует", id));
                 }
-                return new Response(ResponseStatus.OK, String.format("Объект с id=%d был учпешно изменен", id));
-            }
-            else {
-                return new Response(ResponseStatus.ARGS_ERROR, String.format("Объекта с id=%d не существует", id));
+            } catch (ValidationError validationError) {
+                return new Response(ResponseStatus.VALIDATION_ERROR, "Одно или несколько полей нового объекта не соответствуют требованиям");
             }
+            return new Response(ResponseStatus.OK, String.format("Объект с id=%d был учпешно изменен", id));
         } catch (NumberFormatException numberFormatException) {
             throw new IllegalArgumentException("Id - целое число");
         }
@@ -0,0 +1,63 @@
+package org.example.server.managers;
+
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.metrics.CommandStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Журнал доступа: одна структурированная запись (ключ=значение) на запрос.
+ * Пишется в отдельный логгер "access", который в logback.xml направлен в асинхронный аппендер,
+ * поэтому поток селектора не ждет записи на диск.
+ * Успешные запросы можно прореживать: в журнал попадает каждый N-й (ошибки пишутся всегда)
+ */
+public class AccessLog {
+    public static final Logger logger = LoggerFactory.getLogger("access");
+
+    /**
+     * Каждый какой успешный запрос писать в журнал. 0 - журнал выключен
+     */
+    private volatile int sampleRate;
+
+    private long requestCounter = 0;
+
+    public AccessLog(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Запись об обработанном запросе
+     * @param session сессия клиента
+     * @param requestCommand запрос (null, если запрос не удалось разобрать)
+     * @param status статус ответа
+     * @param bytesIn размер запроса
+     * @param bytesOut размер ответа
+     * @param nanos время обработки в наносекундах
+     */
+    public void log(ClientSession session, RequestCommand requestCommand, ResponseStatus status, int bytesIn, int bytesOut, long nanos) {
+        int rate = sampleRate;
+        if (rate <= 0 || !logger.isInfoEnabled()) return;
+        if (!CommandStats.isError(status) && requestCounter++ % rate != 0) return;
+
+        logger.info(
+                "remote={} session={} cmd={} args={} status={} in={} out={} us={}",
+                session.getRemoteAddress(),
+                session.getId(),
+                requestCommand != null ? requestCommand.getCommandName() : "-",
+                requestCommand != null ? requestCommand.getArgs() : "-",
+                status,
+                bytesIn,
+                bytesOut,
+                nanos / 1000
+        );
+    }
+}
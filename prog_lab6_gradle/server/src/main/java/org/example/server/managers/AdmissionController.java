@@ -0,0 +1,96 @@
+package org.example.server.managers;
+
+import org.example.server.command.CommandClass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Контроль перегрузки сервера.
+ * Время ожидания нового запроса оценивается как число запросов в очередях всех клиентов,
+ * умноженное на скользящее среднее времени выполнения. Пока оценка выше порога, тяжелые чтения
+ * не принимаются, а дешевые чтения и изменения коллекции принимаются как обычно:
+ * под нагрузкой в несколько раз выше пропускной способности сервер продолжает отвечать на них быстро.
+ * Используется только потоком селектора
+ */
+public class AdmissionController {
+    /**
+     * Вес нового измерения в скользящем среднем
+     */
+    private static final double AVERAGE_WEIGHT = 0.05;
+
+    /**
+     * Максимальное время, через которое клиенту предлагается повторить отклоненный запрос
+     */
+    public static final long MAX_RETRY_AFTER_MS = 1000;
+
+    private final long heavyReadLimitNs;
+
+    private int queuedRequests;
+    private double averageExecutionNs;
+    private long rejectedCount;
+
+    /**
+     * @param heavyReadLimitNs ожидаемое время в очереди, начиная с которого отклоняются тяжелые чтения (0 - не отклонять)
+     */
+    public AdmissionController(long heavyReadLimitNs) {
+        this.heavyReadLimitNs = heavyReadLimitNs;
+    }
+
+    /**
+     * Решение о приеме запроса
+     * @param commandClass класс нагрузки запроса
+     * @return true если запрос можно поставить в очередь
+     */
+    public boolean admit(CommandClass commandClass) {
+        if (commandClass != CommandClass.HEAVY_READ || heavyReadLimitNs <= 0) return true;
+        if (getExpectedWaitNs() <= heavyReadLimitNs) return true;
+        rejectedCount++;
+        return false;
+    }
+
+    /**
+     * @return через сколько мс стоит повторить отклоненный запрос: примерно когда очереди разгрузятся до порога
+     */
+    public long getRetryAfterMs() {
+        long excessMs = TimeUnit.NANOSECONDS.toMillis(getExpectedWaitNs() - heavyReadLimitNs);
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_MS, excessMs));
+    }
+
+    /**
+     * @return оценка времени ожидания нового запроса в очереди в нс
+     */
+    public long getExpectedWaitNs() {
+        return (long) (queuedRequests * averageExecutionNs);
+    }
+
+    public void onQueued() {
+        queuedRequests++;
+    }
+
+    /**
+     * @param count сколько запросов покинуло очереди (выполнены или отброшены при закрытии соединения)
+     */
+    public void onDequeued(int count) {
+        queuedRequests -= count;
+    }
+
+    /**
+     * Учитывает время выполнения запроса в скользящем среднем
+     * @param nanos время выполнения в нс
+     */
+    public void recordExecution(long nanos) {
+        // среднее начинается с нуля, а не с первого измерения: первые запросы идут до прогрева JIT и заметно медленнее
+        averageExecutionNs += AVERAGE_WEIGHT * (nanos - averageExecutionNs);
+    }
+
+    public int getQueuedRequests() {
+        return queuedRequests;
+    }
+
+    /**
+     * @return сколько запросов отклонено из-за перегрузки
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.server.managers;
+
+import org.example.common.dtp.ChangeEvent;
+import org.example.common.dtp.CollectionChange;
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.FrameCompressor;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.server.utils.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Рассылка изменений коллекции подписанным клиентам.
+ * Изменения копятся, пока сервер выполняет команды, и рассылаются после обработки готовых каналов:
+ * каждое событие сериализуется один раз и ставится в очередь записи каждого подписчика.
+ * Подписчикам, согласовавшим сжатие, уходит сжатый кадр; он тоже готовится один раз на событие.
+ * Запись идет через селектор (OP_WRITE), поэтому медленный подписчик не задерживает сервер.
+ * Подписчик, у которого в очереди осталось больше {@link #maxQueuedBytes} байт даже после попытки записи, отписывается
+ * и получает ответ {@link ResponseStatus#RESYNC}: ему нужно заново синхронизироваться и подписаться.
+ * Все методы вызываются из потока селектора
+ */
+public class ChangeFeed implements CollectionChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    /**
+     * Максимальный объем очереди записи подписчика в байтах
+     */
+    private final long maxQueuedBytes;
+
+    private final LinkedHashSet<ClientSession> subscribers = new LinkedHashSet<>();
+
+    /**
+     * Изменения, еще не разосланные подписчикам
+     */
+    private final ArrayDeque<CollectionChange> pending = new ArrayDeque<>();
+
+    /**
+     * Упаковщик событий, общий для всех подписчиков со сжатием
+     */
+    private final FrameCompressor compressor = new FrameCompressor(ServerConfig.COMPRESSION_THRESHOLD);
+
+    public ChangeFeed(long maxQueuedBytes) {
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    /**
+     * @param session клиент
+     * @param version версия коллекции, с которой клиент синхронизирован: изменения до нее включительно ему не рассылаются,
+     *                даже если они еще ждут рассылки в этой итерации селектора
+     */
+    public void subscribe(ClientSession session, long version) {
+        session.setSubscribedVersion(version);
+        if (subscribers.add(session)) session.setSubscribed(true);
+    }
+
+    /**
+     * @return true если клиент был подписан
+     */
+    public boolean unsubscribe(ClientSession session) {
+        session.setSubscribed(false);
+        return subscribers.remove(session);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onChange(CollectionChange change) {
+        if (!subscribers.isEmpty()) pending.add(change);
+    }
+
+    /**
+     * Ставит накопленные события в очереди подписчиков
+     */
+    public void dispatch() {
+        if (pending.isEmpty()) return;
+        try {
+            for (CollectionChange change = pending.poll(); change != null && !subscribers.isEmpty(); change = pending.poll()) {
+                byte[] frame = FrameCodec.encode(new ChangeEvent(change));
+                ByteBuffer compressedFrame = null;
+                boolean compressionTried = false;
+                Iterator<ClientSession> iterator = subscribers.iterator();
+                while (iterator.hasNext()) {
+                    ClientSession session = iterator.next();
+                    if (change.getVersion() <= session.getSubscribedVersion()) continue;
+                    if (session.getCompressor() != null && !compressionTried) {
+                        compressedFrame = compressor.compress(frame, FrameCodec.HEADER_SIZE, frame.length - FrameCodec.HEADER_SIZE);
+                        compressionTried = true;
+                    }
+                    boolean compressed = session.getCompressor() != null && compressedFrame != null;
+                    session.enqueue(compressed ? compressedFrame.duplicate() : ByteBuffer.wrap(frame));
+                    if (session.getOutboundBytes() > maxQueuedBytes && !flush(session)) {
+                        iterator.remove();
+                        session.setSubscribed(false);
+                        session.enqueue(ByteBuffer.wrap(FrameCodec.encode(new Response(
+                                ResponseStatus.RESYNC,
+                                "Подписка отменена: клиент не успевает получать изменения (версия " + change.getVersion() + "). Синхронизируйтесь и подпишитесь заново"
+                        ))));
+                        logger.warn("Подписчик {} отстал и был отписан", session.getRemoteAddress());
+                    }
+                    requestWrite(session);
+                }
+            }
+        } catch (IOException ioException) {
+            logger.error("Ошибка сериализации события: {}", ioException.getMessage());
+        }
+        pending.clear();
+    }
+
+    /**
+     * Попытка сразу записать очередь подписчика, когда за одну итерацию селектора накопилось много событий
+     * @return true если в очереди осталось не больше {@link #maxQueuedBytes} байт
+     */
+    private boolean flush(ClientSession session) {
+        SelectionKey key = session.getKey();
+        if (key == null || !key.isValid()) return false;
+        try {
+            session.flushTo((SocketChannel) key.channel());
+        } catch (IOException ioException) {
+            // соединение закроет сервер при следующей записи
+            return false;
+        }
+        return session.getOutboundBytes() <= maxQueuedBytes;
+    }
+
+    private static void requestWrite(ClientSession session) {
+        SelectionKey key = session.getKey();
+        if (key != null && key.isValid()) key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+    }
+}
@@ -0,0 +1,251 @@
+package org.example.server.managers;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.common.dtp.BufferPool;
+import org.example.common.dtp.FrameCompressor;
+import org.example.common.dtp.FrameReader;
+import org.example.common.dtp.RequestCommand;
+import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.utils.RingBuffer;
+import org.example.server.utils.ServerConfig;
+import org.example.server.utils.TokenBucket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Состояние одного подключения клиента к серверу.
+ * Создается при подключении и живет, пока открыт канал
+ */
+@Getter
+public class ClientSession {
+    private static final AtomicLong idGenerator = new AtomicLong();
+
+    /**
+     * Порядковый номер подключения
+     */
+    private final long id = idGenerator.incrementAndGet();
+
+    /**
+     * Адрес клиента. Запоминается при подключении, чтобы не запрашивать его у канала на каждый запрос
+     */
+    private final String remoteAddress;
+
+    /**
+     * История команд, выполненных этим клиентом
+     */
+    private final RingBuffer<Command> history = new RingBuffer<>(ServerConfig.SESSION_HISTORY_SIZE);
+
+    /**
+     * Накопитель входящих байтов, из которого извлекаются кадры запросов
+     */
+    private final FrameReader frameReader;
+
+    /**
+     * Пул, из которого взяты буферы ответов (null - ответы в куче)
+     */
+    private final BufferPool bufferPool;
+
+    /**
+     * Ключ канала клиента в селекторе сервера
+     */
+    @Setter
+    private SelectionKey key;
+
+    /**
+     * Кадры, ожидающие записи в канал (ответы и события подписки)
+     */
+    private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+
+    /**
+     * Сколько байт ожидает записи в канал
+     */
+    private long outboundBytes;
+
+    /**
+     * Подписан ли клиент на изменения коллекции
+     */
+    @Setter
+    private boolean subscribed;
+
+    /**
+     * Версия коллекции на момент подписки: изменения до нее включительно клиент уже получил синхронизацией
+     */
+    @Setter
+    private long subscribedVersion;
+
+    /**
+     * Время последнего чтения от клиента в мс (часы {@link System#nanoTime})
+     */
+    @Setter
+    private long lastActivityMs;
+
+    /**
+     * Чтение приостановлено, пока клиент не заберет накопившиеся ответы
+     */
+    @Setter
+    private boolean readPaused;
+
+    /**
+     * Упаковщик ответов (null - клиент не согласовал сжатие)
+     */
+    private FrameCompressor compressor;
+
+    /**
+     * Принятый запрос, ожидающий выполнения
+     * @param command запрос (null - данные не удалось разобрать)
+     * @param commandClass класс нагрузки запроса
+     * @param size размер запроса в байтах
+     * @param receivedNs время получения по {@link System#nanoTime}
+     */
+    public record QueuedRequest(RequestCommand command, CommandClass commandClass, int size, long receivedNs) {
+        /**
+         * @param nowNs текущее время по {@link System#nanoTime}
+         * @return true если клиент уже перестал ждать ответ
+         */
+        public boolean isExpired(long nowNs) {
+            return command != null && command.getTimeoutMs() > 0 && nowNs - receivedNs > TimeUnit.MILLISECONDS.toNanos(command.getTimeoutMs());
+        }
+    }
+
+    /**
+     * Запросы, ожидающие своей очереди у планировщика
+     */
+    private final ArrayDeque<QueuedRequest> requests = new ArrayDeque<>();
+
+    /**
+     * Неизрасходованное время выполнения в нс (дефицит в deficit round-robin), может быть отрицательным
+     */
+    @Setter
+    private long deficitNs;
+
+    /**
+     * Стоит ли подключение в очереди планировщика
+     */
+    @Setter
+    private boolean scheduled;
+
+    /**
+     * Ограничитель частоты запросов (null - без ограничения)
+     */
+    private final TokenBucket rateLimiter;
+
+    public ClientSession(String remoteAddress) {
+        this(remoteAddress, null);
+    }
+
+    /**
+     * @param remoteAddress адрес клиента
+     * @param bufferPool пул буферов потока селектора (null - буферы в куче)
+     */
+    public ClientSession(String remoteAddress, BufferPool bufferPool) {
+        this.remoteAddress = remoteAddress;
+        this.bufferPool = bufferPool;
+        this.frameReader = bufferPool != null ? new FrameReader(bufferPool, Server.BUFFER_SIZE) : new FrameReader(Server.BUFFER_SIZE);
+        // сжатые кадры принимаются только после handshake deflate
+        frameReader.setCompressionAllowed(false);
+        frameReader.setMaxFrameSize(ServerConfig.MAX_REQUEST_FRAME_SIZE);
+        frameReader.setMaxInflatedSize(ServerConfig.MAX_INFLATED_FRAME_SIZE);
+        this.rateLimiter = ServerConfig.RATE_LIMIT_PER_SECOND > 0
+                ? new TokenBucket(ServerConfig.RATE_LIMIT_PER_SECOND, Math.max(1, ServerConfig.RATE_LIMIT_BURST), System.nanoTime())
+                : null;
+    }
+
+    /**
+     * Включает сжатие по итогам handshake: ответы сжимаются, сжатые кадры клиента принимаются
+     * @param compressor упаковщик ответов (null - сжатие выключено)
+     */
+    public void setCompressor(FrameCompressor compressor) {
+        this.compressor = compressor;
+        frameReader.setCompressionAllowed(compressor != null);
+    }
+
+    /**
+     * Может ли сервер выполнять запросы клиента: есть принятые запросы, и клиент успевает забирать ответы
+     */
+    public boolean isRunnable() {
+        return !requests.isEmpty() && !readPaused;
+    }
+
+    /**
+     * Может ли сервер читать новые запросы клиента
+     */
+    public boolean isReadable() {
+        return !readPaused && requests.size() < ServerConfig.MAX_QUEUED_REQUESTS;
+    }
+
+    /**
+     * @return true если клиент подключен с локального адреса
+     */
+    public boolean isLoopback() {
+        if (key == null || !(key.channel() instanceof SocketChannel channel)) return false;
+        try {
+            return channel.getRemoteAddress() instanceof InetSocketAddress address && address.getAddress().isLoopbackAddress();
+        } catch (IOException ioException) {
+            return false;
+        }
+    }
+
+    /**
+     * Ставит данные в очередь на запись
+     * @param data буфер, готовый к записи в канал
+     */
+    public void enqueue(ByteBuffer data) {
+        outbound.add(data);
+        outboundBytes += data.remaining();
+    }
+
+    /**
+     * Ставит кадр ответа в очередь на запись, сжимая его, если клиент согласовал сжатие
+     * @param frame кадр в режиме чтения; сессия становится его владельцем и вернет его в пул после записи
+     */
+    public void enqueueResponse(ByteBuffer frame) {
+        ByteBuffer compressed = compressor != null && bufferPool != null ? compressor.compress(frame, bufferPool) : null;
+        if (compressed != null) {
+            bufferPool.release(frame);
+            enqueue(compressed);
+            return;
+        }
+        enqueue(frame);
+    }
+
+    /**
+     * Записывает в канал сколько получится из очереди, не блокируясь
+     * @param channel канал клиента
+     * @return true если очередь записана полностью
+     * @throws IOException при ошибке записи
+     */
+    public boolean flushTo(SocketChannel channel) throws IOException {
+        while (!outbound.isEmpty()) {
+            ByteBuffer data = outbound.peek();
+            outboundBytes -= channel.write(data);
+            if (data.hasRemaining()) return false;
+            outbound.poll();
+            if (bufferPool != null) bufferPool.release(data);
+        }
+        return true;
+    }
+
+    /**
+     * Освобождает упаковщик, распаковщик и буферы при закрытии соединения
+     */
+    public void release() {
+        frameReader.close();
+        if (bufferPool != null) {
+            for (ByteBuffer data : outbound) bufferPool.release(data);
+        }
+        outbound.clear();
+        outboundBytes = 0;
+        requests.clear();
+        if (compressor != null) compressor.close();
+        compressor = null;
+    }
+}
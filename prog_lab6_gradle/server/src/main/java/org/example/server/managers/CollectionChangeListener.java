@@ -0,0 +1,11 @@
+package org.example.server.managers;
+
+import org.example.common.dtp.CollectionChange;
+
+/**
+ * Слушатель изменений коллекции.
+ * Вызывается из потока, изменившего коллекцию, под блокировкой коллекции
+ */
+public interface CollectionChangeListener {
+    void onChange(CollectionChange change);
+}
@@ -1,13 +1,19 @@
 package org.example.server.managers;
 
 import lombok.Getter;
+import org.example.common.dtp.ChangeType;
+import org.example.common.dtp.CollectionChange;
 import org.example.common.entity.Ticket;
 import org.example.common.exceptions.ValidationError;
+import org.example.server.query.TicketIndexes;
+import org.example.server.utils.RingBuffer;
+import org.example.server.utils.ServerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Класс для управления коллекцией
@@ -21,6 +27,59 @@ public class CollectionManager {
     @Getter
     private static PriorityQueue<Ticket> collection = new PriorityQueue<>();
 
+    /**
+     * Блокировка коллекции. Захватывается на время выполнения команды (или целого пакета команд),
+     * а также при сохранении коллекции из другого потока
+     */
+    @Getter
+    private static final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Индекс элементов коллекции по id. Обновляется всеми методами, изменяющими коллекцию,
+     * поэтому изменять коллекцию в обход менеджера нельзя
+     */
+    private static final HashMap<Integer, Ticket> index = new HashMap<>();
+
+    /**
+     * Агрегаты цены и скидки по типу билета и возвратности. Как и индекс, обновляются при каждом изменении коллекции
+     */
+    @Getter
+    private static final TicketAggregates aggregates = new TicketAggregates();
+
+    /**
+     * Вторичные индексы для планировщика запросов. Как и индекс по id, обновляются при каждом изменении коллекции
+     */
+    @Getter
+    private static final TicketIndexes indexes = new TicketIndexes();
+
+    /**
+     * Наименьший id, который может оказаться свободным: все id меньше него заняты
+     */
+    private static int freeIdCursor = 1;
+
+    /**
+     * Эпоха коллекции: случайное число, выбираемое при запуске сервера.
+     * По ней клиент понимает, что версии его реплики относятся к другому запуску
+     */
+    @Getter
+    private static final long epoch = new Random().nextLong();
+
+    /**
+     * Версия коллекции: увеличивается на 1 при каждом изменении
+     */
+    @Getter
+    private static long version = 0;
+
+    /**
+     * Журнал последних изменений для синхронизации реплик клиентов
+     */
+    private static final RingBuffer<CollectionChange> changeLog = new RingBuffer<>(ServerConfig.CHANGE_LOG_SIZE);
+
+    /**
+     * Слушатели изменений коллекции
+     */
+    private static final List<CollectionChangeListener> changeListeners = new ArrayList<>();
+
     /**
      * Время инициализации коллекции
      * Время инициализации объекта CollectionManager
@@ -41,26 +100,30 @@ public class CollectionManager {
         if (!collection.stream().allMatch(Ticket::validate)) return false;
 
         CollectionManager.collection = collection;
+        index.clear();
+        aggregates.clear();
+        indexes.clear();
+        for (Ticket ticket : collection) {
+            index.put(ticket.getId(), ticket);
+            aggregates.add(ticket);
+            indexes.add(ticket);
+        }
+        freeIdCursor = 1;
+        // прежние изменения к новой коллекции не относятся: реплики получат полный снимок
+        changeLog.clear();
+        version++;
         logger.info("Коллекция обновлена");
         return true;
     }
 
     /**
-     * Статический метод для генерации нового id
+     * Статический метод для генерации нового id.
+     * Поиск идет от курсора по индексу, поэтому при добавлении подряд id выдается за O(1)
      * @return минимальный несуществующий id
      */
     public static int generateFreeId() {
-        if (collection.isEmpty()) return 1;
-
-        HashSet<Integer> existIds = collection.stream()
-                .map(Ticket::getId)
-                .collect(Collectors.toCollection(HashSet::new));
-
-
-        for (int i = 1; i < Collections.max(existIds); i++) {
-            if (!existIds.contains(i)) return i;
-        }
-        return Collections.max(existIds) + 1;
+        while (index.containsKey(freeIdCursor)) freeIdCursor++;
+        return freeIdCursor;
     }
 
     /**
@@ -85,10 +148,7 @@ public class CollectionManager {
      * @return Объект из коллекции или null, если его не существует
      */
     public Ticket getElementById(Integer id) {
-        return collection.stream()
-                .filter(ticket -> Objects.equals(ticket.getId(), id))
-                .findFirst()
-                .orElse(null);
+        return index.get(id);
     }
 
     /**
@@ -96,6 +156,26 @@ public class CollectionManager {
      */
     public void clearCollection() {
         collection.clear();
+        index.clear();
+        aggregates.clear();
+        indexes.clear();
+        freeIdCursor = 1;
+        recordChange(ChangeType.CLEAR, null, null);
+    }
+
+    /**
+     * Извлекает первый элемент коллекции
+     * @return удаленный элемент или null, если коллекция пуста
+     */
+    public Ticket removeHead() {
+        Ticket head = collection.poll();
+        if (head != null) {
+            forgetId(head.getId());
+            aggregates.remove(head);
+            indexes.remove(head);
+            recordChange(ChangeType.REMOVE, head.getId(), null);
+        }
+        return head;
     }
 
     /**
@@ -104,12 +184,48 @@ public class CollectionManager {
      * @return true если элемент с таким id есть и удален, и false если элемент не найден
      */
     public boolean removeById(int id) {
-        boolean deleted = collection.removeIf(ticket -> ticket.getId() == id);
-        if (deleted) logger.info("Элемент с id=" + id + " был успешно удален");
-        else logger.warn("Элемент с id={} не найден", id);
+        Ticket ticket = index.get(id);
+        boolean deleted = ticket != null && collection.remove(ticket);
+        if (deleted) {
+            forgetId(id);
+            aggregates.remove(ticket);
+            indexes.remove(ticket);
+            recordChange(ChangeType.REMOVE, id, null);
+            logger.debug("Элемент с id={} был успешно удален", id);
+        }
+        else logger.debug("Элемент с id={} не найден", id);
         return deleted;
     }
 
+    /**
+     * Заменяет элемент с данным id новым объектом, сохраняя id
+     * @param id id заменяемого элемента
+     * @param ticket новый объект
+     * @return true если элемент заменен, false если элемента с таким id нет
+     * @throws ValidationError если новый объект не прошел валидацию (коллекция при этом не меняется)
+     */
+    public boolean replaceElement(int id, Ticket ticket) throws ValidationError {
+        Ticket old = index.get(id);
+        if (old == null) return false;
+        ticket.setId(id);
+        if (!ticket.validate()) throw new ValidationError(ticket);
+        collection.remove(old);
+        collection.add(ticket);
+        index.put(id, ticket);
+        aggregates.remove(old);
+        aggregates.add(ticket);
+        indexes.remove(old);
+        indexes.add(ticket);
+        recordChange(ChangeType.UPDATE, id, ticket);
+        logger.debug("Элемент с id={} был изменен", id);
+        return true;
+    }
+
+    private static void forgetId(int id) {
+        index.remove(id);
+        if (id < freeIdCursor) freeIdCursor = id;
+    }
+
     /**
      * Проверка на уникальность всех id в коллекции билетов
      * @param collection коллекция
@@ -128,11 +244,72 @@ public class CollectionManager {
      * @throws ValidationError в случае неудачного прохождения валидации
      */
     public void addElement(Ticket ticket) throws ValidationError {
-        if (ticket.validate()) {
+        if (ticket.validate() && !index.containsKey(ticket.getId())) {
             collection.add(ticket);
-            logger.info("Добавлен новый элемент с id={}", ticket.getId());
+            index.put(ticket.getId(), ticket);
+            aggregates.add(ticket);
+            indexes.add(ticket);
+            recordChange(ChangeType.ADD, ticket.getId(), ticket);
+            logger.debug("Добавлен новый элемент с id={}", ticket.getId());
             return;
         }
         throw new ValidationError(ticket);
     }
+
+    /**
+     * Массовое добавление элементов. Id выдаются подряд из свободных (id из самих объектов игнорируются),
+     * элементы, не прошедшие валидацию, пропускаются и id не занимают.
+     * Коллекция и индекс обновляются один раз на весь набор
+     * @param tickets новые элементы
+     * @return число добавленных элементов
+     */
+    public int addElements(Collection<Ticket> tickets) {
+        ArrayList<Ticket> accepted = new ArrayList<>(tickets.size());
+        ZonedDateTime now = ZonedDateTime.now();
+        int candidateId = generateFreeId();
+        for (Ticket ticket : tickets) {
+            while (index.containsKey(candidateId)) candidateId++;
+            ticket.setId(candidateId);
+            if (ticket.getCreationDate() == null) ticket.setCreationDate(now);
+            if (!ticket.validate()) continue;
+            accepted.add(ticket);
+            candidateId++;
+        }
+        collection.addAll(accepted);
+        for (Ticket ticket : accepted) {
+            index.put(ticket.getId(), ticket);
+            aggregates.add(ticket);
+            indexes.add(ticket);
+            recordChange(ChangeType.ADD, ticket.getId(), ticket);
+        }
+        logger.debug("Добавлено элементов: {} из {}", accepted.size(), tickets.size());
+        return accepted.size();
+    }
+
+    /**
+     * Регистрирует слушателя изменений коллекции
+     * @param listener слушатель
+     */
+    public static void addChangeListener(CollectionChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    private static void recordChange(ChangeType type, Integer id, Ticket ticket) {
+        version++;
+        CollectionChange change = new CollectionChange(version, type, id, ticket);
+        changeLog.add(change);
+        for (CollectionChangeListener listener : changeListeners) listener.onChange(change);
+    }
+
+    /**
+     * Изменения коллекции после данной версии
+     * @param sinceVersion версия, которую уже знает клиент
+     * @return изменения в порядке версий или null, если журнал их уже не хранит
+     * (или версия не относится к текущей коллекции) и нужен полный снимок
+     */
+    public static List<CollectionChange> getChangesSince(long sinceVersion) {
+        long missing = version - sinceVersion;
+        if (missing < 0 || missing > changeLog.size()) return null;
+        return changeLog.last((int) missing);
+    }
 }
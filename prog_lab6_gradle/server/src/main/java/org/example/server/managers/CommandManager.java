@@ -3,10 +3,15 @@ package org.example.server.managers;
 import lombok.Getter;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
 import org.example.common.exceptions.NoSuchCommand;
 import org.example.server.command.Command;
+import org.example.server.command.CommandClass;
+import org.example.server.metrics.CommandStats;
+import org.example.server.metrics.MetricsRegistry;
+import org.example.server.utils.RingBuffer;
+import org.example.server.utils.ServerConfig;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 
@@ -25,11 +30,21 @@ public class CommandManager {
     private final HashMap<String, Command> commands = new HashMap<>();
     /**
      * -- GETTER --
-     *  Получение истории команд в текущей сессии
+     *  Получение общей истории команд всех клиентов (для аудита).
+     *  Хранит только последние {@link ServerConfig#GLOBAL_HISTORY_SIZE} команд
      *
-     * @return Использованные команды ArrayList<Command>
+     * @return кольцевой буфер использованных команд
      */
-    private final ArrayList<Command> history = new ArrayList<>();
+    private final RingBuffer<Command> history = new RingBuffer<>(ServerConfig.GLOBAL_HISTORY_SIZE);
+    /**
+     * -- GETTER --
+     *  Получение статистики выполнения команд
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    public CommandManager(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
 
     /**
      * Добавляет команды в коллекцию команд
@@ -37,6 +52,7 @@ public class CommandManager {
      */
     public void addCommand(Command command) {
         this.commands.put(command.getName(), command);
+        metricsRegistry.register(command.getName());
     }
 
     /**
@@ -50,25 +66,56 @@ public class CommandManager {
     }
 
     /**
-     * Сохраняет исполненную команду в истории
+     * Сохраняет исполненную команду в общей истории и в истории клиента
      * @param command команда, сохраняемая в истории
+     * @param session сессия клиента (может быть null)
      */
-    public void addToHistory(Command command) {
+    public void addToHistory(Command command, ClientSession session) {
         history.add(command);
+        if (session != null) session.getHistory().add(command);
+    }
+
+    /**
+     * Класс нагрузки запроса одной команды
+     * @param requestCommand запрос
+     * @return класс нагрузки; неизвестные команды завершаются сразу и считаются дешевыми
+     */
+    public CommandClass classify(RequestCommand requestCommand) {
+        Command command = commands.get(requestCommand.getCommandName());
+        return command != null ? command.getCommandClass(requestCommand) : CommandClass.CHEAP_READ;
     }
 
     /**
-     * Метод для выполнения команды
+     * Метод для выполнения команды под блокировкой коллекции.
+     * Время выполнения и статус ответа учитываются в статистике команды
      * @param requestCommand сериализованный формат названия команд, аргументов и объекта коллекции
+     * @param session сессия клиента, приславшего команду (может быть null)
      * @return response
      * @throws NoSuchCommand если команда не найдена
      */
-    public Response execute(RequestCommand requestCommand) throws NoSuchCommand {
-        if (!commands.containsKey(requestCommand.getCommandName())) throw new NoSuchCommand(requestCommand.getCommandName());
+    public Response execute(RequestCommand requestCommand, ClientSession session) throws NoSuchCommand {
+        Command command = commands.get(requestCommand.getCommandName());
+        if (command == null) {
+            metricsRegistry.get(MetricsRegistry.UNKNOWN_COMMAND).record(ResponseStatus.NO_SUCH_COMMAND, 0);
+            throw new NoSuchCommand(requestCommand.getCommandName());
+        }
 
-        this.addToHistory(this.getCommands().get(requestCommand.getCommandName()));
+        this.addToHistory(command, session);
 
-        Command command = commands.get(requestCommand.getCommandName());
-        return command.execute(requestCommand);
+        CommandStats stats = metricsRegistry.get(command.getName());
+        ResponseStatus status = ResponseStatus.SERVER_ERROR;
+        CollectionManager.getLock().lock();
+        long startTime = System.nanoTime();
+        try {
+            Response response = command.execute(requestCommand, session);
+            status = response.getResponseStatus();
+            return response;
+        } catch (IllegalArgumentException illegalArgumentException) {
+            status = ResponseStatus.ARGS_ERROR;
+            throw illegalArgumentException;
+        } finally {
+            stats.record(status, System.nanoTime() - startTime);
+            CollectionManager.getLock().unlock();
+        }
     }
 }
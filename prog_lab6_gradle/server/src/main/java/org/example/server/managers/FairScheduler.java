@@ -0,0 +1,89 @@
+package org.example.server.managers;
+
+import org.example.server.command.CommandClass;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Планировщик выполнения запросов по алгоритму deficit round-robin.
+ * Подключения с принятыми запросами стоят в круговой очереди. В свой ход подключение получает квант времени
+ * и выполняет запросы, пока у него остается положительный дефицит; время каждого запроса вычитается из дефицита.
+ * Стоимость запроса заранее не известна, поэтому последний запрос хода может выйти за квант,
+ * и перерасход вычитается из следующих ходов. Клиент, засыпавший сервер тяжелыми командами,
+ * получает ту же долю времени, что и остальные, а не весь поток селектора.
+ * Подключения, у которых следующий запрос - дешевое чтение или изменение коллекции, стоят в отдельной
+ * приоритетной очереди и ходят раньше тяжелых чтений (но не больше {@link #MAX_PRIORITY_STREAK} ходов подряд,
+ * чтобы тяжелые чтения не голодали).
+ * Используется только потоком селектора
+ */
+public class FairScheduler {
+    /**
+     * Сколько ходов подряд может получить приоритетная очередь, пока тяжелые чтения ждут
+     */
+    public static final int MAX_PRIORITY_STREAK = 8;
+
+    private final long quantumNs;
+    private final ArrayDeque<ClientSession> priority = new ArrayDeque<>();
+    private final ArrayDeque<ClientSession> heavy = new ArrayDeque<>();
+    private int priorityStreak;
+
+    /**
+     * @param quantumNs квант времени на один ход подключения в нс
+     */
+    public FairScheduler(long quantumNs) {
+        this.quantumNs = quantumNs;
+    }
+
+    /**
+     * Ставит подключение в очередь, соответствующую его следующему запросу, если ему есть что выполнять и оно еще не в очереди
+     * @param session сессия клиента
+     */
+    public void schedule(ClientSession session) {
+        if (session.isScheduled() || !session.isRunnable()) return;
+        session.setScheduled(true);
+        (isHeavyNext(session) ? heavy : priority).add(session);
+    }
+
+    /**
+     * @return есть ли подключения с невыполненными запросами
+     */
+    public boolean hasWork() {
+        return !priority.isEmpty() || !heavy.isEmpty();
+    }
+
+    /**
+     * Выполняет ходы подключений, пока не истечет квант времени или не кончатся запросы.
+     * Вызывается на каждой итерации цикла селектора, поэтому новые дешевые запросы ждут не дольше одного хода
+     * @param executor выполняет следующий запрос подключения
+     * @param afterTurn вызывается после хода подключения (отправка ответов)
+     */
+    public void run(Consumer<ClientSession> executor, Consumer<ClientSession> afterTurn) {
+        long deadline = System.nanoTime() + quantumNs;
+        do {
+            boolean priorityTurn = !priority.isEmpty() && (heavy.isEmpty() || priorityStreak < MAX_PRIORITY_STREAK);
+            ClientSession session = priorityTurn ? priority.poll() : heavy.poll();
+            if (session == null) return;
+            priorityStreak = priorityTurn ? priorityStreak + 1 : 0;
+            session.setScheduled(false);
+            if (session.getKey() != null && !session.getKey().isValid()) continue;
+
+            session.setDeficitNs(session.getDeficitNs() + quantumNs);
+            // в приоритетный ход тяжелый запрос не выполняется: подключение переходит в общую очередь
+            while (session.getDeficitNs() > 0 && session.isRunnable() && !(priorityTurn && isHeavyNext(session))) {
+                long startTime = System.nanoTime();
+                executor.accept(session);
+                session.setDeficitNs(session.getDeficitNs() - (System.nanoTime() - startTime));
+            }
+            // неизрасходованный квант не копится: без запросов подключение не должно получать кредит на будущее
+            if (session.getRequests().isEmpty()) session.setDeficitNs(Math.min(session.getDeficitNs(), 0));
+            afterTurn.accept(session);
+            schedule(session);
+        } while (System.nanoTime() < deadline);
+    }
+
+    private static boolean isHeavyNext(ClientSession session) {
+        ClientSession.QueuedRequest next = session.getRequests().peek();
+        return next != null && next.commandClass() == CommandClass.HEAVY_READ;
+    }
+}
@@ -1,9 +1,16 @@
 package org.example.server.managers;
 
+import org.example.common.dtp.BatchRequestCommand;
+import org.example.common.dtp.BatchResponse;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.common.exceptions.NoSuchCommand;
+import org.example.server.command.CommandClass;
+import org.example.server.metrics.CommandStats;
+import org.example.server.utils.ServerConfig;
+
+import java.util.ArrayList;
 
 /**
  * Класс для обработки запросов с командами
@@ -14,6 +21,7 @@ public class RequestCommandHandler {
 
     public RequestCommandHandler(CommandManager commandManager) {
         this.commandManager = commandManager;
+        commandManager.getMetricsRegistry().register(BatchRequestCommand.COMMAND_NAME);
     }
 
     /**
@@ -21,15 +29,70 @@ public class RequestCommandHandler {
      * Если все эщкере то делаем
      * Если нет команды или там с аргументами не то чето, то говорим
      * @param requestCommand request from lovely loved user
+     * @param session сессия клиента, приславшего запрос
      * @return response
      */
-    public Response handleRequestCommand(RequestCommand requestCommand) {
+    public Response handleRequestCommand(RequestCommand requestCommand, ClientSession session) {
+        if (requestCommand instanceof BatchRequestCommand batchRequestCommand) {
+            return handleBatch(batchRequestCommand, session);
+        }
         try {
-            return commandManager.execute(requestCommand);
+            return commandManager.execute(requestCommand, session);
         } catch (NoSuchCommand noSuchCommand) {
             return new Response(ResponseStatus.NO_SUCH_COMMAND, "Команда \"" + requestCommand.getCommandName() + "\" не найдена");
         } catch (IllegalArgumentException illegalArgumentException) {
             return new Response(ResponseStatus.ARGS_ERROR, "Неверное использование аргументов. " + illegalArgumentException.getMessage());
         }
     }
+
+    /**
+     * Класс нагрузки запроса. Пакет относится к самому тяжелому классу своих команд,
+     * а если в нем есть изменение коллекции - к изменениям, чтобы его не отклонили при перегрузке
+     * @param requestCommand запрос
+     * @return класс нагрузки
+     */
+    public CommandClass classify(RequestCommand requestCommand) {
+        if (!(requestCommand instanceof BatchRequestCommand batchRequestCommand)) {
+            return commandManager.classify(requestCommand);
+        }
+        CommandClass result = CommandClass.CHEAP_READ;
+        for (RequestCommand command : batchRequestCommand.getCommands()) {
+            CommandClass commandClass = commandManager.classify(command);
+            if (commandClass == CommandClass.WRITE) return CommandClass.WRITE;
+            if (commandClass == CommandClass.HEAVY_READ) result = CommandClass.HEAVY_READ;
+        }
+        return result;
+    }
+
+    /**
+     * Выполнение пакета команд за одну диспетчеризацию.
+     * Блокировка коллекции захватывается один раз на весь пакет, команды выполняются по порядку,
+     * ошибка одной команды не прерывает выполнение остальных
+     * @param batchRequestCommand пакет команд
+     * @param session сессия клиента
+     * @return ответы на все команды пакета
+     */
+    private Response handleBatch(BatchRequestCommand batchRequestCommand, ClientSession session) {
+        if (batchRequestCommand.getCommands().size() > ServerConfig.MAX_BATCH_SIZE) {
+            return new Response(ResponseStatus.ARGS_ERROR, "Слишком много команд в пакете (максимум " + ServerConfig.MAX_BATCH_SIZE + ")");
+        }
+
+        CommandStats stats = commandManager.getMetricsRegistry().get(BatchRequestCommand.COMMAND_NAME);
+        ArrayList<Response> responses = new ArrayList<>(batchRequestCommand.getCommands().size());
+        CollectionManager.getLock().lock();
+        long startTime = System.nanoTime();
+        try {
+            for (RequestCommand requestCommand : batchRequestCommand.getCommands()) {
+                if (requestCommand instanceof BatchRequestCommand) {
+                    responses.add(new Response(ResponseStatus.COMMAND_ERROR, "Вложенные пакеты не поддерживаются"));
+                    continue;
+                }
+                responses.add(handleRequestCommand(requestCommand, session));
+            }
+        } finally {
+            stats.record(ResponseStatus.OK, System.nanoTime() - startTime);
+            CollectionManager.getLock().unlock();
+        }
+        return new BatchResponse(responses);
+    }
 }
@@ -1,7 +1,9 @@
 package org.example.server.managers;
 
-import lombok.AllArgsConstructor;
+import ch.qos.logback.classic.LoggerContext;
+import lombok.RequiredArgsConstructor;
 import org.example.common.utils.Printable;
+import org.example.server.utils.ServerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,28 +11,34 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 
 /**
- * Класс для управления жизненным циклом сервера (запуск, завершение работы)
+ * Класс для управления жизненным циклом сервера (запуск, завершение работы).
+ * Остановка поэтапная и запускается сигналом (Ctrl+C, SIGTERM) или командой shutdown:
+ * сервер перестает принимать запросы, дожидается выполнения принятых и отправки ответов,
+ * и только после остановки цикла селектора коллекция сохраняется в файл, а журналы сбрасываются на диск
  * @author maxkarn
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RuntimeManager implements Runnable {
     private final Printable consoleOutput;
     private final Server server;
     private final FileManager fileManager;
 
+    private boolean finished;
+
     public static final Logger logger = LoggerFactory.getLogger(RuntimeManager.class);
 
     @Override
     public void run() {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            saveCollection();
+            server.shutdown(ServerConfig.SHUTDOWN_TIMEOUT_MS);
             try {
-                server.stop();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+                if (!server.awaitTermination(ServerConfig.SHUTDOWN_TIMEOUT_MS + 1000)) {
+                    logger.warn("Сервер не остановился за отведенное время");
+                }
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
             }
-
-            logger.info("⚡ Сервер - В С Ё.");
+            finish();
         }));
 
         try {
@@ -40,9 +48,28 @@ public class RuntimeManager implements Runnable {
         } catch (IOException ioException) {
             throw new RuntimeException(ioException);
         }
+        // цикл селектора завершился после команды shutdown
+        finish();
+    }
+
+    /**
+     * Последний этап остановки: сохранение коллекции и сброс журналов. Выполняется один раз
+     */
+    private synchronized void finish() {
+        if (finished) return;
+        finished = true;
+        saveCollection();
+        logger.info("⚡ Сервер - В С Ё.");
+        // асинхронные аппендеры дописывают очереди
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext) loggerContext.stop();
     }
 
+    /**
+     * Сохранение коллекции в файл. Снимок берется под блокировкой коллекции, поэтому он согласован,
+     * даже если какая-то команда еще выполняется
+     */
     public void saveCollection() {
+        CollectionManager.getLock().lock();
         try {
             fileManager.serializeCollectionToJSON(CollectionManager.getCollection());
             if (CollectionManager.getCollection().isEmpty()) consoleOutput.println("Внимание: вы записали в файл пустую коллекцию");
@@ -51,6 +78,8 @@ public class RuntimeManager implements Runnable {
             // программа гарантирует, что мы сюда не попадем
             consoleOutput.printError("Файл для сохранения не найден");
             throw new RuntimeException(fileNotFoundException);
+        } finally {
+            CollectionManager.getLock().unlock();
         }
     }
 }
@@ -0,0 +1,131 @@
+package org.example.server.managers;
+
+import org.example.common.dtp.BatchResponse;
+import org.example.common.dtp.RequestCommand;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.common.dtp.ScriptRequestCommand;
+import org.example.common.dtp.ScriptResponse;
+import org.example.common.entity.Ticket;
+import org.example.common.exceptions.NoSuchCommand;
+import org.example.common.utils.TicketParser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Выполнение присланного клиентом скрипта на стороне сервера.
+ * Команды выполняются по порядку через {@link CommandManager}; если команде нужен объект,
+ * он читается из следующих {@link TicketParser#FIELD_COUNT} строк скрипта.
+ * Один экземпляр выполняет один скрипт
+ */
+public class ScriptExecutor {
+    private final CommandManager commandManager;
+    private final ScriptRequestCommand scriptRequestCommand;
+    private final ClientSession session;
+
+    /**
+     * Запущенные на данный момент файлы (для проверки на рекурсию)
+     */
+    private final ArrayDeque<String> launchedFiles = new ArrayDeque<>();
+
+    private final ArrayList<String> commandLines = new ArrayList<>();
+    private final ArrayList<Response> responses = new ArrayList<>();
+
+    public ScriptExecutor(CommandManager commandManager, ScriptRequestCommand scriptRequestCommand, ClientSession session) {
+        this.commandManager = commandManager;
+        this.scriptRequestCommand = scriptRequestCommand;
+        this.session = session;
+    }
+
+    /**
+     * Выполняет скрипт целиком
+     * @return сводный ответ по всем выполненным командам
+     */
+    public ScriptResponse execute() {
+        String fileName = scriptRequestCommand.getFileName();
+        String message;
+        try {
+            runFile(fileName, fileName);
+            message = String.format("Скрипт \"%s\" выполнен. %s", fileName, BatchResponse.summary(responses));
+        } catch (ScriptAbortedException scriptAbortedException) {
+            message = String.format("Выполнение скрипта \"%s\" прервано: %s. %s", fileName, scriptAbortedException.getMessage(), BatchResponse.summary(responses));
+        }
+        return new ScriptResponse(message, commandLines, responses);
+    }
+
+    private void runFile(String fileName, String label) throws ScriptAbortedException {
+        if (launchedFiles.contains(fileName)) {
+            addResult(label, new Response(ResponseStatus.COMMAND_ERROR, String.format("Исполняемый файл %s был вызван более одного раза в рамках одного скрипта. Исправьте код.", fileName)));
+            return;
+        }
+        String content = scriptRequestCommand.getScripts().get(fileName);
+        if (content == null) {
+            addResult(label, new Response(ResponseStatus.COMMAND_ERROR, String.format("Исполняемый файл \"%s\" не найден", fileName)));
+            return;
+        }
+
+        launchedFiles.push(fileName);
+        List<String> lines = content.lines().toList();
+        for (int i = 0; i < lines.size(); i++) {
+            String queryString = lines.get(i).trim();
+            if (queryString.isBlank()) continue;
+
+            String lineLabel = String.format("%s:%d: %s", fileName, i + 1, queryString);
+            String[] queryParts = queryString.split(" ");
+            ArrayList<String> args = new ArrayList<>(Arrays.asList(Arrays.copyOfRange(queryParts, 1, queryParts.length)));
+
+            if (queryParts[0].equals(ScriptRequestCommand.COMMAND_NAME)) {
+                if (args.size() != 1) {
+                    addResult(lineLabel, new Response(ResponseStatus.ARGS_ERROR, "Неверное использование аргументов. Нужно указать один файл"));
+                } else {
+                    runFile(args.get(0), lineLabel);
+                }
+                continue;
+            }
+
+            Response response = executeCommand(new RequestCommand(queryParts[0], args));
+            if (response.getResponseStatus() == ResponseStatus.OBJECT_REQUIRED) {
+                List<String> fields = lines.subList(i + 1, Math.min(i + 1 + TicketParser.FIELD_COUNT, lines.size()));
+                Ticket ticket;
+                try {
+                    ticket = TicketParser.parse(fields);
+                } catch (IllegalArgumentException illegalArgumentException) {
+                    addResult(lineLabel, new Response(ResponseStatus.VALIDATION_ERROR, illegalArgumentException.getMessage()));
+                    throw new ScriptAbortedException(String.format("некорректный объект в %s:%d", fileName, i + 1));
+                }
+                i += TicketParser.FIELD_COUNT;
+                response = executeCommand(new RequestCommand(queryParts[0], args, ticket));
+            }
+            addResult(lineLabel, response);
+        }
+        launchedFiles.pop();
+    }
+
+    private Response executeCommand(RequestCommand requestCommand) {
+        try {
+            return commandManager.execute(requestCommand, session);
+        } catch (NoSuchCommand noSuchCommand) {
+            return new Response(ResponseStatus.NO_SUCH_COMMAND, "Команда \"" + requestCommand.getCommandName() + "\" не найдена");
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return new Response(ResponseStatus.ARGS_ERROR, "Неверное использование аргументов. " + illegalArgumentException.getMessage());
+        }
+    }
+
+    private void addResult(String commandLine, Response response) {
+        commandLines.add(commandLine);
+        responses.add(response);
+    }
+
+    /**
+     * Прерывание скрипта, после которого продолжать выполнение нельзя
+     * (например, строки объекта не разобрались и дальше текст скрипта читается со сдвигом)
+     */
+    private static class ScriptAbortedException extends Exception {
+        ScriptAbortedException(String message) {
+            super(message);
+        }
+    }
+}
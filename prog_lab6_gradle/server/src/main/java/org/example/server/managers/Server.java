@@ -1,26 +1,73 @@
 package org.example.server.managers;
 
+import org.example.common.dtp.BufferPool;
+import org.example.common.dtp.BusyResponse;
+import org.example.common.dtp.ByteBufferOutputStream;
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.FrameReader;
 import org.example.common.dtp.ObjectSerializer;
 import org.example.common.dtp.RequestCommand;
 import org.example.common.dtp.Response;
 import org.example.common.dtp.ResponseStatus;
 import org.example.server.cli.ConsoleOutput;
+import org.example.server.command.CommandClass;
+import org.example.server.metrics.MetricsRegistry;
+import org.example.server.utils.ServerConfig;
+import org.example.server.utils.TimerWheel;
+import org.example.server.utils.TokenBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class Server {
     private final int port;
     private final RequestCommandHandler requestCommandHandler;
     private final ConsoleOutput consoleOutput;
+    private final MetricsRegistry metricsRegistry;
+    private final AccessLog accessLog = new AccessLog(ServerConfig.ACCESS_LOG_SAMPLE_RATE);
+    private final ChangeFeed changeFeed;
+
+    /**
+     * Прямые буферы для чтения запросов и сериализации ответов. Используется только потоком селектора
+     */
+    private final BufferPool bufferPool = new BufferPool(ServerConfig.BUFFER_POOL_SIZE);
+
+    /**
+     * Таймеры простоя соединений: такт 1 с
+     */
+    private final TimerWheel<ClientSession> idleTimers = new TimerWheel<>(1000, 512, now());
+
+    /**
+     * Очередность выполнения запросов разных клиентов
+     */
+    private final FairScheduler scheduler = new FairScheduler(TimeUnit.MICROSECONDS.toNanos(ServerConfig.SCHEDULER_QUANTUM_MICROS));
+
+    /**
+     * Отклонение тяжелых запросов при перегрузке
+     */
+    private final AdmissionController admissionController = new AdmissionController(TimeUnit.MILLISECONDS.toNanos(ServerConfig.OVERLOAD_HEAVY_READ_MS));
+
+    private int connectionCount;
+
+    /**
+     * Запрошена остановка (из любого потока): сервер перестает принимать подключения и читать запросы,
+     * дожидается выполнения принятых запросов и отправки ответов, но не дольше срока, и закрывает соединения
+     */
+    private volatile boolean shutdownRequested;
+    private volatile long shutdownDeadlineNs;
+    private boolean draining;
+    private final CountDownLatch terminated = new CountDownLatch(1);
 
     private ServerSocketChannel serverSocketChannel;
     private Selector selector;
@@ -30,107 +77,452 @@ public class Server {
 
     public static Logger logger = LoggerFactory.getLogger(Server.class);
 
-    public Server(int port, RequestCommandHandler requestCommandHandler, ConsoleOutput consoleOutput) {
+    public Server(int port, RequestCommandHandler requestCommandHandler, ConsoleOutput consoleOutput, MetricsRegistry metricsRegistry) {
+        this(port, requestCommandHandler, consoleOutput, metricsRegistry, new ChangeFeed(ServerConfig.SUBSCRIBER_QUEUE_BYTES));
+    }
+
+    public Server(int port, RequestCommandHandler requestCommandHandler, ConsoleOutput consoleOutput, MetricsRegistry metricsRegistry, ChangeFeed changeFeed) {
         this.port = port;
         this.requestCommandHandler = requestCommandHandler;
         this.consoleOutput = consoleOutput;
+        this.metricsRegistry = metricsRegistry;
+        this.changeFeed = changeFeed;
     }
 
     public void start() throws IOException {
-        selector = Selector.open();
-        serverSocketChannel = ServerSocketChannel.open();
         try {
-            serverSocketChannel.bind(new InetSocketAddress(port));
-        } catch (IllegalArgumentException illegalArgumentException) {
-            throw new IOException("Недопустимый порт");
-        }
-        serverSocketChannel.configureBlocking(false);
-        serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
-
-        isRunning = true;
-        while (isRunning) {
+            selector = Selector.open();
+            serverSocketChannel = ServerSocketChannel.open();
             try {
-                selector.select(200);
-                Set<SelectionKey> selectedKeys = selector.selectedKeys();
-                Iterator<SelectionKey> iter = selectedKeys.iterator();
+                serverSocketChannel.bind(new InetSocketAddress(port));
+            } catch (IllegalArgumentException illegalArgumentException) {
+                throw new IOException("Недопустимый порт");
+            }
+            serverSocketChannel.configureBlocking(false);
+            serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
 
-                while (iter.hasNext()) {
-                    SelectionKey key = iter.next();
-                    iter.remove();
+            isRunning = true;
+            while (isRunning) {
+                try {
+                    // пока есть невыполненные запросы, селектор только опрашивается, чтобы не ждать сетевых событий
+                    if (scheduler.hasWork()) selector.selectNow();
+                    else selector.select(200);
+                    Set<SelectionKey> selectedKeys = selector.selectedKeys();
+                    Iterator<SelectionKey> iter = selectedKeys.iterator();
 
-                    if (key.isAcceptable()) {
-                        handleAccept(key);
-                    }
-                    else if (key.isReadable()) {
-                        handleRead(key);
+                    while (iter.hasNext()) {
+                        SelectionKey key = iter.next();
+                        iter.remove();
+
+                        if (key.isAcceptable()) {
+                            handleAccept(key);
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            handleRead(key);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(key);
+                        }
                     }
+                    scheduler.run(this::executeNext, this::finishTurn);
+                    changeFeed.dispatch();
+                    idleTimers.advance(now(), this::checkIdle);
+                    if (shutdownRequested && drain()) break;
+                } catch (ClosedSelectorException e) {
+                    logger.error("Селектор закрыт: {}", e.getMessage());
+                    break;
+                } catch (SocketException e) {
+                    logger.error("Ошибка сокетов: {}", e.getMessage());
                 }
-            } catch (ClosedSelectorException e) {
-                logger.error("Селектор закрыт: {}", e.getMessage());
-                break;
-            } catch (SocketException e) {
-                logger.error("Ошибка сокетов: {}", e.getMessage());
             }
+        } finally {
+            isRunning = false;
+            closeAll();
+            terminated.countDown();
+        }
+    }
+
+    /**
+     * Плавная остановка: сервер перестает принимать подключения и читать новые запросы,
+     * выполняет уже принятые и отправляет ответы, после чего {@link #start()} завершается.
+     * Можно вызывать из любого потока
+     * @param timeoutMs сколько мс ждать выполнения принятых запросов и отправки ответов (0 - закрыться сразу)
+     */
+    public void shutdown(long timeoutMs) {
+        shutdownDeadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        shutdownRequested = true;
+        if (selector != null) selector.wakeup();
+    }
+
+    /**
+     * Ожидание завершения цикла селектора после {@link #shutdown(long)}
+     * @param timeoutMs сколько ждать
+     * @return true если сервер остановлен: коллекция больше не меняется, соединения закрыты
+     */
+    public boolean awaitTermination(long timeoutMs) throws InterruptedException {
+        return terminated.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
 
+    /**
+     * Шаг плавной остановки, выполняется в конце каждой итерации цикла селектора после запроса остановки
+     * @return true если можно закрываться: принятые запросы выполнены и ответы отправлены либо истек срок
+     */
+    private boolean drain() throws IOException {
+        if (!draining) {
+            draining = true;
+            serverSocketChannel.close();
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid() && key.attachment() instanceof ClientSession) {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+            }
+            logger.info("Остановка сервера: новые подключения и запросы не принимаются");
+        }
+        if (System.nanoTime() - shutdownDeadlineNs >= 0) {
+            if (scheduler.hasWork()) logger.warn("Срок остановки истек, невыполненные запросы отброшены");
+            return true;
         }
+        if (scheduler.hasWork()) return false;
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof ClientSession session && session.getOutboundBytes() > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Закрытие всех соединений, серверного канала и селектора
+     */
+    private void closeAll() throws IOException {
+        if (selector == null || !selector.isOpen()) return;
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof ClientSession) closeConnection(key);
+        }
+        serverSocketChannel.close();
+        selector.close();
+        logger.info("Сокеты и селекторы были закрыты");
     }
 
     private void handleAccept(SelectionKey key) throws IOException {
         ServerSocketChannel keyChannel = (ServerSocketChannel) key.channel();
         SocketChannel clientChannel = keyChannel.accept();
+        if (clientChannel == null) return;
         clientChannel.configureBlocking(false);
-        clientChannel.register(selector, SelectionKey.OP_READ);
+        if (connectionCount >= ServerConfig.MAX_CONNECTIONS) {
+            rejectConnection(clientChannel);
+            return;
+        }
+        // ответы на конвейерные запросы не должны ждать подтверждения предыдущих (алгоритм Нейгла)
+        clientChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        ClientSession session = new ClientSession(String.valueOf(clientChannel.getRemoteAddress()), bufferPool);
+        session.setKey(clientChannel.register(selector, SelectionKey.OP_READ, session));
+        session.setLastActivityMs(now());
+        if (ServerConfig.IDLE_TIMEOUT_MS > 0) idleTimers.schedule(session, now() + ServerConfig.IDLE_TIMEOUT_MS);
+        connectionCount++;
 
-        logger.info("Connected to: {}", clientChannel.getRemoteAddress());
+        logger.info("Connected to: {}", session.getRemoteAddress());
     }
 
-    private void handleRead(SelectionKey key) throws IOException {
+    /**
+     * Отказ в подключении сверх {@link ServerConfig#MAX_CONNECTIONS}: клиент получает ответ с ошибкой, соединение закрывается
+     */
+    private void rejectConnection(SocketChannel clientChannel) {
+        logger.warn("Отклонено подключение {}: достигнут предел в {} подключений", clientChannel.socket().getRemoteSocketAddress(), ServerConfig.MAX_CONNECTIONS);
+        try (clientChannel) {
+            clientChannel.write(ByteBuffer.wrap(FrameCodec.encode(new Response(ResponseStatus.SERVER_ERROR, "Сервер перегружен: слишком много подключений"))));
+        } catch (IOException ignored) {
+            // клиент узнает об отказе по закрытию соединения
+        }
+    }
+
+    private void handleRead(SelectionKey key) {
         SocketChannel clientChannel = (SocketChannel) key.channel();
-        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        ClientSession session = (ClientSession) key.attachment();
 
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
         int bytesRead;
-        while ((bytesRead = clientChannel.read(buffer)) > 0) {
-            buffer.flip();
-            byteStream.write(buffer.array(), 0, bytesRead);
-            buffer.clear();
+        try {
+            bytesRead = session.getFrameReader().readFrom(clientChannel);
+        } catch (IOException ioException) {
+            bytesRead = -1;
         }
-
         if (bytesRead == -1) {
-            clientChannel.close();
+            logger.info("Disconnected: {}", session.getRemoteAddress());
+            closeConnection(key);
+            return;
+        }
+        session.setLastActivityMs(now());
+        if (!admitRequests(key)) return;
+        scheduler.schedule(session);
+        flush(key);
+    }
+
+    /**
+     * Разбор полученных кадров в очередь запросов клиента (пока в ней есть место).
+     * Запросы сверх лимита частоты и тяжелые запросы при перегрузке не ставятся в очередь, а сразу получают ответ BUSY или OVERLOADED
+     * @return false если данные некорректны и соединение закрыто
+     */
+    private boolean admitRequests(SelectionKey key) {
+        ClientSession session = (ClientSession) key.attachment();
+        TokenBucket rateLimiter = session.getRateLimiter();
+        try {
+            ByteBuffer receivedData;
+            while (session.isReadable() && (receivedData = session.getFrameReader().nextFrameBuffer()) != null) {
+                long receivedTime = System.nanoTime();
+                int requestSize = receivedData.remaining();
+                RequestCommand requestCommand = decodeRequest(receivedData);
+                if (requestCommand != null && rateLimiter != null && !rateLimiter.tryAcquire(receivedTime)) {
+                    long retryAfterMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(rateLimiter.nanosUntilAvailable(receivedTime)));
+                    reject(session, requestCommand, new BusyResponse(retryAfterMs), requestSize, receivedTime);
+                    continue;
+                }
+                CommandClass commandClass = requestCommand != null ? requestCommandHandler.classify(requestCommand) : CommandClass.CHEAP_READ;
+                if (requestCommand != null && !admissionController.admit(commandClass)) {
+                    long retryAfterMs = admissionController.getRetryAfterMs();
+                    reject(session, requestCommand, new BusyResponse(ResponseStatus.OVERLOADED, "Сервер перегружен, повторите через " + retryAfterMs + " мс", retryAfterMs), requestSize, receivedTime);
+                    continue;
+                }
+                session.getRequests().add(new ClientSession.QueuedRequest(requestCommand, commandClass, requestSize, receivedTime));
+                admissionController.onQueued();
+            }
+            return true;
+        } catch (IOException ioException) {
+            logger.warn("Некорректные данные от {}: {}. Соединение закрыто", session.getRemoteAddress(), ioException.getMessage());
+            closeConnection(key);
+            return false;
+        }
+    }
+
+    /**
+     * Немедленный ответ на запрос, который не будет выполнен
+     */
+    private void reject(ClientSession session, RequestCommand requestCommand, BusyResponse response, int requestSize, long receivedTime) throws IOException {
+        response.setRequestId(requestCommand.getRequestId());
+        metricsRegistry.get(requestCommand.getCommandName()).record(response.getResponseStatus(), System.nanoTime() - receivedTime);
+        enqueueResponse(session, respond(session, requestCommand, response, requestSize, receivedTime));
+    }
+
+    /**
+     * Выполнение следующего запроса из очереди клиента (вызывается планировщиком)
+     */
+    private void executeNext(ClientSession session) {
+        ClientSession.QueuedRequest request = session.getRequests().poll();
+        admissionController.onDequeued(1);
+        if (request.isExpired(System.nanoTime())) {
+            dropExpired(session, request);
             return;
         }
+        try {
+            long startTime = System.nanoTime();
+            Response response = handleRequest(session, request.command());
+            long endTime = System.nanoTime();
+            admissionController.recordExecution(endTime - startTime);
+            // изменения уже применены, но сериализовать и отправлять ответ, который никто не прочитает, незачем
+            if (request.isExpired(endTime)) {
+                dropExpired(session, request);
+                return;
+            }
+            enqueueResponse(session, respond(session, request.command(), response, request.size(), request.receivedNs()));
+        } catch (IOException ioException) {
+            logger.error("Не удалось отправить ответ {}: {}. Соединение закрыто", session.getRemoteAddress(), ioException.getMessage());
+            closeConnection(session.getKey());
+        }
+    }
 
-        byte[] receivedData = byteStream.toByteArray();
+    /**
+     * Запрос, таймаут которого истек, отбрасывается без ответа: клиент его уже не ждет
+     */
+    private void dropExpired(ClientSession session, ClientSession.QueuedRequest request) {
+        metricsRegistry.get(request.command().getCommandName()).recordExpired();
+        logger.debug("Запрос {} от {} отброшен: истек таймаут клиента {} мс", request.command().getCommandName(), session.getRemoteAddress(), request.command().getTimeoutMs());
+    }
 
-        // ignore stupid requests
-        if (receivedData.length == 0) return;
+    /**
+     * Завершение хода клиента у планировщика: в освободившееся место очереди принимаются уже прочитанные запросы,
+     * ответы отправляются
+     */
+    private void finishTurn(ClientSession session) {
+        SelectionKey key = session.getKey();
+        if (!key.isValid() || !admitRequests(key)) return;
+        flush(key);
+    }
 
-        logger.info("Got REQUEST from: {}", clientChannel.getRemoteAddress());
+    /**
+     * Ставит кадр ответа в очередь на запись. Когда очередь ответов превышает {@link ServerConfig#OUTBOUND_LIMIT_BYTES},
+     * запросы клиента больше не выполняются и не читаются, пока клиент не заберет ответы до половины предела
+     */
+    private void enqueueResponse(ClientSession session, ByteBuffer frame) {
+        session.enqueueResponse(frame);
+        if (!session.isReadPaused() && session.getOutboundBytes() > ServerConfig.OUTBOUND_LIMIT_BYTES) {
+            session.setReadPaused(true);
+            logger.debug("Чтение от {} приостановлено: {} байт ответов ждут отправки", session.getRemoteAddress(), session.getOutboundBytes());
+        }
+    }
 
+    /**
+     * Запись накопленных ответов в канал и выбор операций, которых ждать от селектора:
+     * чтение - пока в очереди запросов есть место, клиент забирает ответы и сервер не останавливается,
+     * запись - пока есть что отправлять
+     */
+    private void flush(SelectionKey key) {
+        ClientSession session = (ClientSession) key.attachment();
         try {
-            RequestCommand requestCommand = (RequestCommand) ObjectSerializer.deserializeObject(receivedData);
-            Response response = requestCommandHandler.handleRequestCommand(requestCommand);
-            clientChannel.write(ByteBuffer.wrap(ObjectSerializer.serializeObject(response)));
+            session.flushTo((SocketChannel) key.channel());
+        } catch (IOException ioException) {
+            logger.info("Disconnected: {} ({})", session.getRemoteAddress(), ioException.getMessage());
+            closeConnection(key);
+            return;
+        }
 
-            logger.info("COMMAND NAME: \"{}\"; ARGS: \"{}\"", requestCommand.getCommandName(), requestCommand.getArgs());
-            logger.info("Sent RESPONSE to \"{}\" successfully ({})", clientChannel.getRemoteAddress(), response.getResponseStatus());
+        if (session.isReadPaused() && session.getOutboundBytes() <= ServerConfig.OUTBOUND_LIMIT_BYTES / 2) {
+            session.setReadPaused(false);
+            if (!admitRequests(key)) return;
+            scheduler.schedule(session);
+        }
+        int interestOps = session.isReadable() && !draining ? SelectionKey.OP_READ : 0;
+        if (session.getOutboundBytes() > 0) interestOps |= SelectionKey.OP_WRITE;
+        key.interestOps(interestOps);
+    }
 
-        } catch (ClassNotFoundException e) {
-            Response errorResponse = new Response(ResponseStatus.COMMAND_ERROR, "Некорректный объект команды");
-            clientChannel.write(ByteBuffer.wrap(ObjectSerializer.serializeObject(errorResponse)));
+    /**
+     * Срабатывание таймера простоя: соединение закрывается, если от клиента давно ничего не приходило,
+     * иначе таймер переставляется от последней активности
+     */
+    private void checkIdle(ClientSession session) {
+        SelectionKey key = session.getKey();
+        if (key == null || !key.isValid()) return;
+        long deadline = session.getLastActivityMs() + ServerConfig.IDLE_TIMEOUT_MS;
+        if (session.isSubscribed()) deadline = Math.max(deadline, now() + ServerConfig.IDLE_TIMEOUT_MS);
+        if (deadline > now()) {
+            idleTimers.schedule(session, deadline);
+            return;
+        }
+        logger.info("Соединение {} закрыто после {} мс простоя", session.getRemoteAddress(), ServerConfig.IDLE_TIMEOUT_MS);
+        closeConnection(key);
+    }
 
-            logger.warn("Got INCORRECT request FROM \"{}\". Sent response successfully ({})", clientChannel.getRemoteAddress(), errorResponse.getResponseStatus());
+    private void closeConnection(SelectionKey key) {
+        ClientSession session = (ClientSession) key.attachment();
+        changeFeed.unsubscribe(session);
+        admissionController.onDequeued(session.getRequests().size());
+        session.release();
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ioException) {
+            logger.warn("Ошибка закрытия соединения {}: {}", session.getRemoteAddress(), ioException.getMessage());
         }
+        connectionCount--;
     }
 
-    public void stop() throws IOException {
-        isRunning = false;
-        selector.wakeup();
-        serverSocketChannel.close();
-        selector.close();
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
 
-        logger.info("Сокеты и селекторы были закрыты");
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Обработка одного запроса в обход планировщика: десериализация, выполнение команды, сериализация ответа,
+     * учет трафика и одна запись в журнале доступа
+     * @param session сессия клиента
+     * @param receivedData сериализованный запрос (например, срез буфера чтения)
+     * @return кадр ответа в режиме чтения в буфере из пула; вызывающий должен вернуть его в пул
+     * @throws IOException при ошибке сериализации
+     */
+    public ByteBuffer processRequest(ClientSession session, ByteBuffer receivedData) throws IOException {
+        long startTime = System.nanoTime();
+        int requestSize = receivedData.remaining();
+        return execute(session, decodeRequest(receivedData), requestSize, startTime);
+    }
+
+    /**
+     * @return запрос или null, если в кадре не объект команды
+     * @throws IOException если данные повреждены
+     */
+    private RequestCommand decodeRequest(ByteBuffer receivedData) throws IOException {
+        try {
+            return (RequestCommand) ObjectSerializer.deserializeObject(receivedData);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    private ByteBuffer execute(ClientSession session, RequestCommand requestCommand, int requestSize, long startTime) throws IOException {
+        return respond(session, requestCommand, handleRequest(session, requestCommand), requestSize, startTime);
+    }
+
+    /**
+     * Выполнение команды запроса.
+     * Непредвиденная ошибка команды становится ответом SERVER_ERROR на этот запрос и не останавливает цикл сервера
+     * @param requestCommand запрос или null, если данные не удалось разобрать
+     */
+    private Response handleRequest(ClientSession session, RequestCommand requestCommand) {
+        if (requestCommand == null) return new Response(ResponseStatus.COMMAND_ERROR, "Некорректный объект команды");
+        Response response;
+        try {
+            response = requestCommandHandler.handleRequestCommand(requestCommand, session);
+        } catch (RuntimeException runtimeException) {
+            logger.error("Ошибка выполнения команды {} от {}", requestCommand.getCommandName(), session.getRemoteAddress(), runtimeException);
+            response = new Response(ResponseStatus.SERVER_ERROR, "Внутренняя ошибка сервера при выполнении команды " + requestCommand.getCommandName());
+        }
+        response.setRequestId(requestCommand.getRequestId());
+        return response;
+    }
+
+    /**
+     * Сериализация ответа, учет трафика и запись в журнале доступа
+     * @param startTime время получения запроса: в журнал попадает и ожидание в очереди
+     */
+    private ByteBuffer respond(ClientSession session, RequestCommand requestCommand, Response response, int requestSize, long startTime) throws IOException {
+        ByteBuffer responseFrame = serializeFrame(response);
+        int responseSize = responseFrame.remaining() - FrameCodec.HEADER_SIZE;
+
+        if (requestCommand != null) {
+            metricsRegistry.get(requestCommand.getCommandName()).recordTraffic(requestSize, responseSize);
+        }
+        accessLog.log(session, requestCommand, response.getResponseStatus(), requestSize, responseSize, System.nanoTime() - startTime);
+        return responseFrame;
+    }
+
+    /**
+     * Сериализация ответа сразу в кадр в буфере из пула: место под заголовок пропускается
+     * и заполняется длиной, когда тело уже записано
+     */
+    private ByteBuffer serializeFrame(Response response) throws IOException {
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream(bufferPool, BUFFER_SIZE);
+        try {
+            outputStream.skip(FrameCodec.HEADER_SIZE);
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+                objectOutputStream.writeObject(response);
+            }
+        } catch (IOException | RuntimeException exception) {
+            bufferPool.release(outputStream.getBuffer());
+            throw exception;
+        }
+        ByteBuffer frame = outputStream.getBuffer();
+        frame.flip();
+        frame.putInt(0, frame.remaining() - FrameCodec.HEADER_SIZE);
+        return frame;
+    }
+
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    public AccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * Остановка без ожидания принятых запросов
+     */
+    public void stop() {
+        shutdown(0);
     }
 
 }
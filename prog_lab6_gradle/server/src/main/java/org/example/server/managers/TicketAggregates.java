@@ -0,0 +1,157 @@
+package org.example.server.managers;
+
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.example.server.query.TicketField;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Агрегаты цены и скидки билетов в разрезе типа билета и возвратности.
+ * Обновляются при каждом изменении коллекции за O(log n), поэтому отчет строится за O(число групп)
+ * без обхода коллекции. Минимум и максимум хранятся в упорядоченных мультимножествах значений,
+ * поэтому удаление крайнего элемента корректно открывает следующий.
+ * Изменяется только под блокировкой коллекции
+ */
+public class TicketAggregates {
+    /**
+     * Группа билетов
+     * @param type тип билета (null - тип не указан)
+     * @param refundable возвратный ли билет
+     */
+    public record GroupKey(TicketType type, boolean refundable) {
+    }
+
+    private static final Comparator<GroupKey> GROUP_ORDER = Comparator
+            .comparing(GroupKey::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(GroupKey::refundable);
+
+    /**
+     * Агрегаты одного числового поля
+     */
+    public static class FieldStats {
+        private long count;
+        private double sum;
+
+        /**
+         * Значения поля с числом повторений (упорядоченное мультимножество)
+         */
+        private final TreeMap<Double, Integer> values = new TreeMap<>();
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            values.merge(value, 1, Integer::sum);
+        }
+
+        private void remove(double value) {
+            count--;
+            sum -= value;
+            values.computeIfPresent(value, (key, repeats) -> repeats == 1 ? null : repeats - 1);
+        }
+
+        /**
+         * Добавляет к сводке агрегаты другой группы (для итогов по всей коллекции)
+         */
+        private void merge(FieldStats other) {
+            count += other.count;
+            sum += other.sum;
+            if (other.values.isEmpty()) return;
+            values.merge(other.values.firstKey(), 1, Integer::sum);
+            values.merge(other.values.lastKey(), 1, Integer::sum);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        /**
+         * @return среднее значение или NaN, если значений нет
+         */
+        public double getMean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        /**
+         * @return минимальное значение или NaN, если значений нет
+         */
+        public double getMin() {
+            return values.isEmpty() ? Double.NaN : values.firstKey();
+        }
+
+        /**
+         * @return максимальное значение или NaN, если значений нет
+         */
+        public double getMax() {
+            return values.isEmpty() ? Double.NaN : values.lastKey();
+        }
+    }
+
+    /**
+     * Агрегаты группы билетов
+     */
+    public static class GroupStats {
+        private final FieldStats price = new FieldStats();
+        private final FieldStats discount = new FieldStats();
+
+        public FieldStats getPrice() {
+            return price;
+        }
+
+        public FieldStats getDiscount() {
+            return discount;
+        }
+    }
+
+    private final TreeMap<GroupKey, GroupStats> groups = new TreeMap<>(GROUP_ORDER);
+
+    public void add(Ticket ticket) {
+        GroupStats group = groups.computeIfAbsent(keyOf(ticket), key -> new GroupStats());
+        group.price.add(ticket.getPrice());
+        group.discount.add(TicketField.floatToDouble(ticket.getDiscount()));
+    }
+
+    public void remove(Ticket ticket) {
+        GroupKey key = keyOf(ticket);
+        GroupStats group = groups.get(key);
+        if (group == null) return;
+        group.price.remove(ticket.getPrice());
+        group.discount.remove(TicketField.floatToDouble(ticket.getDiscount()));
+        // пустая группа удаляется целиком, заодно обнуляя накопленную погрешность суммы
+        if (group.price.count == 0) groups.remove(key);
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+
+    /**
+     * @return агрегаты непустых групп в порядке типа и возвратности
+     */
+    public Map<GroupKey, GroupStats> getGroups() {
+        return Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * Итоги по всей коллекции, сведенные из групп за O(число групп)
+     */
+    public GroupStats getTotal() {
+        GroupStats total = new GroupStats();
+        for (GroupStats group : groups.values()) {
+            total.price.merge(group.price);
+            total.discount.merge(group.discount);
+        }
+        return total;
+    }
+
+    private static GroupKey keyOf(Ticket ticket) {
+        return new GroupKey(ticket.getType(), ticket.isRefundable());
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.server.metrics;
+
+import org.example.common.dtp.ResponseStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Статистика выполнения одной команды: число вызовов, ответы по статусам,
+ * объем трафика и гистограмма задержек
+ */
+public class CommandStats implements CommandStatsMBean {
+    private static final ResponseStatus[] STATUSES = ResponseStatus.values();
+
+    private final String commandName;
+    private final AtomicLongArray statusCounts = new AtomicLongArray(STATUSES.length);
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public CommandStats(String commandName) {
+        this.commandName = commandName;
+    }
+
+    /**
+     * Учитывает выполнение команды
+     * @param status статус ответа
+     * @param nanos время выполнения в наносекундах
+     */
+    public void record(ResponseStatus status, long nanos) {
+        calls.incrementAndGet();
+        statusCounts.incrementAndGet(status.ordinal());
+        latency.record(nanos);
+    }
+
+    /**
+     * Учитывает трафик запроса и ответа
+     * @param in размер запроса в байтах
+     * @param out размер ответа в байтах
+     */
+    public void recordTraffic(long in, long out) {
+        bytesIn.addAndGet(in);
+        bytesOut.addAndGet(out);
+    }
+
+    /**
+     * Учитывает запрос, отброшенный без ответа, потому что клиент уже перестал его ждать
+     */
+    public void recordExpired() {
+        expired.incrementAndGet();
+    }
+
+    /**
+     * Считается ли статус ошибкой
+     * @param status статус ответа
+     * @return false для успешных и служебных статусов
+     */
+    public static boolean isError(ResponseStatus status) {
+        return switch (status) {
+            case OK, OBJECT_REQUIRED, EXECUTE_SCRIPT -> false;
+            default -> true;
+        };
+    }
+
+    public long getStatusCount(ResponseStatus status) {
+        return statusCounts.get(status.ordinal());
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getCommandName() {
+        return commandName;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public long getErrors() {
+        long errors = 0;
+        for (ResponseStatus status : STATUSES) {
+            if (isError(status)) errors += statusCounts.get(status.ordinal());
+        }
+        return errors;
+    }
+
+    @Override
+    public long getExpired() {
+        return expired.get();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMean() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.getValueAtQuantile(0.5) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getValueAtQuantile(0.99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.getValueAtQuantile(0.999) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMax() / 1000.0;
+    }
+
+    @Override
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (ResponseStatus status : STATUSES) {
+            long count = statusCounts.get(status.ordinal());
+            if (count > 0) result.put(status.name(), count);
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < STATUSES.length; i++) statusCounts.set(i, 0);
+        calls.set(0);
+        bytesIn.set(0);
+        bytesOut.set(0);
+        expired.set(0);
+        latency.reset();
+    }
+}
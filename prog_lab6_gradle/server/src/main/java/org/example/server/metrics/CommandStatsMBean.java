@@ -0,0 +1,44 @@
+package org.example.server.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX-интерфейс статистики одной команды.
+ * Регистрируется под именем org.example.server:type=CommandStats,name=&lt;команда&gt;
+ */
+public interface CommandStatsMBean {
+    String getCommandName();
+
+    long getCalls();
+
+    long getErrors();
+
+    /**
+     * @return число запросов, отброшенных по истечении таймаута клиента
+     */
+    long getExpired();
+
+    long getBytesIn();
+
+    long getBytesOut();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    /**
+     * @return число ответов с каждым статусом
+     */
+    Map<String, Long> getStatusCounts();
+
+    /**
+     * Сброс статистики
+     */
+    void reset();
+}
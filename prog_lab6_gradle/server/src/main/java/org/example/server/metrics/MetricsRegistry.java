@@ -0,0 +1,78 @@
+package org.example.server.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Реестр статистики команд.
+ * Статистика создается один раз при регистрации команды, поэтому запись
+ * на горячем пути сводится к поиску в HashMap и атомарным инкрементам
+ */
+public class MetricsRegistry {
+    /**
+     * Имя, под которым учитываются запросы несуществующих команд
+     */
+    public static final String UNKNOWN_COMMAND = "<unknown>";
+
+    public static final String JMX_DOMAIN = "org.example.server";
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    private final Map<String, CommandStats> stats = new LinkedHashMap<>();
+    private final CommandStats unknown;
+
+    public MetricsRegistry() {
+        unknown = register(UNKNOWN_COMMAND);
+    }
+
+    /**
+     * Создает статистику для команды и публикует ее в JMX
+     * @param commandName название команды
+     * @return статистика команды
+     */
+    public synchronized CommandStats register(String commandName) {
+        CommandStats existing = stats.get(commandName);
+        if (existing != null) return existing;
+
+        CommandStats commandStats = new CommandStats(commandName);
+        registerMBean(commandStats);
+        stats.put(commandName, commandStats);
+        return commandStats;
+    }
+
+    /**
+     * Статистика команды по названию
+     * @param commandName название команды
+     * @return статистика команды или статистика неизвестных команд
+     */
+    public CommandStats get(String commandName) {
+        CommandStats commandStats = stats.get(commandName);
+        return commandStats != null ? commandStats : unknown;
+    }
+
+    /**
+     * @return статистика всех зарегистрированных команд
+     */
+    public Collection<CommandStats> getAll() {
+        return Collections.unmodifiableCollection(stats.values());
+    }
+
+    private void registerMBean(CommandStats commandStats) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=CommandStats,name=" + ObjectName.quote(commandStats.getCommandName()));
+            if (!mBeanServer.isRegistered(objectName)) mBeanServer.registerMBean(commandStats, objectName);
+        } catch (JMException e) {
+            logger.warn("Не удалось зарегистрировать JMX-статистику команды \"{}\": {}", commandStats.getCommandName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Пакет со счетчиками и гистограммами задержек выполнения команд (статистика сервера и JMX)
+ */
+package org.example.server.metrics;
\ No newline at end of file
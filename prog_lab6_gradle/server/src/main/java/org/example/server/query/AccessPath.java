@@ -0,0 +1,178 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Способ получить билеты-кандидаты для запроса. Кандидаты потом проверяются полным условием,
+ * поэтому путь может вернуть лишние билеты, но не должен пропускать подходящие
+ */
+public sealed interface AccessPath {
+    /**
+     * @return оценка числа кандидатов
+     */
+    int estimatedRows();
+
+    /**
+     * Передает обработчику всех кандидатов
+     */
+    void forEach(Consumer<Ticket> action);
+
+    /**
+     * Просмотр всей коллекции
+     */
+    record FullScan(Collection<Ticket> collection) implements AccessPath {
+        @Override
+        public int estimatedRows() {
+            return collection.size();
+        }
+
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            collection.forEach(action);
+        }
+
+        @Override
+        public String toString() {
+            return "полный просмотр коллекции";
+        }
+    }
+
+    /**
+     * Поиск по первичному индексу id
+     * @param ticket найденный билет или null
+     */
+    record IdLookup(int id, Ticket ticket) implements AccessPath {
+        @Override
+        public int estimatedRows() {
+            return ticket == null ? 0 : 1;
+        }
+
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            if (ticket != null) action.accept(ticket);
+        }
+
+        @Override
+        public String toString() {
+            return "индекс id: id = " + id;
+        }
+    }
+
+    /**
+     * Поиск значения во вторичном индексе
+     */
+    record KeyLookup(FieldIndex index, Comparable<?> key) implements AccessPath {
+        @Override
+        public int estimatedRows() {
+            return index.count(key);
+        }
+
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            index.forEach(key, action);
+        }
+
+        @Override
+        public String toString() {
+            return "индекс " + index.getField() + ": " + index.getField() + " = " + (key instanceof String ? "'" + key + "'" : key);
+        }
+    }
+
+    /**
+     * Просмотр диапазона упорядоченного индекса по числовому полю
+     * @param from нижняя граница (null - без границы)
+     * @param to верхняя граница (null - без границы)
+     * @param estimatedRows оценка по равномерному распределению значений
+     */
+    record RangeScan(FieldIndex index, Double from, boolean fromInclusive, Double to, boolean toInclusive,
+                     int estimatedRows) implements AccessPath {
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            index.forEachInRange(from, fromInclusive, to, toInclusive, action);
+        }
+
+        @Override
+        public String toString() {
+            return "диапазон индекса " + index.getField() + ": "
+                    + (from == null ? "" : from + (fromInclusive ? " <= " : " < "))
+                    + index.getField()
+                    + (to == null ? "" : (toInclusive ? " <= " : " < ") + to);
+        }
+    }
+
+    /**
+     * Просмотр значений упорядоченного строкового индекса с заданным префиксом
+     * @param estimatedRows точное число или порог, выше которого подсчет остановлен
+     */
+    record PrefixScan(FieldIndex index, String prefix, int estimatedRows) implements AccessPath {
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            index.forEachWithPrefix(prefix, action);
+        }
+
+        @Override
+        public String toString() {
+            return "префикс индекса " + index.getField() + ": " + index.getField() + " startswith '" + prefix + "'";
+        }
+    }
+
+    /**
+     * Обход индекса приоритета по порядку; выполнение останавливается, набрав limit подходящих билетов
+     * @param descending с конца (для tail)
+     * @param estimatedRows сколько билетов придется просмотреть по оценке
+     */
+    record PriorityScan(NavigableSet<Ticket> order, boolean descending, int estimatedRows) implements AccessPath {
+        /**
+         * @return билеты в порядке обхода
+         */
+        public NavigableSet<Ticket> tickets() {
+            return descending ? order.descendingSet() : order;
+        }
+
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            tickets().forEach(action);
+        }
+
+        @Override
+        public String toString() {
+            return "индекс приоритета " + (descending ? "с конца" : "с начала") + " до limit подходящих";
+        }
+    }
+
+    /**
+     * Объединение путей для условий, связанных OR. Билет, найденный несколькими путями, выдается один раз
+     */
+    record Union(List<AccessPath> paths) implements AccessPath {
+        @Override
+        public int estimatedRows() {
+            long rows = 0;
+            for (AccessPath path : paths) rows += path.estimatedRows();
+            return (int) Math.min(Integer.MAX_VALUE, rows);
+        }
+
+        @Override
+        public void forEach(Consumer<Ticket> action) {
+            Set<Ticket> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (AccessPath path : paths) {
+                path.forEach(ticket -> {
+                    if (seen.add(ticket)) action.accept(ticket);
+                });
+            }
+        }
+
+        @Override
+        public String toString() {
+            return paths.stream().map(Object::toString).collect(Collectors.joining(" | ", "объединение [", "]"));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Условие запроса в виде дерева. Дерево разбирает планировщик, а для проверки билетов
+ * оно один раз компилируется в предикат
+ */
+public sealed interface Condition {
+    /**
+     * @return предикат, проверяющий билет на соответствие условию
+     */
+    Predicate<Ticket> compile();
+
+    /**
+     * Операторы сравнения
+     */
+    enum Operator {
+        EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">="), STARTS_WITH("startswith");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    /**
+     * Сравнение поля с константой
+     * @param field поле
+     * @param operator оператор
+     * @param value значение того же типа, что и значения поля (null - поле не заполнено)
+     */
+    record Comparison(TicketField field, Operator operator, Comparable<?> value) implements Condition {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Predicate<Ticket> compile() {
+            Comparable expected = value;
+            if (field.isFloat() && expected instanceof Double number) return compileFloat(number);
+            return switch (operator) {
+                case EQ -> ticket -> Objects.equals(field.get(ticket), expected);
+                case NE -> ticket -> !Objects.equals(field.get(ticket), expected);
+                case STARTS_WITH -> ticket -> ((String) field.get(ticket)).startsWith((String) expected);
+                case LT -> ordered(order -> order < 0);
+                case LE -> ordered(order -> order <= 0);
+                case GT -> ordered(order -> order > 0);
+                case GE -> ordered(order -> order >= 0);
+            };
+        }
+
+        /**
+         * Упорядоченное сравнение; с незаполненным значением оно ложно
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Predicate<Ticket> ordered(IntPredicate accepted) {
+            Comparable expected = value;
+            return ticket -> {
+                Comparable actual = field.get(ticket);
+                return actual != null && expected != null && accepted.test(actual.compareTo(expected));
+            };
+        }
+
+        /**
+         * Сравнение поля float без перевода значения каждого билета в десятичный Double.
+         * Константа один раз сводится к ближайшему float: значения по разные стороны от него упорядочены так же,
+         * как их десятичная запись, а значение, равное ему, сравнивается с константой так же, как его десятичная запись
+         */
+        private Predicate<Ticket> compileFloat(double expected) {
+            float nearest = (float) expected;
+            int tie = Double.compare(TicketField.floatToDouble(nearest), expected);
+            IntPredicate accepted = switch (operator) {
+                case EQ -> order -> order == 0;
+                case NE -> order -> order != 0;
+                case LT -> order -> order < 0;
+                case LE -> order -> order <= 0;
+                case GT -> order -> order > 0;
+                case GE -> order -> order >= 0;
+                case STARTS_WITH -> throw new IllegalArgumentException("startswith применим только к строковым полям");
+            };
+            return ticket -> {
+                int order = Float.compare(field.getFloat(ticket), nearest);
+                return accepted.test(order != 0 ? order : tie);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return field + " " + operator + " " + (value instanceof String ? "'" + value + "'" : value);
+        }
+    }
+
+    record And(List<Condition> operands) implements Condition {
+        @Override
+        public Predicate<Ticket> compile() {
+            // операнды проверяются в цикле: цепочка Predicate.and из тысяч операндов переполнила бы стек
+            List<Predicate<Ticket>> predicates = operands.stream().map(Condition::compile).toList();
+            return ticket -> {
+                for (Predicate<Ticket> predicate : predicates) {
+                    if (!predicate.test(ticket)) return false;
+                }
+                return true;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream().map(Object::toString).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+
+    record Or(List<Condition> operands) implements Condition {
+        @Override
+        public Predicate<Ticket> compile() {
+            List<Predicate<Ticket>> predicates = operands.stream().map(Condition::compile).toList();
+            return ticket -> {
+                for (Predicate<Ticket> predicate : predicates) {
+                    if (predicate.test(ticket)) return true;
+                }
+                return false;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream().map(Object::toString).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+
+    record Not(Condition operand) implements Condition {
+        @Override
+        public Predicate<Ticket> compile() {
+            return operand.compile().negate();
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Вторичный индекс коллекции по одному полю: значение поля - билеты с этим значением.
+ * Упорядоченный индекс (на TreeMap) отвечает и на запросы по диапазону, хешированный - только на равенство,
+ * зато допускает незаполненное значение.
+ * Чтобы не тратить память на множество для каждого уникального значения, одиночный билет хранится без обертки
+ */
+public class FieldIndex {
+    private final TicketField field;
+    private final Map<Comparable<?>, Object> entries;
+    private int size;
+
+    /**
+     * @param field индексируемое поле
+     * @param ordered нужен ли порядок значений (поле не должно допускать null)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FieldIndex(TicketField field, boolean ordered) {
+        this.field = field;
+        this.entries = ordered ? (Map) new TreeMap<Comparable, Object>() : new HashMap<>();
+    }
+
+    public TicketField getField() {
+        return field;
+    }
+
+    public boolean isOrdered() {
+        return entries instanceof NavigableMap;
+    }
+
+    /**
+     * @return число билетов в индексе
+     */
+    public int size() {
+        return size;
+    }
+
+    public void add(Ticket ticket) {
+        Comparable<?> key = field.get(ticket);
+        Object entry = entries.get(key);
+        if (entry == null) {
+            entries.put(key, ticket);
+        } else if (entry instanceof Ticket single) {
+            if (single == ticket) return;
+            Set<Ticket> tickets = new HashSet<>();
+            tickets.add(single);
+            tickets.add(ticket);
+            entries.put(key, tickets);
+        } else if (!asSet(entry).add(ticket)) {
+            return;
+        }
+        size++;
+    }
+
+    public void remove(Ticket ticket) {
+        Comparable<?> key = field.get(ticket);
+        Object entry = entries.get(key);
+        if (entry == ticket) {
+            entries.remove(key);
+        } else if (entry instanceof Set<?> && asSet(entry).remove(ticket)) {
+            Set<Ticket> tickets = asSet(entry);
+            if (tickets.size() == 1) entries.put(key, tickets.iterator().next());
+        } else {
+            return;
+        }
+        size--;
+    }
+
+    public void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * @param key значение поля
+     * @return число билетов с этим значением, за O(1)
+     */
+    public int count(Comparable<?> key) {
+        return countEntry(entries.get(key));
+    }
+
+    /**
+     * Передает обработчику все билеты с данным значением поля
+     */
+    public void forEach(Comparable<?> key, Consumer<Ticket> action) {
+        forEachInEntry(entries.get(key), action);
+    }
+
+    /**
+     * Передает обработчику билеты со значением поля в диапазоне, в порядке возрастания значения
+     * @param from нижняя граница (null - без границы)
+     * @param to верхняя граница (null - без границы)
+     */
+    public void forEachInRange(Comparable<?> from, boolean fromInclusive, Comparable<?> to, boolean toInclusive, Consumer<Ticket> action) {
+        for (Object entry : range(from, fromInclusive, to, toInclusive).values()) forEachInEntry(entry, action);
+    }
+
+    /**
+     * Передает обработчику билеты, строковое значение поля которых начинается с префикса
+     */
+    public void forEachWithPrefix(String prefix, Consumer<Ticket> action) {
+        for (Map.Entry<Comparable<?>, Object> entry : ordered().tailMap(prefix, true).entrySet()) {
+            if (!((String) entry.getKey()).startsWith(prefix)) break;
+            forEachInEntry(entry.getValue(), action);
+        }
+    }
+
+    /**
+     * Считает билеты с префиксом, просматривая не больше limit значений
+     * @return точное число билетов или limit, если значений больше
+     */
+    public int countWithPrefix(String prefix, int limit) {
+        int count = 0;
+        int visited = 0;
+        for (Map.Entry<Comparable<?>, Object> entry : ordered().tailMap(prefix, true).entrySet()) {
+            if (!((String) entry.getKey()).startsWith(prefix)) break;
+            count += countEntry(entry.getValue());
+            if (++visited >= limit) return Math.max(count, limit);
+        }
+        return count;
+    }
+
+    /**
+     * Оценка числа билетов в числовом диапазоне в предположении, что значения распределены равномерно
+     * между наименьшим и наибольшим, за O(log n)
+     */
+    public int estimateRange(Double from, Double to) {
+        NavigableMap<Comparable<?>, Object> ordered = ordered();
+        if (ordered.isEmpty()) return 0;
+        double min = (Double) ordered.firstKey();
+        double max = (Double) ordered.lastKey();
+        double low = from == null ? min : Math.max(from, min);
+        double high = to == null ? max : Math.min(to, max);
+        if (low > high) return 0;
+        if (max == min) return size;
+        // хотя бы одна строка: на границе диапазона значения могут совпадать
+        return (int) Math.max(1, Math.ceil(size * (high - low) / (max - min)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private NavigableMap<Comparable<?>, Object> range(Comparable<?> from, boolean fromInclusive, Comparable<?> to, boolean toInclusive) {
+        NavigableMap<Comparable<?>, Object> range = ordered();
+        if (from != null && to != null && ((Comparable) from).compareTo(to) > 0) return new TreeMap<>();
+        if (from != null) range = range.tailMap(from, fromInclusive);
+        if (to != null) range = range.headMap(to, toInclusive);
+        return range;
+    }
+
+    private NavigableMap<Comparable<?>, Object> ordered() {
+        if (!(entries instanceof NavigableMap<Comparable<?>, Object> ordered)) {
+            throw new UnsupportedOperationException("Индекс по полю " + field + " не упорядочен");
+        }
+        return ordered;
+    }
+
+    private static int countEntry(Object entry) {
+        if (entry == null) return 0;
+        return entry instanceof Ticket ? 1 : asSet(entry).size();
+    }
+
+    private static void forEachInEntry(Object entry, Consumer<Ticket> action) {
+        if (entry instanceof Ticket ticket) action.accept(ticket);
+        else if (entry != null) asSet(entry).forEach(action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Ticket> asSet(Object entry) {
+        return (Set<Ticket>) entry;
+    }
+}
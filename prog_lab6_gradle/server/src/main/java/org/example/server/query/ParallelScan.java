@@ -0,0 +1,189 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+import org.example.server.utils.ServerConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Полный просмотр коллекции на нескольких ядрах (fork/join).
+ * Снимок коллекции в массиве делится пополам, пока части не станут меньше порога листа,
+ * каждая часть обрабатывается отдельно, а частичные результаты сливаются попарно при возврате из рекурсии:
+ * множества - объединением, упорядоченные списки - слиянием (дерево попарных слияний - параллельное k-путевое слияние).
+ * Коллекции меньше порога просматриваются в вызывающем потоке: на них fork/join дороже самого просмотра.
+ * Коллекция не должна меняться во время просмотра - его вызывают под блокировкой коллекции
+ */
+public class ParallelScan {
+    /**
+     * Просмотр с порогом из настроек сервера
+     */
+    public static final ParallelScan DEFAULT = new ParallelScan(ServerConfig.PARALLEL_SCAN_THRESHOLD);
+
+    /**
+     * Меньше скольки билетов на поток не имеет смысла делить работу дальше
+     */
+    private static final int MIN_LEAF_SIZE = 4096;
+
+    private static final ForkJoinPool pool = new ForkJoinPool(Math.max(1, ServerConfig.PARALLEL_SCAN_THREADS));
+
+    private final int threshold;
+
+    /**
+     * @param threshold с какого размера коллекции просмотр выполняется параллельно
+     */
+    public ParallelScan(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return подходящие билеты в порядке просмотра коллекции
+     */
+    public List<Ticket> filter(Collection<Ticket> source, Predicate<Ticket> predicate) {
+        if (!isParallel(source)) {
+            List<Ticket> result = new ArrayList<>();
+            for (Ticket ticket : source) if (predicate.test(ticket)) result.add(ticket);
+            return result;
+        }
+        return run(source, (tickets, from, to) -> {
+            List<Ticket> part = new ArrayList<>();
+            for (int i = from; i < to; i++) if (predicate.test(tickets[i])) part.add(tickets[i]);
+            return part;
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    /**
+     * @return подходящие билеты в заданном порядке. Каждая часть сортируется в своем потоке, затем части сливаются
+     */
+    public List<Ticket> filterSorted(Collection<Ticket> source, Predicate<Ticket> predicate, Comparator<Ticket> order) {
+        if (!isParallel(source)) {
+            List<Ticket> result = filter(source, predicate);
+            result.sort(order);
+            return result;
+        }
+        return run(source, (tickets, from, to) -> {
+            List<Ticket> part = new ArrayList<>();
+            for (int i = from; i < to; i++) if (predicate.test(tickets[i])) part.add(tickets[i]);
+            part.sort(order);
+            return part;
+        }, (left, right) -> merge(left, right, order));
+    }
+
+    /**
+     * @return первые limit подходящих билетов в заданном порядке. Каждая часть отбирает свои limit билетов кучей,
+     * при слиянии частей лишнее отбрасывается, поэтому память - O(limit) на часть
+     */
+    public List<Ticket> filterTopK(Collection<Ticket> source, Predicate<Ticket> predicate, Comparator<Ticket> order, int limit) {
+        if (!isParallel(source)) {
+            TopK<Ticket> top = new TopK<>(limit, order);
+            for (Ticket ticket : source) if (predicate.test(ticket)) top.offer(ticket);
+            return top.toSortedList();
+        }
+        return run(source, (tickets, from, to) -> {
+            TopK<Ticket> top = new TopK<>(limit, order);
+            for (int i = from; i < to; i++) if (predicate.test(tickets[i])) top.offer(tickets[i]);
+            return top.toSortedList();
+        }, (left, right) -> {
+            List<Ticket> merged = merge(left, right, order);
+            return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+        });
+    }
+
+    /**
+     * @return все билеты в заданном порядке
+     */
+    public List<Ticket> sorted(Collection<Ticket> source, Comparator<Ticket> order) {
+        return filterSorted(source, ticket -> true, order);
+    }
+
+    /**
+     * @return уникальные значения в порядке первого появления при просмотре коллекции
+     */
+    public <T> Set<T> distinct(Collection<Ticket> source, Function<Ticket, T> mapper) {
+        if (!isParallel(source)) {
+            Set<T> result = new LinkedHashSet<>();
+            for (Ticket ticket : source) result.add(mapper.apply(ticket));
+            return result;
+        }
+        return run(source, (tickets, from, to) -> {
+            Set<T> part = new LinkedHashSet<>();
+            for (int i = from; i < to; i++) part.add(mapper.apply(tickets[i]));
+            return part;
+        }, (left, right) -> {
+            // левая часть идет раньше в порядке просмотра, поэтому порядок первого появления сохраняется
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    private boolean isParallel(Collection<Ticket> source) {
+        return source.size() >= threshold && pool.getParallelism() > 1 && source.size() >= 2 * MIN_LEAF_SIZE;
+    }
+
+    private <R> R run(Collection<Ticket> source, Leaf<R> leaf, BinaryOperator<R> combiner) {
+        Ticket[] snapshot = source.toArray(new Ticket[0]);
+        int leafSize = Math.max(MIN_LEAF_SIZE, snapshot.length / (pool.getParallelism() * 4));
+        return pool.invoke(new ScanTask<>(snapshot, 0, snapshot.length, leafSize, leaf, combiner));
+    }
+
+    private static List<Ticket> merge(List<Ticket> left, List<Ticket> right, Comparator<Ticket> order) {
+        List<Ticket> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            // при равенстве первым идет левый элемент, чтобы слияние было устойчивым
+            merged.add(order.compare(right.get(j), left.get(i)) < 0 ? right.get(j++) : left.get(i++));
+        }
+        merged.addAll(left.subList(i, left.size()));
+        merged.addAll(right.subList(j, right.size()));
+        return merged;
+    }
+
+    /**
+     * Обработка одной части снимка
+     */
+    @FunctionalInterface
+    private interface Leaf<R> {
+        R apply(Ticket[] tickets, int from, int to);
+    }
+
+    private static class ScanTask<R> extends RecursiveTask<R> {
+        private final Ticket[] tickets;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Leaf<R> leaf;
+        private final BinaryOperator<R> combiner;
+
+        private ScanTask(Ticket[] tickets, int from, int to, int leafSize, Leaf<R> leaf, BinaryOperator<R> combiner) {
+            this.tickets = tickets;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.leaf = leaf;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= leafSize) return leaf.apply(tickets, from, to);
+            int middle = (from + to) >>> 1;
+            ScanTask<R> right = new ScanTask<>(tickets, middle, to, leafSize, leaf, combiner);
+            right.fork();
+            R left = new ScanTask<>(tickets, from, middle, leafSize, leaf, combiner).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Разобранный запрос. Неизменяемый, поэтому один разбор можно выполнять многократно
+ * @param explain показать план вместо выполнения
+ * @param projection выводимые поля (пустой список - билеты целиком)
+ * @param condition условие (null - все билеты)
+ * @param predicate скомпилированное условие
+ * @param orderBy поле сортировки (null - естественный порядок билетов)
+ * @param descending сортировка по убыванию
+ * @param limit максимальное число строк результата (-1 - без ограничения)
+ */
+public record Query(boolean explain,
+                    List<TicketField> projection,
+                    Condition condition,
+                    Predicate<Ticket> predicate,
+                    TicketField orderBy,
+                    boolean descending,
+                    int limit) {
+}
@@ -0,0 +1,294 @@
+package org.example.server.query;
+
+import org.example.server.query.Condition.Operator;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбор запроса рекурсивным спуском.
+ * <pre>
+ * [explain] [select * | поле, ...] [where условие] [order by поле [asc | desc]] [limit N]
+ * условие  := и (or и)*
+ * и        := не (and не)*
+ * не       := not не | ( условие ) | поле оператор значение
+ * оператор := = | != | &lt;&gt; | &lt; | &lt;= | &gt; | &gt;= | startswith
+ * </pre>
+ * Ключевые слова, поля и значения перечислений - без учета регистра. Строки - в одинарных или двойных кавычках,
+ * даты - строкой в формате ISO (2024-01-31 или 2024-01-31T10:00:00+03:00), незаполненное значение - null.
+ * Ключевое слово where можно опустить. Вложенность not и скобок ограничена {@link #MAX_DEPTH}
+ */
+public class QueryParser {
+    /**
+     * Наибольшая вложенность not и скобок: разбор, компиляция и печать условия рекурсивны,
+     * и слишком глубокое условие переполнило бы стек потока сервера
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private final List<String> tokens;
+    private int position;
+
+    /**
+     * Текущая вложенность not и скобок
+     */
+    private int depth;
+
+    private QueryParser(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * @param text текст запроса
+     * @return разобранный и скомпилированный запрос
+     * @throws IllegalArgumentException если запрос записан с ошибкой
+     */
+    public static Query parse(String text) {
+        return new QueryParser(tokenize(text)).parseQuery();
+    }
+
+    /**
+     * Разбор одного условия, например для head и tail
+     * @param text текст условия (ключевое слово where можно опустить)
+     * @return условие
+     * @throws IllegalArgumentException если условие записано с ошибкой
+     */
+    public static Condition parseCondition(String text) {
+        QueryParser parser = new QueryParser(tokenize(text));
+        parser.acceptKeyword("where");
+        Condition condition = parser.parseOr();
+        if (!parser.atEnd()) throw parser.error("лишний текст \"" + parser.tokens.get(parser.position) + "\"");
+        return condition;
+    }
+
+    private Query parseQuery() {
+        boolean explain = acceptKeyword("explain");
+        List<TicketField> projection = new ArrayList<>();
+        if (acceptKeyword("select")) {
+            if (!accept("*")) {
+                do {
+                    projection.add(parseField());
+                } while (accept(","));
+            }
+        }
+        Condition condition = null;
+        boolean where = acceptKeyword("where");
+        if (where || !atEnd() && !isKeyword("order") && !isKeyword("limit")) {
+            condition = parseOr();
+        }
+        TicketField orderBy = null;
+        boolean descending = false;
+        if (acceptKeyword("order")) {
+            expectKeyword("by");
+            orderBy = parseField();
+            if (acceptKeyword("desc")) descending = true;
+            else acceptKeyword("asc");
+        }
+        int limit = -1;
+        if (acceptKeyword("limit")) {
+            String token = next("число строк после limit");
+            try {
+                limit = Integer.parseInt(token);
+            } catch (NumberFormatException numberFormatException) {
+                limit = -1;
+            }
+            if (limit < 0) throw error("limit должен быть неотрицательным целым числом, а не \"" + token + "\"");
+        }
+        if (!atEnd()) throw error("лишний текст \"" + tokens.get(position) + "\"");
+        return new Query(explain, List.copyOf(projection), condition, condition != null ? condition.compile() : ticket -> true, orderBy, descending, limit);
+    }
+
+    private Condition parseOr() {
+        List<Condition> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (acceptKeyword("or")) operands.add(parseAnd());
+        return operands.size() == 1 ? operands.get(0) : new Condition.Or(List.copyOf(operands));
+    }
+
+    private Condition parseAnd() {
+        List<Condition> operands = new ArrayList<>();
+        operands.add(parseNot());
+        while (acceptKeyword("and")) operands.add(parseNot());
+        return operands.size() == 1 ? operands.get(0) : new Condition.And(List.copyOf(operands));
+    }
+
+    private Condition parseNot() {
+        if (acceptKeyword("not")) {
+            enter();
+            Condition condition = new Condition.Not(parseNot());
+            depth--;
+            return condition;
+        }
+        if (accept("(")) {
+            enter();
+            Condition condition = parseOr();
+            if (!accept(")")) throw error("ожидалась \")\"");
+            depth--;
+            return condition;
+        }
+        return parseComparison();
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) throw error("слишком глубокая вложенность not и скобок (максимум " + MAX_DEPTH + ")");
+    }
+
+    private Condition parseComparison() {
+        TicketField field = parseField();
+        Operator operator = parseOperator();
+        String literal = next("значение после " + field + " " + operator);
+        Comparable<?> value = parseValue(field, literal);
+        if (operator == Operator.STARTS_WITH && (field.getKind() != TicketField.Kind.STRING || value == null)) {
+            throw error("startswith применим только к строковым полям");
+        }
+        boolean ordered = operator != Operator.EQ && operator != Operator.NE && operator != Operator.STARTS_WITH;
+        if (ordered && (field.getKind() == TicketField.Kind.BOOLEAN || value == null)) {
+            throw error("поле " + field + " нельзя сравнивать оператором " + operator + " со значением " + literal);
+        }
+        return new Condition.Comparison(field, operator, value);
+    }
+
+    private Operator parseOperator() {
+        String token = next("оператор сравнения");
+        return switch (token.toLowerCase(Locale.ROOT)) {
+            case "=" -> Operator.EQ;
+            case "!=", "<>" -> Operator.NE;
+            case "<" -> Operator.LT;
+            case "<=" -> Operator.LE;
+            case ">" -> Operator.GT;
+            case ">=" -> Operator.GE;
+            case "startswith" -> Operator.STARTS_WITH;
+            default -> throw error("неизвестный оператор \"" + token + "\"");
+        };
+    }
+
+    private TicketField parseField() {
+        String token = next("название поля");
+        TicketField field = TicketField.byQueryName(token);
+        if (field == null) throw error("неизвестное поле \"" + token + "\"");
+        return field;
+    }
+
+    /**
+     * Приводит литерал к типу значений поля
+     */
+    private Comparable<?> parseValue(TicketField field, String literal) {
+        boolean quoted = isQuoted(literal);
+        String text = quoted ? literal.substring(1, literal.length() - 1) : literal;
+        if (!quoted && text.equalsIgnoreCase("null")) {
+            if (field.getEnumType() == null) throw error("поле " + field + " всегда заполнено");
+            return null;
+        }
+        switch (field.getKind()) {
+            case NUMBER -> {
+                try {
+                    if (!quoted) return Double.parseDouble(text);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            case STRING -> {
+                if (quoted) return text;
+            }
+            case BOOLEAN -> {
+                if (!quoted && (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false"))) return Boolean.parseBoolean(text);
+            }
+            case DATE -> {
+                Instant date = parseDate(text);
+                if (date != null) return date;
+            }
+            case ENUM -> {
+                for (Enum<?> constant : field.getEnumType().getEnumConstants()) {
+                    if (constant.name().equalsIgnoreCase(text)) return constant;
+                }
+            }
+        }
+        throw error("значение " + literal + " не подходит для поля " + field);
+    }
+
+    private static Instant parseDate(String text) {
+        try {
+            return ZonedDateTime.parse(text).toInstant();
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException ignored) {
+        }
+        return null;
+    }
+
+    /**
+     * Разбивает текст на слова, числа, строки в кавычках, операторы, скобки и запятые
+     */
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, i + 1);
+                if (end < 0) throw new IllegalArgumentException("Ошибка в запросе: незакрытая кавычка");
+                tokens.add(text.substring(i, end + 1));
+                i = end + 1;
+            } else if (c == '(' || c == ')' || c == ',' || c == '*') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '<' || c == '>' || c == '=' || c == '!') {
+                int end = i + 1;
+                if (end < text.length() && (text.charAt(end) == '=' || c == '<' && text.charAt(end) == '>')) end++;
+                tokens.add(text.substring(i, end));
+                i = end;
+            } else {
+                int end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && "()'\",*<>=!".indexOf(text.charAt(end)) < 0) end++;
+                tokens.add(text.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isQuoted(String token) {
+        return token.length() >= 2 && (token.charAt(0) == '\'' || token.charAt(0) == '"');
+    }
+
+    private boolean atEnd() {
+        return position >= tokens.size();
+    }
+
+    private boolean isKeyword(String keyword) {
+        return !atEnd() && tokens.get(position).equalsIgnoreCase(keyword);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (!isKeyword(keyword)) return false;
+        position++;
+        return true;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) throw error("ожидалось " + keyword);
+    }
+
+    private boolean accept(String symbol) {
+        if (atEnd() || !tokens.get(position).equals(symbol)) return false;
+        position++;
+        return true;
+    }
+
+    private String next(String expected) {
+        if (atEnd()) throw error("ожидалось " + expected);
+        return tokens.get(position++);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Ошибка в запросе: " + message);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * План выполнения запроса: путь доступа, проверка условия, сортировка, ограничение и проекция
+ * @param query запрос
+ * @param access выбранный путь доступа
+ * @param rejected лучший индексный путь, отвергнутый как менее выгодный, чем выбранный (null - не было)
+ * @param collectionSize размер коллекции при планировании
+ */
+public record QueryPlan(Query query, AccessPath access, AccessPath rejected, int collectionSize) {
+    /**
+     * @return подходящие билеты в порядке запроса, не больше limit.
+     * С limit билеты отбираются кучей из limit элементов, а не сортировкой всех подходящих
+     */
+    public List<Ticket> execute() {
+        int limit = query.limit();
+        if (access instanceof AccessPath.PriorityScan priorityScan) {
+            List<Ticket> rows = new ArrayList<>();
+            for (Ticket ticket : priorityScan.tickets()) {
+                if (rows.size() >= limit) break;
+                if (query.predicate().test(ticket)) rows.add(ticket);
+            }
+            return rows;
+        }
+        if (access instanceof AccessPath.FullScan fullScan) {
+            return limit >= 0
+                    ? ParallelScan.DEFAULT.filterTopK(fullScan.collection(), query.predicate(), order(), limit)
+                    : ParallelScan.DEFAULT.filterSorted(fullScan.collection(), query.predicate(), order());
+        }
+        if (limit >= 0) {
+            TopK<Ticket> top = new TopK<>(limit, order());
+            access.forEach(ticket -> {
+                if (query.predicate().test(ticket)) top.offer(ticket);
+            });
+            return top.toSortedList();
+        }
+        List<Ticket> rows = new ArrayList<>();
+        access.forEach(ticket -> {
+            if (query.predicate().test(ticket)) rows.add(ticket);
+        });
+        rows.sort(order());
+        return rows;
+    }
+
+    private Comparator<Ticket> order() {
+        if (query.orderBy() == null) return query.descending() ? TicketIndexes.PRIORITY_ORDER.reversed() : TicketIndexes.PRIORITY_ORDER;
+        Comparator<Ticket> order = query.orderBy().comparator();
+        return (query.descending() ? order.reversed() : order).thenComparing(TicketIndexes.PRIORITY_ORDER);
+    }
+
+    /**
+     * @return строки описания плана для explain
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(": %-10s | %s", "доступ", access));
+        lines.add(String.format(": %-10s | %d из %d строк (индекс выгоднее при оценке меньше %d)",
+                "оценка", access.estimatedRows(), collectionSize, collectionSize / QueryPlanner.INDEX_ROW_COST));
+        if (rejected != null) {
+            lines.add(String.format(": %-10s | %s, оценка %d строк", "отвергнут", rejected, rejected.estimatedRows()));
+        }
+        lines.add(String.format(": %-10s | %s", "фильтр", query.condition() == null ? "-" : query.condition()));
+        lines.add(String.format(": %-10s | %s", "порядок",
+                (query.orderBy() == null ? "естественный" : query.orderBy()) + (query.descending() ? " desc" : " asc")));
+        lines.add(String.format(": %-10s | %s", "лимит", query.limit() < 0 ? "-" : query.limit()));
+        lines.add(String.format(": %-10s | %s", "поля", query.projection().isEmpty() ? "*" : query.projection()));
+        return lines;
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+import org.example.server.query.Condition.Comparison;
+import org.example.server.query.Condition.Operator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Выбор пути доступа для запроса по оценке избирательности условий.
+ * Получение строки через индекс считается в {@link #INDEX_ROW_COST} раз дороже, чем проверка строки при полном просмотре,
+ * поэтому индекс выбирается, только если по оценке он отбирает меньше 1/{@link #INDEX_ROW_COST} коллекции.
+ * Оценки: равенство в индексе и id - точные, диапазон чисел - по равномерному распределению между минимумом и максимумом,
+ * префикс имени - подсчетом с остановкой на пороге выгодности.
+ * Для запросов с limit в естественном порядке (head, tail) рассматривается еще обход индекса приоритета,
+ * который останавливается, набрав limit билетов
+ */
+public class QueryPlanner {
+    public static final int INDEX_ROW_COST = 4;
+
+    private final Collection<Ticket> collection;
+    private final IntFunction<Ticket> byId;
+    private final TicketIndexes indexes;
+
+    /**
+     * @param collection коллекция
+     * @param byId поиск по первичному индексу
+     * @param indexes вторичные индексы коллекции
+     */
+    public QueryPlanner(Collection<Ticket> collection, IntFunction<Ticket> byId, TicketIndexes indexes) {
+        this.collection = collection;
+        this.byId = byId;
+        this.indexes = indexes;
+    }
+
+    public QueryPlan plan(Query query) {
+        int size = collection.size();
+        AccessPath path = query.condition() == null ? null : choose(query.condition());
+        long indexCost = path == null ? Long.MAX_VALUE : (long) path.estimatedRows() * INDEX_ROW_COST;
+        if (query.orderBy() == null && query.limit() >= 0) {
+            // обход в порядке приоритета останавливается на limit-м подходящем билете: при доле подходящих p
+            // он просматривает около limit / p билетов, долю берем из оценки индексного пути
+            int matching = path == null ? size : path.estimatedRows();
+            long walkRows = matching == 0 ? size : Math.min(size, (long) Math.ceil((double) query.limit() * size / matching));
+            if (walkRows <= Math.min(indexCost, size)) {
+                return new QueryPlan(query, new AccessPath.PriorityScan(indexes.getPriorityOrder(), query.descending(), (int) walkRows), path, size);
+            }
+        }
+        if (indexCost >= size) {
+            return new QueryPlan(query, new AccessPath.FullScan(collection), path, size);
+        }
+        return new QueryPlan(query, path, null, size);
+    }
+
+    /**
+     * @return самый избирательный путь для условия или null, если без полного просмотра не обойтись
+     */
+    private AccessPath choose(Condition condition) {
+        if (condition instanceof Comparison comparison) return choose(comparison);
+        if (condition instanceof Condition.And and) return chooseConjunction(and.operands());
+        if (condition instanceof Condition.Or or) {
+            List<AccessPath> paths = new ArrayList<>();
+            for (Condition operand : or.operands()) {
+                AccessPath path = choose(operand);
+                if (path == null) return null;
+                paths.add(path);
+            }
+            return new AccessPath.Union(paths);
+        }
+        return null;
+    }
+
+    private AccessPath choose(Comparison comparison) {
+        TicketField field = comparison.field();
+        Object value = comparison.value();
+        if (field == TicketField.ID && comparison.operator() == Operator.EQ) {
+            double id = (Double) value;
+            return id == Math.rint(id) && Math.abs(id) <= Integer.MAX_VALUE
+                    ? new AccessPath.IdLookup((int) id, byId.apply((int) id))
+                    : new AccessPath.IdLookup((int) id, null);
+        }
+        FieldIndex index = indexes.get(field);
+        if (index == null) return null;
+        switch (comparison.operator()) {
+            case EQ -> {
+                return new AccessPath.KeyLookup(index, comparison.value());
+            }
+            case STARTS_WITH -> {
+                String prefix = (String) value;
+                int limit = collection.size() / INDEX_ROW_COST + 1;
+                return new AccessPath.PrefixScan(index, prefix, index.countWithPrefix(prefix, limit));
+            }
+            case LT, LE, GT, GE -> {
+                if (field.getKind() != TicketField.Kind.NUMBER || !index.isOrdered()) return null;
+                Range range = new Range();
+                range.narrow(comparison);
+                return range.toPath(index);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Для AND достаточно одного избирательного операнда. Ограничения на одно числовое поле
+     * сводятся в общий диапазон: price > 10 AND price < 20 - один просмотр индекса
+     */
+    private AccessPath chooseConjunction(List<Condition> operands) {
+        Map<TicketField, Range> ranges = new EnumMap<>(TicketField.class);
+        AccessPath best = null;
+        for (Condition operand : operands) {
+            if (operand instanceof Comparison comparison && isRangeComparison(comparison)) {
+                ranges.computeIfAbsent(comparison.field(), field -> new Range()).narrow(comparison);
+                continue;
+            }
+            best = cheaper(best, choose(operand));
+        }
+        for (Map.Entry<TicketField, Range> entry : ranges.entrySet()) {
+            best = cheaper(best, entry.getValue().toPath(indexes.get(entry.getKey())));
+        }
+        return best;
+    }
+
+    private boolean isRangeComparison(Comparison comparison) {
+        FieldIndex index = indexes.get(comparison.field());
+        return index != null && index.isOrdered() && comparison.field().getKind() == TicketField.Kind.NUMBER
+                && comparison.operator() != Operator.NE;
+    }
+
+    private static AccessPath cheaper(AccessPath current, AccessPath candidate) {
+        if (candidate == null) return current;
+        if (current == null || candidate.estimatedRows() < current.estimatedRows()) return candidate;
+        return current;
+    }
+
+    /**
+     * Границы диапазона числового поля, собранные из сравнений
+     */
+    private static class Range {
+        private Double from;
+        private boolean fromInclusive;
+        private Double to;
+        private boolean toInclusive;
+
+        private void narrow(Comparison comparison) {
+            double value = (Double) comparison.value();
+            Operator operator = comparison.operator();
+            if (operator == Operator.GT || operator == Operator.GE || operator == Operator.EQ) {
+                boolean inclusive = operator != Operator.GT;
+                if (from == null || value > from || value == from && !inclusive) {
+                    from = value;
+                    fromInclusive = inclusive;
+                }
+            }
+            if (operator == Operator.LT || operator == Operator.LE || operator == Operator.EQ) {
+                boolean inclusive = operator != Operator.LT;
+                if (to == null || value < to || value == to && !inclusive) {
+                    to = value;
+                    toInclusive = inclusive;
+                }
+            }
+        }
+
+        private AccessPath toPath(FieldIndex index) {
+            if (from != null && from.equals(to) && fromInclusive && toInclusive) return new AccessPath.KeyLookup(index, from);
+            boolean empty = from != null && to != null && (from > to || from.equals(to) && !(fromInclusive && toInclusive));
+            return new AccessPath.RangeScan(index, from, fromInclusive, to, toInclusive, empty ? 0 : index.estimateRange(from, to));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.server.query;
+
+import org.example.common.entity.Country;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Поля билета, доступные в запросах.
+ * Значения приводятся к сравнимым типам: числа - к Double, дата - к Instant
+ */
+public enum TicketField {
+    ID("id", Kind.NUMBER, ticket -> ticket.getId().doubleValue()),
+    NAME("name", Kind.STRING, Ticket::getName),
+    X("x", Kind.NUMBER, ticket -> floatToDouble(ticket.getCoordinates().getX())),
+    Y("y", Kind.NUMBER, ticket -> ticket.getCoordinates().getY().doubleValue()),
+    CREATION_DATE("creationDate", Kind.DATE, ticket -> ticket.getCreationDate().toInstant()),
+    PRICE("price", Kind.NUMBER, Ticket::getPrice),
+    DISCOUNT("discount", Kind.NUMBER, ticket -> floatToDouble(ticket.getDiscount())),
+    REFUNDABLE("refundable", Kind.BOOLEAN, Ticket::isRefundable),
+    TYPE("type", Kind.ENUM, Ticket::getType, TicketType.class),
+    HEIGHT("height", Kind.NUMBER, ticket -> (double) ticket.getPerson().getHeight()),
+    NATIONALITY("nationality", Kind.ENUM, ticket -> ticket.getPerson().getNationality(), Country.class);
+
+    /**
+     * Тип значений поля
+     */
+    public enum Kind {
+        NUMBER, STRING, BOOLEAN, DATE, ENUM
+    }
+
+    private final String queryName;
+    private final Kind kind;
+    private final Function<Ticket, Comparable<?>> getter;
+    private final Class<? extends Enum<?>> enumType;
+
+    TicketField(String queryName, Kind kind, Function<Ticket, Comparable<?>> getter) {
+        this(queryName, kind, getter, null);
+    }
+
+    TicketField(String queryName, Kind kind, Function<Ticket, Comparable<?>> getter, Class<? extends Enum<?>> enumType) {
+        this.queryName = queryName;
+        this.kind = kind;
+        this.getter = getter;
+        this.enumType = enumType;
+    }
+
+    public String getQueryName() {
+        return queryName;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return класс перечисления для полей типа ENUM, иначе null
+     */
+    public Class<? extends Enum<?>> getEnumType() {
+        return enumType;
+    }
+
+    /**
+     * @param ticket билет
+     * @return значение поля (null для незаполненных type и nationality)
+     */
+    public Comparable<?> get(Ticket ticket) {
+        return getter.apply(ticket);
+    }
+
+    /**
+     * @return хранится ли поле в билете как float (значение запроса для него приводится к десятичному виду)
+     */
+    public boolean isFloat() {
+        return this == X || this == DISCOUNT;
+    }
+
+    /**
+     * @param ticket билет
+     * @return значение поля float без перевода в Double, для сравнения без выделения памяти
+     */
+    public float getFloat(Ticket ticket) {
+        return switch (this) {
+            case X -> ticket.getCoordinates().getX();
+            case DISCOUNT -> ticket.getDiscount();
+            default -> throw new IllegalStateException("поле " + this + " не хранится как float");
+        };
+    }
+
+    /**
+     * Порядок билетов по значению поля, незаполненные значения - первыми
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Ticket> comparator() {
+        // перевод float в десятичное число сохраняет порядок, поэтому при сортировке его можно не делать
+        if (isFloat()) return (first, second) -> Float.compare(getFloat(first), getFloat(second));
+        return Comparator.comparing(ticket -> (Comparable) get(ticket), Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * @param name название поля в запросе (без учета регистра, person.height и person.nationality тоже допустимы)
+     * @return поле или null, если такого нет
+     */
+    public static TicketField byQueryName(String name) {
+        String normalized = name.startsWith("person.") ? name.substring("person.".length()) : name;
+        for (TicketField field : values()) {
+            if (field.queryName.equalsIgnoreCase(normalized)) return field;
+        }
+        return null;
+    }
+
+    /**
+     * @param ticket билет
+     * @return значение поля для вывода (целые числа - без дробной части)
+     */
+    public String format(Ticket ticket) {
+        if (this == CREATION_DATE) return ticket.getCreationDate().toString();
+        Comparable<?> value = get(ticket);
+        if (value == null) return "-";
+        if (value instanceof Double number && number == Math.rint(number) && Math.abs(number) < 1e15) return String.valueOf(number.longValue());
+        return value.toString();
+    }
+
+    /**
+     * Десятичное значение float: 0.1f превращается в 0.1, а не в 0.10000000149, чтобы сравнение с литералом запроса было точным.
+     * Так же float переводятся и в агрегатах, чтобы отчет и запросы видели одни и те же числа
+     */
+    public static double floatToDouble(float value) {
+        return Double.parseDouble(Float.toString(value));
+    }
+
+    @Override
+    public String toString() {
+        return queryName;
+    }
+}
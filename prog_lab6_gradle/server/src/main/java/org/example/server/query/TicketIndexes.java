@@ -0,0 +1,70 @@
+package org.example.server.query;
+
+import org.example.common.entity.Ticket;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Вторичные индексы коллекции, доступные планировщику запросов:
+ * упорядоченные по name, price и discount, хешированные по type и nationality
+ * и упорядоченный по приоритету билетов (порядку очереди коллекции) для head и tail.
+ * Индекс по id ведет сам {@link org.example.server.managers.CollectionManager}.
+ * Изменяется только под блокировкой коллекции
+ */
+public class TicketIndexes {
+    /**
+     * Порядок приоритета: естественный порядок билетов, при равенстве - по id, чтобы порядок был строгим
+     */
+    public static final Comparator<Ticket> PRIORITY_ORDER = Comparator.<Ticket>naturalOrder().thenComparing(Ticket::getId);
+
+    private final EnumMap<TicketField, FieldIndex> indexes = new EnumMap<>(TicketField.class);
+
+    private final TreeSet<Ticket> byPriority = new TreeSet<>(PRIORITY_ORDER);
+
+    public TicketIndexes() {
+        for (TicketField field : new TicketField[]{TicketField.NAME, TicketField.PRICE, TicketField.DISCOUNT}) {
+            indexes.put(field, new FieldIndex(field, true));
+        }
+        for (TicketField field : new TicketField[]{TicketField.TYPE, TicketField.NATIONALITY}) {
+            indexes.put(field, new FieldIndex(field, false));
+        }
+    }
+
+    /**
+     * @param field поле
+     * @return индекс по полю или null, если поле не индексируется
+     */
+    public FieldIndex get(TicketField field) {
+        return indexes.get(field);
+    }
+
+    public Collection<FieldIndex> getAll() {
+        return indexes.values();
+    }
+
+    /**
+     * @return билеты в порядке приоритета; первые k читаются за O(k + log n)
+     */
+    public NavigableSet<Ticket> getPriorityOrder() {
+        return byPriority;
+    }
+
+    public void add(Ticket ticket) {
+        for (FieldIndex index : indexes.values()) index.add(ticket);
+        byPriority.add(ticket);
+    }
+
+    public void remove(Ticket ticket) {
+        for (FieldIndex index : indexes.values()) index.remove(ticket);
+        byPriority.remove(ticket);
+    }
+
+    public void clear() {
+        for (FieldIndex index : indexes.values()) index.clear();
+        byPriority.clear();
+    }
+}
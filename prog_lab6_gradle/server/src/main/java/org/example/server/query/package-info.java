@@ -0,0 +1,4 @@
+/**
+ * Язык запросов к коллекции: разбор, компиляция условий в предикаты, индексы полей и выбор плана выполнения
+ */
+package org.example.server.query;
\ No newline at end of file
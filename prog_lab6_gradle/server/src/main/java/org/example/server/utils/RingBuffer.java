@@ -0,0 +1,99 @@
+package org.example.server.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Кольцевой буфер фиксированной емкости.
+ * При переполнении новые элементы затирают самые старые.
+ * Добавление элемента не выделяет память: массив создается один раз в конструкторе
+ * @param <T> тип хранимых элементов
+ */
+public class RingBuffer<T> {
+    private final Object[] elements;
+
+    /**
+     * Индекс ячейки, в которую будет записан следующий элемент
+     */
+    private int next = 0;
+
+    /**
+     * Общее число элементов, добавленных за все время
+     */
+    private long written = 0;
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Емкость кольцевого буфера должна быть больше 0");
+        this.elements = new Object[capacity];
+    }
+
+    /**
+     * Добавляет элемент, при необходимости затирая самый старый
+     * @param element элемент
+     */
+    public void add(T element) {
+        elements[next] = element;
+        next = (next + 1 == elements.length) ? 0 : next + 1;
+        written++;
+    }
+
+    /**
+     * @return число элементов, хранящихся в буфере в данный момент
+     */
+    public int size() {
+        return (int) Math.min(written, elements.length);
+    }
+
+    /**
+     * @return максимальное число хранимых элементов
+     */
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * @return сколько элементов было добавлено за все время (включая затертые)
+     */
+    public long getWrittenCount() {
+        return written;
+    }
+
+    public boolean isEmpty() {
+        return written == 0;
+    }
+
+    /**
+     * Возвращает последние n элементов в порядке добавления (от старых к новым)
+     * @param n сколько элементов нужно
+     * @return список из не более чем n элементов
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> last(int n) {
+        int count = Math.min(Math.max(n, 0), size());
+        List<T> result = new ArrayList<>(count);
+        int index = next - count;
+        if (index < 0) index += elements.length;
+        for (int i = 0; i < count; i++) {
+            result.add((T) elements[index]);
+            index = (index + 1 == elements.length) ? 0 : index + 1;
+        }
+        return result;
+    }
+
+    /**
+     * @return все хранимые элементы от старых к новым
+     */
+    public List<T> toList() {
+        return last(size());
+    }
+
+    /**
+     * Очищает буфер
+     */
+    public void clear() {
+        Arrays.fill(elements, null);
+        next = 0;
+        written = 0;
+    }
+}
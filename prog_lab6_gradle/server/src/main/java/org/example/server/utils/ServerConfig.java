@@ -0,0 +1,139 @@
+package org.example.server.utils;
+
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.FrameCompressor;
+
+/**
+ * Настройки сервера.
+ * Задаются системными свойствами JVM при запуске: java -Dимя=значение -jar server.jar ...
+ */
+public final class ServerConfig {
+    /**
+     * Сколько последних команд хранится в истории одного клиента (server.history.session)
+     */
+    public static final int SESSION_HISTORY_SIZE = Integer.getInteger("server.history.session", 5);
+
+    /**
+     * Сколько последних команд всех клиентов хранится в общей истории для аудита (server.history.global)
+     */
+    public static final int GLOBAL_HISTORY_SIZE = Integer.getInteger("server.history.global", 1000);
+
+    /**
+     * Каждый какой успешный запрос писать в журнал доступа (server.accesslog.sample).
+     * 1 - каждый, 100 - каждый сотый, 0 - журнал выключен. Ошибки пишутся всегда, если журнал включен
+     */
+    public static final int ACCESS_LOG_SAMPLE_RATE = Integer.getInteger("server.accesslog.sample", 1);
+
+    /**
+     * Максимальное число команд в одном пакетном запросе (server.batch.max)
+     */
+    public static final int MAX_BATCH_SIZE = Integer.getInteger("server.batch.max", 10000);
+
+    /**
+     * Сколько последних изменений коллекции хранится для синхронизации реплик клиентов (server.changelog.size).
+     * Клиент, отставший больше, получает полный снимок коллекции
+     */
+    public static final int CHANGE_LOG_SIZE = Integer.getInteger("server.changelog.size", 10000);
+
+    /**
+     * Сколько байт может ждать отправки подписчику изменений (server.subscribe.queue).
+     * Подписчик, который не успевает их забирать, отписывается
+     */
+    public static final long SUBSCRIBER_QUEUE_BYTES = Long.getLong("server.subscribe.queue", 1024 * 1024);
+
+    /**
+     * Наибольшая длина кадра запроса; кадр длиннее отклоняется по заголовку, и соединение закрывается (server.frame.max).
+     * Порция импорта по умолчанию занимает несколько мегабайт
+     */
+    public static final int MAX_REQUEST_FRAME_SIZE = Integer.getInteger("server.frame.max", 16 * 1024 * 1024);
+
+    /**
+     * Разрешено ли сжатие ответов клиентам, которые его запросили (server.compression)
+     */
+    public static final boolean COMPRESSION_ENABLED = Boolean.parseBoolean(System.getProperty("server.compression", "true"));
+
+    /**
+     * Ответы короче этого числа байт не сжимаются (server.compression.threshold)
+     */
+    public static final int COMPRESSION_THRESHOLD = Integer.getInteger("server.compression.threshold", FrameCompressor.DEFAULT_THRESHOLD);
+
+    /**
+     * Наибольшая исходная длина сжатого кадра от клиента (server.compression.inflated.max)
+     */
+    public static final int MAX_INFLATED_FRAME_SIZE = Integer.getInteger("server.compression.inflated.max", FrameCodec.MAX_INFLATED_FRAME_SIZE);
+
+    /**
+     * Сколько байт свободных буферов каждого размера хранит пул буферов сервера (server.buffers.pooled)
+     */
+    public static final int BUFFER_POOL_SIZE = Integer.getInteger("server.buffers.pooled", 2 * 1024 * 1024);
+
+    /**
+     * Максимальное число одновременных подключений (server.connections.max). Лишние подключения сразу закрываются
+     */
+    public static final int MAX_CONNECTIONS = Integer.getInteger("server.connections.max", 1024);
+
+    /**
+     * Через сколько мс без запросов соединение закрывается (server.idle.timeout, 0 - не закрывать).
+     * Подписчиков изменений это не касается
+     */
+    public static final long IDLE_TIMEOUT_MS = Long.getLong("server.idle.timeout", 5 * 60 * 1000);
+
+    /**
+     * Сколько байт ответов может ждать отправки одному клиенту (server.outbound.limit).
+     * При превышении сервер перестает читать запросы клиента, пока очередь не опустеет до половины
+     */
+    public static final long OUTBOUND_LIMIT_BYTES = Long.getLong("server.outbound.limit", 4 * 1024 * 1024);
+
+    /**
+     * Сколько запросов в секунду разрешено одному подключению в среднем (server.ratelimit.rate, 0 - без ограничения).
+     * Запросы сверх лимита получают ответ BUSY со временем, через которое можно повторить
+     */
+    public static final int RATE_LIMIT_PER_SECOND = Integer.getInteger("server.ratelimit.rate", 1000);
+
+    /**
+     * Сколько запросов подряд подключение может отправить сверх средней частоты (server.ratelimit.burst)
+     */
+    public static final int RATE_LIMIT_BURST = Integer.getInteger("server.ratelimit.burst", 2000);
+
+    /**
+     * Сколько принятых запросов одного клиента может ждать выполнения (server.queue.max).
+     * Пока очередь полна, сервер не читает новые запросы клиента
+     */
+    public static final int MAX_QUEUED_REQUESTS = Integer.getInteger("server.queue.max", 64);
+
+    /**
+     * Квант времени выполнения команд, который подключение получает за один круг планировщика, в мкс (server.scheduler.quantum)
+     */
+    public static final long SCHEDULER_QUANTUM_MICROS = Long.getLong("server.scheduler.quantum", 2000);
+
+    /**
+     * Ожидаемое время в очереди в мс, начиная с которого сервер отклоняет тяжелые чтения (server.overload.heavy, 0 - не отклонять).
+     * Дешевые чтения и изменения коллекции принимаются всегда
+     */
+    public static final long OVERLOAD_HEAVY_READ_MS = Long.getLong("server.overload.heavy", 200);
+
+    /**
+     * Сколько мс при остановке сервера ждать выполнения принятых запросов и отправки ответов (server.shutdown.timeout)
+     */
+    public static final long SHUTDOWN_TIMEOUT_MS = Long.getLong("server.shutdown.timeout", 10000);
+
+    /**
+     * С какого размера коллекции полный просмотр выполняется на нескольких ядрах (server.scan.parallel.threshold).
+     * Точку, с которой это выгодно, показывает бенчмарк ParallelScanBenchmark
+     */
+    public static final int PARALLEL_SCAN_THRESHOLD = Integer.getInteger("server.scan.parallel.threshold", 50_000);
+
+    /**
+     * Сколько потоков выполняет параллельный просмотр (server.scan.parallel.threads, 1 - всегда в одном потоке)
+     */
+    public static final int PARALLEL_SCAN_THREADS = Integer.getInteger("server.scan.parallel.threads", Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Наибольшее N, при котором head N и tail N без условия считаются дешевым чтением (server.head.cheap.max).
+     * Запрос большего числа элементов или запрос с условием - тяжелое чтение
+     */
+    public static final int HEAD_CHEAP_MAX = Integer.getInteger("server.head.cheap.max", 1000);
+
+    private ServerConfig() {
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.server.utils;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров.
+ * Время делится на такты по tickMs, таймер попадает в ячейку своего такта по модулю числа ячеек,
+ * поэтому постановка таймера - O(1), а продвижение на такт просматривает только одну ячейку.
+ * Таймеры нельзя отменить: владелец сам проверяет при срабатывании, актуален ли таймер, и при необходимости ставит новый.
+ * Не потокобезопасно
+ * @param <T> тип объектов, для которых ставятся таймеры
+ */
+public class TimerWheel<T> {
+    private record Timer<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMs;
+    private final long startMs;
+    private final ArrayList<Timer<T>>[] slots;
+
+    /**
+     * Последний обработанный такт
+     */
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * Сработавшие таймеры текущего такта (переиспользуется между тактами)
+     */
+    private final ArrayList<Timer<T>> due = new ArrayList<>();
+
+    /**
+     * @param tickMs длительность такта в мс (точность таймеров)
+     * @param slotCount число ячеек
+     * @param nowMs текущее время в мс
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMs, int slotCount, long nowMs) {
+        if (tickMs <= 0 || slotCount <= 0) throw new IllegalArgumentException("Такт и число ячеек колеса таймеров должны быть больше 0");
+        this.tickMs = tickMs;
+        this.startMs = nowMs;
+        this.slots = new ArrayList[slotCount];
+        for (int i = 0; i < slotCount; i++) slots[i] = new ArrayList<>();
+    }
+
+    /**
+     * Ставит таймер
+     * @param item объект
+     * @param deadlineMs момент срабатывания в мс (не раньше следующего такта)
+     */
+    public void schedule(T item, long deadlineMs) {
+        long deadlineTick = Math.max(currentTick + 1, Math.floorDiv(deadlineMs - startMs + tickMs - 1, tickMs));
+        slots[(int) (deadlineTick % slots.length)].add(new Timer<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Продвигает колесо до текущего момента
+     * @param nowMs текущее время в мс
+     * @param onExpired вызывается для каждого сработавшего таймера (может ставить новые таймеры)
+     */
+    public void advance(long nowMs, Consumer<T> onExpired) {
+        long targetTick = Math.floorDiv(nowMs - startMs, tickMs);
+        while (currentTick < targetTick) {
+            currentTick++;
+            ArrayList<Timer<T>> slot = slots[(int) (currentTick % slots.length)];
+            if (slot.isEmpty()) continue;
+
+            // таймеры следующих оборотов колеса остаются в ячейке
+            int kept = 0;
+            for (Timer<T> timer : slot) {
+                if (timer.deadlineTick() > currentTick) slot.set(kept++, timer);
+                else due.add(timer);
+            }
+            slot.subList(kept, slot.size()).clear();
+            size -= due.size();
+
+            for (Timer<T> timer : due) onExpired.accept(timer.item());
+            due.clear();
+        }
+    }
+
+    /**
+     * @return число поставленных и еще не сработавших таймеров
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.server.utils;
+
+/**
+ * Ведро токенов для ограничения частоты запросов.
+ * Токены накапливаются с постоянной скоростью до емкости ведра, каждый запрос забирает один токен.
+ * Пополнение считается лениво при обращении, поэтому таймеры не нужны.
+ * Не потокобезопасно
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNs;
+
+    /**
+     * @param ratePerSecond средняя частота, токенов в секунду
+     * @param capacity емкость ведра (сколько запросов можно сделать подряд)
+     * @param nowNs текущее время по {@link System#nanoTime}
+     */
+    public TokenBucket(double ratePerSecond, double capacity, long nowNs) {
+        if (ratePerSecond <= 0 || capacity < 1) throw new IllegalArgumentException("Частота должна быть больше нуля, а емкость не меньше одного токена");
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1e9;
+        this.tokens = capacity;
+        this.lastRefillNs = nowNs;
+    }
+
+    /**
+     * Забирает токен, если он есть
+     * @param nowNs текущее время по {@link System#nanoTime}
+     * @return true если токен получен
+     */
+    public boolean tryAcquire(long nowNs) {
+        refill(nowNs);
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * @param nowNs текущее время по {@link System#nanoTime}
+     * @return через сколько нс появится следующий токен (0 - уже есть)
+     */
+    public long nanosUntilAvailable(long nowNs) {
+        refill(nowNs);
+        if (tokens >= 1) return 0;
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    private void refill(long nowNs) {
+        long elapsed = nowNs - lastRefillNs;
+        if (elapsed <= 0) return;
+        tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+        lastRefillNs = nowNs;
+    }
+}
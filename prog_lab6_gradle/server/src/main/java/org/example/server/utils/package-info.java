@@ -0,0 +1,4 @@
+/**
+ * Утилитарные классы сервера: настройки и вспомогательные структуры данных
+ */
+package org.example.server.utils;
\ No newline at end of file
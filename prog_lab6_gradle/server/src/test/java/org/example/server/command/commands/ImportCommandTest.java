@@ -0,0 +1,48 @@
+package org.example.server.command.commands;
+
+import org.example.common.dtp.ImportChunkRequestCommand;
+import org.example.common.dtp.ImportChunkResponse;
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.example.server.managers.CollectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportCommandTest {
+    private final CollectionManager collectionManager = new CollectionManager();
+    private final ImportCommand importCommand = new ImportCommand(collectionManager);
+
+    @BeforeEach
+    void clearCollection() {
+        assertTrue(CollectionManager.setCollection(new PriorityQueue<>()));
+    }
+
+    @Test
+    void invalidRowsAreSkippedAndTheRestAdded() {
+        Ticket withoutCoordinates = ticket("no coordinates", 10f);
+        withoutCoordinates.setCoordinates(null);
+        List<Ticket> chunk = List.of(ticket("a", 10f), withoutCoordinates, ticket("b", 0f), ticket("c", 100f));
+
+        ImportChunkResponse response = assertInstanceOf(ImportChunkResponse.class,
+                importCommand.execute(new ImportChunkRequestCommand("tickets.csv", chunk)));
+        assertEquals(2, response.getAccepted());
+        assertEquals(2, response.getRejected());
+        assertEquals(List.of("a", "c"), CollectionManager.getCollection().stream().map(Ticket::getName).sorted().toList());
+        // отклоненные строки не занимают id
+        assertEquals(List.of(1, 2), CollectionManager.getCollection().stream().map(Ticket::getId).sorted().toList());
+    }
+
+    private static Ticket ticket(String name, float discount) {
+        return new Ticket(name, new Coordinates(1f, 1), 100, discount, TicketType.USUAL, true, new Person(170, Country.ITALY));
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.server.managers;
+
+import org.example.common.dtp.ChangeEvent;
+import org.example.common.dtp.ChangeType;
+import org.example.common.dtp.CollectionChange;
+import org.example.common.dtp.FrameCodec;
+import org.example.common.dtp.FrameCompressor;
+import org.example.common.dtp.FrameReader;
+import org.example.common.dtp.ObjectSerializer;
+import org.example.common.dtp.Response;
+import org.example.common.dtp.ResponseStatus;
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+    @Test
+    void skipsChangesSubscriberAlreadySynced() throws Exception {
+        ChangeFeed feed = new ChangeFeed(1024 * 1024);
+        ClientSession fromStart = new ClientSession("a");
+        ClientSession synced = new ClientSession("b");
+        feed.subscribe(fromStart, 0);
+        feed.subscribe(synced, 2);
+        for (long version = 1; version <= 3; version++) feed.onChange(change(version, "t"));
+        feed.dispatch();
+
+        assertEquals(List.of(1L, 2L, 3L), versions(received(fromStart)));
+        assertEquals(List.of(3L), versions(received(synced)));
+    }
+
+    @Test
+    void changesWithoutSubscribersAreNotKept() throws Exception {
+        ChangeFeed feed = new ChangeFeed(1024 * 1024);
+        feed.onChange(change(1, "t"));
+        ClientSession session = new ClientSession("a");
+        feed.subscribe(session, 0);
+        feed.dispatch();
+        assertTrue(received(session).isEmpty());
+    }
+
+    @Test
+    void lateSubscriberIsUnsubscribedWithResync() throws Exception {
+        ChangeFeed feed = new ChangeFeed(2000);
+        ClientSession session = new ClientSession("a");
+        feed.subscribe(session, 0);
+        for (long version = 1; version <= 100; version++) feed.onChange(change(version, "t"));
+        // сессия без канала: очередь не может уйти в сеть и переполняется
+        feed.dispatch();
+
+        assertFalse(session.isSubscribed());
+        assertEquals(0, feed.getSubscriberCount());
+        List<Response> responses = received(session);
+        Response last = responses.get(responses.size() - 1);
+        assertEquals(ResponseStatus.RESYNC, last.getResponseStatus());
+        // после RESYNC событий нет, а до него они шли по порядку
+        List<Long> versions = versions(responses.subList(0, responses.size() - 1));
+        assertTrue(versions.size() < 100);
+        for (int i = 0; i < versions.size(); i++) assertEquals(i + 1, versions.get(i).longValue());
+
+        feed.onChange(change(101, "t"));
+        feed.dispatch();
+        assertEquals(responses.size(), received(session).size());
+    }
+
+    @Test
+    void compressesEventsOnlyForDeflateSubscribers() throws Exception {
+        ChangeFeed feed = new ChangeFeed(1024 * 1024);
+        ClientSession plain = new ClientSession("a");
+        ClientSession deflate = new ClientSession("b");
+        deflate.setCompressor(new FrameCompressor(16));
+        feed.subscribe(plain, 0);
+        feed.subscribe(deflate, 0);
+        feed.onChange(change(1, "x".repeat(20_000)));
+        feed.dispatch();
+
+        int plainHeader = plain.getOutbound().peek().getInt(0);
+        int deflateHeader = deflate.getOutbound().peek().getInt(0);
+        assertEquals(0, plainHeader & FrameCodec.COMPRESSED_FLAG);
+        assertNotEquals(0, deflateHeader & FrameCodec.COMPRESSED_FLAG);
+        assertTrue((deflateHeader & ~FrameCodec.COMPRESSED_FLAG) < plainHeader / 10);
+        assertEquals(versions(received(plain)), versions(received(deflate)));
+    }
+
+    /**
+     * Разбирает кадры из очереди записи сессии, не трогая саму очередь
+     */
+    private static List<Response> received(ClientSession session) throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (ByteBuffer data : session.getOutbound()) {
+            ByteBuffer copy = data.duplicate();
+            byte[] bytes = new byte[copy.remaining()];
+            copy.get(bytes);
+            stream.write(bytes);
+        }
+        FrameReader reader = new FrameReader(64);
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(stream.toByteArray()));
+        List<Response> responses = new ArrayList<>();
+        while (reader.readFrom(channel) != -1) {
+            for (byte[] frame = reader.nextFrame(); frame != null; frame = reader.nextFrame()) {
+                responses.add((Response) ObjectSerializer.deserializeObject(frame));
+            }
+        }
+        return responses;
+    }
+
+    private static List<Long> versions(List<Response> responses) {
+        return responses.stream().map(response -> assertInstanceOf(ChangeEvent.class, response).getChange().getVersion()).toList();
+    }
+
+    private static CollectionChange change(long version, String name) {
+        Ticket ticket = new Ticket(name, new Coordinates(1f, 1), 10, 5f, TicketType.VIP, true, new Person(170, Country.FRANCE));
+        ticket.setId((int) version);
+        return new CollectionChange(version, ChangeType.ADD, (int) version, ticket);
+    }
+}
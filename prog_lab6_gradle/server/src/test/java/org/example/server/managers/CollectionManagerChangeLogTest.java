@@ -0,0 +1,87 @@
+package org.example.server.managers;
+
+import org.example.common.dtp.ChangeType;
+import org.example.common.dtp.CollectionChange;
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.example.server.utils.ServerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Журнал изменений отдает реплике ровно то, чего она не знает, или null, если нужен полный снимок
+ */
+class CollectionManagerChangeLogTest {
+    private final CollectionManager collectionManager = new CollectionManager();
+
+    @BeforeEach
+    void clearCollection() {
+        assertTrue(CollectionManager.setCollection(new PriorityQueue<>()));
+    }
+
+    @Test
+    void returnsChangesAfterKnownVersion() {
+        long start = CollectionManager.getVersion();
+        collectionManager.addElements(List.of(ticket("a"), ticket("b")));
+        assertTrue(collectionManager.removeById(1));
+        assertEquals(start + 3, CollectionManager.getVersion());
+
+        List<CollectionChange> all = CollectionManager.getChangesSince(start);
+        assertEquals(List.of(start + 1, start + 2, start + 3), all.stream().map(CollectionChange::getVersion).toList());
+        assertEquals(List.of(ChangeType.ADD, ChangeType.ADD, ChangeType.REMOVE), all.stream().map(CollectionChange::getType).toList());
+
+        List<CollectionChange> last = CollectionManager.getChangesSince(start + 2);
+        assertEquals(1, last.size());
+        assertEquals(1, last.get(0).getTicketId().intValue());
+    }
+
+    @Test
+    void currentVersionHasNoChanges() {
+        collectionManager.addElements(List.of(ticket("a")));
+        assertTrue(CollectionManager.getChangesSince(CollectionManager.getVersion()).isEmpty());
+    }
+
+    @Test
+    void futureVersionNeedsSnapshot() {
+        assertNull(CollectionManager.getChangesSince(CollectionManager.getVersion() + 1));
+    }
+
+    @Test
+    void replacedCollectionNeedsSnapshot() {
+        long before = CollectionManager.getVersion();
+        collectionManager.addElements(List.of(ticket("a")));
+        assertTrue(CollectionManager.setCollection(new PriorityQueue<>()));
+
+        assertNull(CollectionManager.getChangesSince(before));
+        assertTrue(CollectionManager.getChangesSince(CollectionManager.getVersion()).isEmpty());
+    }
+
+    @Test
+    void versionJustOutsideLogNeedsSnapshot() {
+        long start = CollectionManager.getVersion();
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i <= ServerConfig.CHANGE_LOG_SIZE; i++) tickets.add(ticket("t" + i));
+        collectionManager.addElements(tickets);
+
+        // журнал хранит ровно CHANGE_LOG_SIZE последних изменений
+        List<CollectionChange> oldest = CollectionManager.getChangesSince(start + 1);
+        assertEquals(ServerConfig.CHANGE_LOG_SIZE, oldest.size());
+        assertEquals(start + 2, oldest.get(0).getVersion());
+        assertNull(CollectionManager.getChangesSince(start));
+    }
+
+    private static Ticket ticket(String name) {
+        return new Ticket(name, new Coordinates(1f, 1), 10, 5f, TicketType.CHEAP, false, new Person(170, Country.CHINA));
+    }
+}
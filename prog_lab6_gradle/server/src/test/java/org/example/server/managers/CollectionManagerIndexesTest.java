@@ -0,0 +1,121 @@
+package org.example.server.managers;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.example.server.query.FieldIndex;
+import org.example.server.query.TicketField;
+import org.example.server.query.TicketIndexes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Вторичные индексы должны совпадать с коллекцией после любого изменения через {@link CollectionManager}
+ */
+class CollectionManagerIndexesTest {
+    private static final TicketType[] TYPES = {TicketType.VIP, TicketType.USUAL, TicketType.CHEAP, TicketType.BUDGETARY, null};
+
+    private final CollectionManager collectionManager = new CollectionManager();
+
+    @BeforeEach
+    void fillCollection() {
+        assertTrue(CollectionManager.setCollection(new PriorityQueue<>()));
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) tickets.add(ticket("t" + i % 30, i));
+        assertEquals(200, collectionManager.addElements(tickets));
+        assertConsistent();
+    }
+
+    @Test
+    void replaceElementMovesTicketBetweenKeys() {
+        Ticket old = collectionManager.getElementById(5);
+        assertNotNull(old);
+        Ticket replacement = ticket("replacement", 1000);
+        assertTrue(collectionManager.replaceElement(5, replacement));
+
+        assertConsistent();
+        assertAbsent(old);
+        assertEquals(1, CollectionManager.getIndexes().get(TicketField.NAME).count("replacement"));
+    }
+
+    @Test
+    void removeHeadRemovesFromAllIndexes() {
+        List<Ticket> removed = new ArrayList<>();
+        for (int i = 0; i < 50; i++) removed.add(collectionManager.removeHead());
+
+        assertConsistent();
+        removed.forEach(this::assertAbsent);
+        // извлекались первые по приоритету билеты
+        Ticket first = CollectionManager.getIndexes().getPriorityOrder().first();
+        assertTrue(removed.stream().allMatch(ticket -> TicketIndexes.PRIORITY_ORDER.compare(ticket, first) < 0));
+    }
+
+    @Test
+    void removeByIdRemovesFromAllIndexes() {
+        Ticket ticket = collectionManager.getElementById(42);
+        assertTrue(collectionManager.removeById(42));
+        assertFalse(collectionManager.removeById(42));
+
+        assertConsistent();
+        assertAbsent(ticket);
+    }
+
+    @Test
+    void clearEmptiesAllIndexes() {
+        collectionManager.clearCollection();
+        assertConsistent();
+        assertTrue(CollectionManager.getIndexes().getPriorityOrder().isEmpty());
+
+        collectionManager.addElements(List.of(ticket("again", 1)));
+        assertConsistent();
+    }
+
+    /**
+     * Каждый индекс содержит ровно билеты коллекции под их текущими значениями, индекс приоритета - в порядке очереди
+     */
+    private void assertConsistent() {
+        PriorityQueue<Ticket> collection = CollectionManager.getCollection();
+        for (FieldIndex index : CollectionManager.getIndexes().getAll()) {
+            assertEquals(collection.size(), index.size(), "размер индекса " + index.getField());
+            for (Ticket ticket : collection) {
+                Comparable<?> key = index.getField().get(ticket);
+                long expected = collection.stream().filter(other -> Objects.equals(index.getField().get(other), key)).count();
+                assertEquals(expected, index.count(key), "индекс " + index.getField() + " = " + key);
+                assertTrue(contains(index, key, ticket), "билет " + ticket.getId() + " в индексе " + index.getField());
+            }
+        }
+        List<Ticket> sorted = new ArrayList<>(collection);
+        sorted.sort(TicketIndexes.PRIORITY_ORDER);
+        assertEquals(sorted, new ArrayList<>(CollectionManager.getIndexes().getPriorityOrder()));
+    }
+
+    private void assertAbsent(Ticket ticket) {
+        for (FieldIndex index : CollectionManager.getIndexes().getAll()) {
+            assertFalse(contains(index, index.getField().get(ticket), ticket), "удаленный билет в индексе " + index.getField());
+        }
+        assertFalse(CollectionManager.getIndexes().getPriorityOrder().stream().anyMatch(other -> other == ticket));
+    }
+
+    private static boolean contains(FieldIndex index, Comparable<?> key, Ticket ticket) {
+        boolean[] found = {false};
+        index.forEach(key, other -> found[0] |= other == ticket);
+        return found[0];
+    }
+
+    private static Ticket ticket(String name, int seed) {
+        return new Ticket(name, new Coordinates(seed % 17, seed), 1 + seed % 40, (float) (1 + seed % 25), TYPES[seed % TYPES.length],
+                seed % 2 == 0, new Person(150 + seed % 30, seed % 3 == 0 ? null : Country.values()[seed % Country.values().length]));
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.server.managers;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.example.server.query.TicketField;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketAggregatesTest {
+    private static final TicketAggregates.GroupKey VIP_REFUNDABLE = new TicketAggregates.GroupKey(TicketType.VIP, true);
+
+    @Test
+    void removingExtremeOpensNextValue() {
+        TicketAggregates aggregates = new TicketAggregates();
+        Ticket cheapest = ticket(TicketType.VIP, 10, 5f);
+        Ticket middle = ticket(TicketType.VIP, 20, 5f);
+        Ticket dearest = ticket(TicketType.VIP, 30, 5f);
+        aggregates.add(cheapest);
+        aggregates.add(middle);
+        aggregates.add(dearest);
+
+        aggregates.remove(dearest);
+        TicketAggregates.FieldStats price = aggregates.getGroups().get(VIP_REFUNDABLE).getPrice();
+        assertEquals(10.0, price.getMin());
+        assertEquals(20.0, price.getMax());
+
+        aggregates.remove(cheapest);
+        assertEquals(20.0, price.getMin());
+        assertEquals(20.0, price.getMax());
+        assertEquals(1L, price.getCount());
+    }
+
+    @Test
+    void repeatedExtremeSurvivesRemovalOfOneCopy() {
+        TicketAggregates aggregates = new TicketAggregates();
+        Ticket first = ticket(TicketType.VIP, 50, 5f);
+        aggregates.add(first);
+        aggregates.add(ticket(TicketType.VIP, 50, 5f));
+        aggregates.add(ticket(TicketType.VIP, 1, 5f));
+
+        aggregates.remove(first);
+        assertEquals(50.0, aggregates.getGroups().get(VIP_REFUNDABLE).getPrice().getMax());
+    }
+
+    @Test
+    void totalFollowsRemovalsInEveryGroup() {
+        TicketAggregates aggregates = new TicketAggregates();
+        Ticket vipMax = ticket(TicketType.VIP, 100, 5f);
+        Ticket cheapMin = ticket(TicketType.CHEAP, 1, 5f);
+        aggregates.add(vipMax);
+        aggregates.add(cheapMin);
+        aggregates.add(ticket(TicketType.VIP, 40, 5f));
+        aggregates.add(ticket(TicketType.CHEAP, 30, 5f));
+
+        aggregates.remove(vipMax);
+        aggregates.remove(cheapMin);
+        TicketAggregates.FieldStats total = aggregates.getTotal().getPrice();
+        assertEquals(30.0, total.getMin());
+        assertEquals(40.0, total.getMax());
+        assertEquals(2L, total.getCount());
+    }
+
+    @Test
+    void emptiedGroupIsDropped() {
+        TicketAggregates aggregates = new TicketAggregates();
+        Ticket ticket = ticket(TicketType.VIP, 10, 5f);
+        aggregates.add(ticket);
+        aggregates.remove(ticket);
+        assertTrue(aggregates.getGroups().isEmpty());
+        assertTrue(Double.isNaN(aggregates.getTotal().getPrice().getMin()));
+    }
+
+    @Test
+    void discountMatchesQueryValue() {
+        TicketAggregates aggregates = new TicketAggregates();
+        Ticket ticket = ticket(TicketType.VIP, 10, 0.1f);
+        aggregates.add(ticket);
+        TicketAggregates.FieldStats discount = aggregates.getGroups().get(VIP_REFUNDABLE).getDiscount();
+        // 0.1f в отчете - это 0.1, как и в запросе discount = 0.1
+        assertEquals(0.1, discount.getMin());
+        assertEquals(((Double) TicketField.DISCOUNT.get(ticket)).doubleValue(), discount.getMax());
+
+        aggregates.remove(ticket);
+        assertTrue(aggregates.getGroups().isEmpty());
+    }
+
+    private static Ticket ticket(TicketType type, double price, float discount) {
+        return new Ticket("t", new Coordinates(1f, 1), price, discount, type, true, new Person(170, Country.CHINA));
+    }
+}
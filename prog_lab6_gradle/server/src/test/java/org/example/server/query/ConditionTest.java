@@ -0,0 +1,71 @@
+package org.example.server.query;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.example.server.query.Condition.Comparison;
+import org.example.server.query.Condition.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionTest {
+    @Test
+    void floatFieldComparesAsDecimal() {
+        Ticket ticket = ticket(0.1f);
+        assertTrue(QueryParser.parseCondition("discount = 0.1").compile().test(ticket));
+        assertFalse(QueryParser.parseCondition("discount > 0.1").compile().test(ticket));
+        // 0.1f в двоичном виде чуть больше 0.1, но запрос видит его десятичную запись
+        assertFalse(QueryParser.parseCondition("discount = 0.10000000149011612").compile().test(ticket));
+        assertTrue(QueryParser.parseCondition("discount < 0.10000000149011612").compile().test(ticket));
+    }
+
+    @Test
+    void floatFieldAgreesWithDecimalValue() {
+        Random random = new Random(11);
+        List<Double> constants = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            float value = random.nextFloat() * 100;
+            double decimal = TicketField.floatToDouble(value);
+            // десятичная запись float, ее соседи и сам float, расширенный до double
+            constants.addAll(List.of(decimal, Math.nextUp(decimal), Math.nextDown(decimal), (double) value, random.nextDouble() * 100));
+        }
+        for (int i = 0; i < 2000; i++) {
+            float value = i < 300 ? (float) constants.get(i * 5 % constants.size()).doubleValue() : random.nextFloat() * 100;
+            Ticket ticket = ticket(value);
+            double actual = TicketField.floatToDouble(value);
+            for (int j = 0; j < 20; j++) {
+                double constant = constants.get(random.nextInt(constants.size()));
+                for (Operator operator : new Operator[]{Operator.EQ, Operator.NE, Operator.LT, Operator.LE, Operator.GT, Operator.GE}) {
+                    assertEquals(expected(operator, Double.compare(actual, constant)),
+                            new Comparison(TicketField.DISCOUNT, operator, constant).compile().test(ticket),
+                            value + " " + operator + " " + constant);
+                }
+            }
+        }
+    }
+
+    private static boolean expected(Operator operator, int order) {
+        return switch (operator) {
+            case EQ -> order == 0;
+            case NE -> order != 0;
+            case LT -> order < 0;
+            case LE -> order <= 0;
+            case GT -> order > 0;
+            case GE -> order >= 0;
+            case STARTS_WITH -> throw new IllegalArgumentException();
+        };
+    }
+
+    private static Ticket ticket(float discount) {
+        return new Ticket("t", new Coordinates(1f, 1), 10, discount, TicketType.VIP, true, new Person(170, Country.CHINA));
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.server.query;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldIndexTest {
+    @Test
+    void keepsTicketsWithEqualValues() {
+        FieldIndex index = new FieldIndex(TicketField.PRICE, true);
+        Ticket first = ticket(1, "a", 10);
+        Ticket second = ticket(2, "b", 10);
+        Ticket third = ticket(3, "c", 10);
+        index.add(first);
+        index.add(second);
+        index.add(third);
+        assertEquals(3, index.count(10.0));
+        assertEquals(3, index.size());
+
+        index.remove(second);
+        index.remove(third);
+        assertEquals(1, index.count(10.0));
+        assertEquals(List.of(first), collect(index, 10.0));
+
+        index.remove(first);
+        assertEquals(0, index.count(10.0));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void repeatedAddAndMissingRemoveDoNotChangeSize() {
+        FieldIndex index = new FieldIndex(TicketField.NAME, true);
+        Ticket ticket = ticket(1, "a", 10);
+        index.add(ticket);
+        index.add(ticket);
+        assertEquals(1, index.size());
+
+        index.remove(ticket(2, "a", 10));
+        index.remove(ticket(3, "b", 10));
+        assertEquals(1, index.size());
+        assertEquals(1, index.count("a"));
+    }
+
+    @Test
+    void scansRangesAndPrefixes() {
+        FieldIndex prices = new FieldIndex(TicketField.PRICE, true);
+        FieldIndex names = new FieldIndex(TicketField.NAME, true);
+        for (int i = 1; i <= 20; i++) {
+            Ticket ticket = ticket(i, "n" + i, i);
+            prices.add(ticket);
+            names.add(ticket);
+        }
+
+        List<Ticket> range = new ArrayList<>();
+        prices.forEachInRange(5.0, false, 8.0, true, range::add);
+        assertEquals(List.of(6.0, 7.0, 8.0), range.stream().map(Ticket::getPrice).toList());
+
+        List<Ticket> prefix = new ArrayList<>();
+        names.forEachWithPrefix("n1", prefix::add);
+        // n1 и n10..n19
+        assertEquals(11, prefix.size());
+        assertTrue(prefix.stream().allMatch(ticket -> ticket.getName().startsWith("n1")));
+        assertEquals(11, names.countWithPrefix("n1", 100));
+        assertEquals(5, names.countWithPrefix("n1", 5));
+
+        assertEquals(20, prices.estimateRange(null, null));
+        assertEquals(0, prices.estimateRange(30.0, null));
+    }
+
+    @Test
+    void hashedIndexAcceptsNullAndRejectsRanges() {
+        FieldIndex index = new FieldIndex(TicketField.TYPE, false);
+        Ticket withoutType = ticket(1, "a", 10);
+        withoutType.setType(null);
+        index.add(withoutType);
+        index.add(ticket(2, "b", 10));
+        assertEquals(1, index.count(null));
+        assertEquals(1, index.count(TicketType.USUAL));
+        assertThrows(UnsupportedOperationException.class, () -> index.forEachWithPrefix("a", ticket -> {
+        }));
+    }
+
+    private static List<Ticket> collect(FieldIndex index, Comparable<?> key) {
+        List<Ticket> tickets = new ArrayList<>();
+        index.forEach(key, tickets::add);
+        return tickets;
+    }
+
+    static Ticket ticket(int id, String name, double price) {
+        Ticket ticket = new Ticket(name, new Coordinates(id, id), price, 10f, TicketType.USUAL, true, new Person(170, Country.CHINA));
+        ticket.setId(id);
+        return ticket;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.server.query;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Параллельный просмотр (порог 1) должен давать ровно то же, что и просмотр в одном потоке
+ */
+class ParallelScanTest {
+    private static final ParallelScan PARALLEL = new ParallelScan(1);
+    private static final ParallelScan SEQUENTIAL = new ParallelScan(Integer.MAX_VALUE);
+
+    private final List<Ticket> collection = tickets(30_000);
+    private final Predicate<Ticket> predicate = QueryParser.parseCondition("discount < 50.5 and type != cheap").compile();
+    // много равных скидок: проверяет устойчивость слияния частей
+    private final Comparator<Ticket> order = TicketField.DISCOUNT.comparator();
+
+    @Test
+    void filterKeepsScanOrder() {
+        assertEquals(SEQUENTIAL.filter(collection, predicate), PARALLEL.filter(collection, predicate));
+    }
+
+    @Test
+    void filterSortedMatchesSequential() {
+        assertEquals(SEQUENTIAL.filterSorted(collection, predicate, order), PARALLEL.filterSorted(collection, predicate, order));
+        assertEquals(SEQUENTIAL.sorted(collection, order.reversed()), PARALLEL.sorted(collection, order.reversed()));
+    }
+
+    @Test
+    void filterTopKMatchesSequential() {
+        // куча не сохраняет порядок равных, поэтому, как и в запросах, порядок доопределяется приоритетом
+        Comparator<Ticket> total = order.thenComparing(TicketIndexes.PRIORITY_ORDER);
+        for (int limit : new int[]{1, 10, 5000, 100_000}) {
+            assertEquals(SEQUENTIAL.filterTopK(collection, predicate, total, limit),
+                    PARALLEL.filterTopK(collection, predicate, total, limit), "limit = " + limit);
+        }
+    }
+
+    @Test
+    void distinctKeepsFirstAppearanceOrder() {
+        assertEquals(new ArrayList<>(SEQUENTIAL.distinct(collection, Ticket::getDiscount)),
+                new ArrayList<>(PARALLEL.distinct(collection, Ticket::getDiscount)));
+    }
+
+    private static List<Ticket> tickets(int size) {
+        Random random = new Random(3);
+        TicketType[] types = TicketType.values();
+        List<Ticket> tickets = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            float discount = (1 + random.nextInt(1000)) / 10f;
+            Ticket ticket = new Ticket("t" + i, new Coordinates(random.nextFloat(), i), 1 + random.nextInt(1000), discount,
+                    types[random.nextInt(types.length)], random.nextBoolean(), new Person(170, Country.CHINA));
+            ticket.setId(i);
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+}
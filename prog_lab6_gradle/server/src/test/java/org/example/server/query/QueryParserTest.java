@@ -0,0 +1,123 @@
+package org.example.server.query;
+
+import org.example.common.entity.TicketType;
+import org.example.server.query.Condition.Comparison;
+import org.example.server.query.Condition.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryParserTest {
+    @Test
+    void andBindsTighterThanOr() {
+        Condition.Or or = assertInstanceOf(Condition.Or.class, QueryParser.parseCondition("price > 1 or price < 0 and type = vip"));
+        assertEquals(2, or.operands().size());
+        assertInstanceOf(Comparison.class, or.operands().get(0));
+        Condition.And and = assertInstanceOf(Condition.And.class, or.operands().get(1));
+        assertEquals(2, and.operands().size());
+    }
+
+    @Test
+    void notBindsTighterThanAnd() {
+        Condition.And and = assertInstanceOf(Condition.And.class, QueryParser.parseCondition("not price > 1 and type = vip"));
+        assertInstanceOf(Condition.Not.class, and.operands().get(0));
+        assertInstanceOf(Comparison.class, and.operands().get(1));
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        Condition.And and = assertInstanceOf(Condition.And.class, QueryParser.parseCondition("(price > 1 or price < 0) and type = vip"));
+        assertInstanceOf(Condition.Or.class, and.operands().get(0));
+    }
+
+    @Test
+    void sameOperatorIsFlattened() {
+        Condition.Or or = assertInstanceOf(Condition.Or.class, QueryParser.parseCondition("price = 1 or price = 2 or price = 3"));
+        assertEquals(3, or.operands().size());
+    }
+
+    @Test
+    void keywordsAndFieldsIgnoreCase() {
+        Condition.And and = assertInstanceOf(Condition.And.class, QueryParser.parseCondition("WHERE Price >= 10 AND person.Nationality = FRANCE"));
+        Comparison nationality = assertInstanceOf(Comparison.class, and.operands().get(1));
+        assertEquals(TicketField.NATIONALITY, nationality.field());
+    }
+
+    @Test
+    void valuesAreConvertedToFieldType() {
+        assertEquals(new Comparison(TicketField.PRICE, Operator.EQ, 10.0), QueryParser.parseCondition("price = 10"));
+        assertEquals(new Comparison(TicketField.TYPE, Operator.EQ, TicketType.VIP), QueryParser.parseCondition("type = VIP"));
+        assertEquals(new Comparison(TicketField.NAME, Operator.STARTS_WITH, "a b"), QueryParser.parseCondition("name startswith 'a b'"));
+        assertEquals(new Comparison(TicketField.TYPE, Operator.NE, null), QueryParser.parseCondition("type <> null"));
+        assertEquals(new Comparison(TicketField.REFUNDABLE, Operator.EQ, true), QueryParser.parseCondition("refundable = true"));
+    }
+
+    @Test
+    void parsesFullQuery() {
+        Query query = QueryParser.parse("explain select name, price where price >= 10 order by price desc limit 5");
+        assertTrue(query.explain());
+        assertEquals(List.of(TicketField.NAME, TicketField.PRICE), query.projection());
+        assertEquals(new Comparison(TicketField.PRICE, Operator.GE, 10.0), query.condition());
+        assertEquals(TicketField.PRICE, query.orderBy());
+        assertTrue(query.descending());
+        assertEquals(5, query.limit());
+    }
+
+    @Test
+    void conditionIsOptional() {
+        Query query = QueryParser.parse("select * order by name limit 3");
+        assertNull(query.condition());
+        assertTrue(query.projection().isEmpty());
+        assertEquals(TicketField.NAME, query.orderBy());
+        assertFalse(query.descending());
+        assertEquals(3, query.limit());
+
+        Query all = QueryParser.parse("");
+        assertNull(all.condition());
+        assertEquals(-1, all.limit());
+    }
+
+    @Test
+    void whereKeywordCanBeOmitted() {
+        assertEquals(QueryParser.parse("where price > 1").condition(), QueryParser.parse("price > 1").condition());
+    }
+
+    @Test
+    void reportsErrors() {
+        assertError("неизвестное поле \"foo\"", "foo = 1");
+        assertError("значение 'x' не подходит для поля price", "price = 'x'");
+        assertError("ожидалось значение после name startswith", "name startswith");
+        assertError("ожидалась \")\"", "(price > 1");
+        assertError("незакрытая кавычка", "name = 'abc");
+        assertError("неизвестный оператор \"~\"", "price ~ 1");
+        assertError("нельзя сравнивать", "refundable > true");
+        assertError("startswith применим только к строковым полям", "price startswith 1");
+        assertError("поле price всегда заполнено", "price = null");
+        assertError("лишний текст \")\"", "price > 1)");
+        assertError("limit должен быть неотрицательным", "price > 1 limit -2");
+        assertError("ожидалось by", "order price");
+    }
+
+    @Test
+    void limitsNesting() {
+        String deepest = "not ".repeat(QueryParser.MAX_DEPTH) + "price > 1";
+        assertInstanceOf(Condition.Not.class, QueryParser.parseCondition(deepest));
+        assertError("слишком глубокая вложенность", "not " + deepest);
+
+        int depth = 10_000;
+        assertError("слишком глубокая вложенность", "(".repeat(depth) + "price > 1" + ")".repeat(depth));
+    }
+
+    private static void assertError(String expectedMessagePart, String text) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> QueryParser.parse(text));
+        assertTrue(exception.getMessage().startsWith("Ошибка в запросе: "), exception.getMessage());
+        assertTrue(exception.getMessage().contains(expectedMessagePart), exception.getMessage());
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.server.query;
+
+import org.example.common.entity.Coordinates;
+import org.example.common.entity.Country;
+import org.example.common.entity.Person;
+import org.example.common.entity.Ticket;
+import org.example.common.entity.TicketType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryPlannerTest {
+    private static final int SIZE = 1000;
+
+    private final List<Ticket> collection = new ArrayList<>();
+    private final Map<Integer, Ticket> byId = new HashMap<>();
+    private final TicketIndexes indexes = new TicketIndexes();
+    private QueryPlanner planner;
+
+    /**
+     * Цены 1..1000, каждый сотый билет - VIP, остальные поровну USUAL и CHEAP
+     */
+    @BeforeEach
+    void fillCollection() {
+        for (int i = 1; i <= SIZE; i++) {
+            TicketType type = i % 100 == 0 ? TicketType.VIP : i % 2 == 0 ? TicketType.USUAL : TicketType.CHEAP;
+            Ticket ticket = new Ticket("t" + i, new Coordinates(i % 97, i), i, (float) (1 + i % 50), type, i % 3 == 0,
+                    new Person(150 + i % 50, i % 10 == 0 ? Country.FRANCE : Country.CHINA));
+            ticket.setId(i);
+            collection.add(ticket);
+            byId.put(i, ticket);
+            indexes.add(ticket);
+        }
+        planner = new QueryPlanner(collection, byId::get, indexes);
+    }
+
+    @Test
+    void selectiveEqualityUsesIndex() {
+        QueryPlan plan = planAndCheck("type = vip");
+        assertInstanceOf(AccessPath.KeyLookup.class, plan.access());
+        assertEquals(10, plan.access().estimatedRows());
+    }
+
+    @Test
+    void unselectiveConditionUsesFullScan() {
+        QueryPlan plan = planAndCheck("price > 0");
+        assertInstanceOf(AccessPath.FullScan.class, plan.access());
+        // индекс рассматривался, но оказался дороже
+        assertInstanceOf(AccessPath.RangeScan.class, plan.rejected());
+    }
+
+    @Test
+    void unindexedFieldUsesFullScan() {
+        QueryPlan plan = planAndCheck("refundable = true");
+        assertInstanceOf(AccessPath.FullScan.class, plan.access());
+        assertNull(plan.rejected());
+    }
+
+    @Test
+    void idEqualityUsesPrimaryIndex() {
+        QueryPlan plan = planAndCheck("id = 5");
+        AccessPath.IdLookup lookup = assertInstanceOf(AccessPath.IdLookup.class, plan.access());
+        assertEquals(5, lookup.id());
+        assertInstanceOf(AccessPath.IdLookup.class, planAndCheck("id = 5000").access());
+    }
+
+    @Test
+    void rangesOnOneFieldAreMerged() {
+        QueryPlan plan = planAndCheck("price > 10 and price <= 20 and refundable = true");
+        AccessPath.RangeScan range = assertInstanceOf(AccessPath.RangeScan.class, plan.access());
+        assertEquals(10.0, range.from().doubleValue());
+        assertFalse(range.fromInclusive());
+        assertEquals(20.0, range.to().doubleValue());
+        assertTrue(range.toInclusive());
+    }
+
+    @Test
+    void contradictoryRangeIsEmpty() {
+        QueryPlan plan = planAndCheck("price > 20 and price < 10");
+        assertEquals(0, plan.access().estimatedRows());
+        assertTrue(plan.execute().isEmpty());
+    }
+
+    @Test
+    void disjunctionOfIndexedConditionsUsesUnion() {
+        QueryPlan plan = planAndCheck("type = vip or name = 't7' or price < 3");
+        assertInstanceOf(AccessPath.Union.class, plan.access());
+    }
+
+    @Test
+    void disjunctionWithUnindexedConditionUsesFullScan() {
+        assertInstanceOf(AccessPath.FullScan.class, planAndCheck("type = vip or refundable = true").access());
+    }
+
+    @Test
+    void prefixUsesOrderedIndex() {
+        QueryPlan plan = planAndCheck("name startswith 't99'");
+        AccessPath.PrefixScan prefix = assertInstanceOf(AccessPath.PrefixScan.class, plan.access());
+        // t99 и t990..t999
+        assertEquals(11, prefix.estimatedRows());
+    }
+
+    @Test
+    void limitWithoutConditionWalksPriorityIndex() {
+        QueryPlan plan = planAndCheck("limit 10");
+        AccessPath.PriorityScan scan = assertInstanceOf(AccessPath.PriorityScan.class, plan.access());
+        assertFalse(scan.descending());
+        assertEquals(10, scan.estimatedRows());
+        assertEquals(10, plan.execute().size());
+    }
+
+    @Test
+    void limitWithCommonConditionWalksPriorityIndex() {
+        // подходит половина билетов: обход приоритета остановится примерно через 20 билетов
+        QueryPlan plan = planAndCheck("type = usual limit 10");
+        assertInstanceOf(AccessPath.PriorityScan.class, plan.access());
+        assertNotNull(plan.rejected());
+    }
+
+    @Test
+    void limitWithRareConditionUsesIndex() {
+        // подходит 1% билетов: обход приоритета просмотрел бы всю коллекцию
+        QueryPlan plan = planAndCheck("type = vip limit 5");
+        assertInstanceOf(AccessPath.KeyLookup.class, plan.access());
+    }
+
+    @Test
+    void orderByDisablesPriorityWalk() {
+        QueryPlan plan = planAndCheck("order by price desc limit 10");
+        assertInstanceOf(AccessPath.FullScan.class, plan.access());
+        List<Ticket> rows = plan.execute();
+        assertEquals(1000.0, rows.get(0).getPrice());
+        assertEquals(991.0, rows.get(9).getPrice());
+    }
+
+    @Test
+    void tailWalksPriorityIndexFromEnd() {
+        Query head = QueryParser.parse("limit 3");
+        Query tail = new Query(false, List.of(), null, ticket -> true, null, true, 3);
+        AccessPath.PriorityScan scan = assertInstanceOf(AccessPath.PriorityScan.class, planner.plan(tail).access());
+        assertTrue(scan.descending());
+
+        List<Ticket> sorted = new ArrayList<>(collection);
+        sorted.sort(TicketIndexes.PRIORITY_ORDER);
+        assertEquals(sorted.subList(0, 3), planner.plan(head).execute());
+        assertEquals(List.of(sorted.get(SIZE - 1), sorted.get(SIZE - 2), sorted.get(SIZE - 3)), planner.plan(tail).execute());
+    }
+
+    /**
+     * Планирует запрос и проверяет, что результат плана совпадает с полным перебором
+     */
+    private QueryPlan planAndCheck(String text) {
+        Query query = QueryParser.parse(text);
+        QueryPlan plan = planner.plan(query);
+        assertEquals(bruteForce(query), plan.execute(), text);
+        return plan;
+    }
+
+    private List<Ticket> bruteForce(Query query) {
+        Comparator<Ticket> order = TicketIndexes.PRIORITY_ORDER;
+        if (query.orderBy() != null) {
+            order = query.orderBy().comparator();
+            if (query.descending()) order = order.reversed();
+            order = order.thenComparing(TicketIndexes.PRIORITY_ORDER);
+        } else if (query.descending()) {
+            order = order.reversed();
+        }
+        List<Ticket> rows = new ArrayList<>(collection.stream().filter(query.predicate()).sorted(order).toList());
+        return query.limit() >= 0 && rows.size() > query.limit() ? rows.subList(0, query.limit()) : rows;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.server.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKTest {
+    @Test
+    void selectsFirstKInOrder() {
+        Random random = new Random(7);
+        List<Integer> values = new ArrayList<>();
+        // с повторами, чтобы проверить равные элементы на границе отбора
+        for (int i = 0; i < 5000; i++) values.add(random.nextInt(1000));
+
+        for (int k : new int[]{1, 5, 100, 4999, 5000, 10_000}) {
+            assertEquals(firstK(values, k, Comparator.naturalOrder()), select(values, k, Comparator.naturalOrder()), "k = " + k);
+            assertEquals(firstK(values, k, Comparator.reverseOrder()), select(values, k, Comparator.reverseOrder()), "k = " + k + " desc");
+        }
+    }
+
+    @Test
+    void zeroKSelectsNothing() {
+        assertTrue(select(List.of(3, 1, 2), 0, Comparator.naturalOrder()).isEmpty());
+    }
+
+    @Test
+    void emptyInputSelectsNothing() {
+        assertTrue(select(List.of(), 10, Comparator.naturalOrder()).isEmpty());
+    }
+
+    private static List<Integer> select(List<Integer> values, int k, Comparator<Integer> order) {
+        TopK<Integer> top = new TopK<>(k, order);
+        values.forEach(top::offer);
+        return top.toSortedList();
+    }
+
+    private static List<Integer> firstK(List<Integer> values, int k, Comparator<Integer> order) {
+        return values.stream().sorted(order).limit(k).toList();
+    }
+}
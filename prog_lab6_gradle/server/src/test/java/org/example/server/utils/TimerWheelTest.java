@@ -0,0 +1,78 @@
+package org.example.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesAtDeadlineNotBefore() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 1000);
+        wheel.schedule("a", 1025);
+        assertEquals(1, wheel.size());
+
+        wheel.advance(1029, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(1030, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void keepsTimersOfLaterRotations() {
+        // 8 ячеек по 10 мс: таймер через 200 мс проходит свою ячейку дважды до срабатывания
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.schedule("late", 200);
+        wheel.schedule("early", 40);
+
+        wheel.advance(120, fired::add);
+        assertEquals(List.of("early"), fired);
+        assertEquals(1, wheel.size());
+
+        wheel.advance(199, fired::add);
+        assertEquals(List.of("early"), fired);
+        wheel.advance(200, fired::add);
+        assertEquals(List.of("early", "late"), fired);
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.advance(50, fired::add);
+        wheel.schedule("overdue", 0);
+
+        wheel.advance(55, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(60, fired::add);
+        assertEquals(List.of("overdue"), fired);
+    }
+
+    @Test
+    void callbackCanScheduleAgain() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+        wheel.schedule("tick", 10);
+        long[] now = {0};
+        for (now[0] = 10; now[0] <= 100; now[0] += 10) {
+            wheel.advance(now[0], item -> {
+                fired.add(item);
+                wheel.schedule(item, now[0] + 30);
+            });
+        }
+        // срабатывания в 10, 40, 70, 100
+        assertEquals(4, fired.size());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(0, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(10, 0, 0));
+    }
+}
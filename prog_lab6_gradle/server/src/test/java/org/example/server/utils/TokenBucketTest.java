@@ -0,0 +1,70 @@
+package org.example.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Запас времени против округления при пересчете токенов
+     */
+    private static final long EPSILON = 1000;
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(SECOND / 20));
+        assertTrue(bucket.tryAcquire(SECOND / 10 + EPSILON));
+        assertFalse(bucket.tryAcquire(SECOND / 10 + EPSILON));
+    }
+
+    @Test
+    void doesNotAccumulateBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(100, 2, 0);
+        long later = 60 * SECOND;
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+    }
+
+    @Test
+    void reportsWaitForNextToken() {
+        TokenBucket bucket = new TokenBucket(4, 1, 0);
+        assertEquals(0, bucket.nanosUntilAvailable(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertEquals(SECOND / 4, bucket.nanosUntilAvailable(0), 1);
+        assertEquals(SECOND / 8, bucket.nanosUntilAvailable(SECOND / 8), 1);
+        assertTrue(bucket.tryAcquire(SECOND / 4 + EPSILON));
+    }
+
+    @Test
+    void clockGoingBackDoesNotAddTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1, SECOND);
+        assertTrue(bucket.tryAcquire(SECOND));
+        assertFalse(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0.5, 0));
+    }
+}